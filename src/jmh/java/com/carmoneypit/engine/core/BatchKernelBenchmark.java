@@ -0,0 +1,115 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.RegretCalculator.BatchKernel;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import com.carmoneypit.engine.service.CarDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RF/RM for one vehicle over {@code rows} mileage / quote / value variations: the struct-of-arrays
+ * {@link BatchKernel} against the scalar {@code scoreRF}/{@code scoreRM} calls it replaced in the
+ * sensitivity grid. Run with {@code ./gradlew jmh}; results are recorded in docs/BENCHMARKS.md.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchKernelBenchmark {
+
+    /** 3 horizons x 6 x 6 is the grid's default layer; 1024 is a long sweep. */
+    @Param({ "36", "1024" })
+    int rows;
+
+    /** Without controls, and with every control set including a retention horizon (per-row milestone lookup). */
+    @Param({ "none", "horizon" })
+    String controlSet;
+
+    private RegretCalculator regretCalculator;
+    private EngineInput vehicle;
+    private SimulationControls controls;
+    private VehicleFactors factors;
+    private BatchKernel kernel;
+
+    private long[] mileages;
+    private long[] quotes;
+    private long[] values;
+    private double[] rf;
+    private double[] rm;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CarDataService carDataService = new CarDataService(objectMapper);
+        ValuationService valuationService = new ValuationService(objectMapper, carDataService);
+        valuationService.init();
+        regretCalculator = new RegretCalculator(carDataService, valuationService);
+
+        vehicle = new EngineInput("Silverado 1500", VehicleType.TRUCK_VAN, "Chevrolet", 2016, 0, 0, 0, false, false);
+        controls = "none".equals(controlSet) ? null
+                : new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION, MobilityStatus.DRIVABLE,
+                        HassleTolerance.NEUTRAL, RetentionHorizon.YEARS_3);
+        factors = regretCalculator.resolveFactors(vehicle);
+        kernel = regretCalculator.batchKernel(vehicle, controls, factors);
+
+        SplittableRandom random = new SplittableRandom(42);
+        mileages = new long[rows];
+        quotes = new long[rows];
+        values = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            mileages[i] = random.nextLong(250_000);
+            quotes[i] = random.nextLong(15_000);
+            values[i] = 1_000 + random.nextLong(40_000);
+        }
+        rf = new double[rows];
+        rm = new double[rows];
+    }
+
+    @Benchmark
+    public void scalar(Blackhole blackhole) {
+        for (int i = 0; i < rows; i++) {
+            EngineInput input = new EngineInput(vehicle.model(), vehicle.vehicleType(), vehicle.brand(),
+                    vehicle.year(), mileages[i], quotes[i], values[i], false, false);
+            blackhole.consume(regretCalculator.scoreRF(input, controls, factors));
+            blackhole.consume(regretCalculator.scoreRM(input, controls, factors));
+        }
+    }
+
+    @Benchmark
+    public void kernel(Blackhole blackhole) {
+        kernel.score(mileages, quotes, values, rf, rm);
+        blackhole.consume(rf);
+        blackhole.consume(rm);
+    }
+
+    /** Kernel construction included, as the grid pays it once per layer. */
+    @Benchmark
+    public void kernelWithSetup(Blackhole blackhole) {
+        regretCalculator.batchKernel(vehicle, controls, factors).score(mileages, quotes, values, rf, rm);
+        blackhole.consume(rf);
+        blackhole.consume(rm);
+    }
+}
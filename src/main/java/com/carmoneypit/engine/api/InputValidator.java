@@ -0,0 +1,26 @@
+package com.carmoneypit.engine.api;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+
+/**
+ * Checks every API entry point applies to an {@link EngineInput} before it reaches the engine.
+ */
+public final class InputValidator {
+
+    private InputValidator() {
+    }
+
+    /** Returns a human-readable problem, or null when the input may be evaluated. */
+    public static String validate(EngineInput input) {
+        if (input == null) {
+            return "Missing input";
+        }
+        if (input.vehicleType() == null) {
+            return "Missing input.vehicleType";
+        }
+        if (input.mileage() < 0 || input.repairQuoteUsd() < 0 || input.currentValueUsd() < 0) {
+            return "Mileage, repair quote and value must not be negative";
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.carmoneypit.engine.api;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class OutputModels {
@@ -14,7 +16,161 @@ public class OutputModels {
                         double moveTotal,
                         int confidence,
                         PeerData peerData,
-                        EconomicContext economicContext) {
+                        EconomicContext economicContext,
+                        Sensitivities sensitivities,
+                        QuoteRank quoteRank) {
+
+                /** Verdict without sensitivities or quote rank. */
+                public VerdictResult(VerdictState verdictState, String narrativeContext,
+                                VisualizationHint visualizationHint, List<FinancialLineItem> costBreakdown,
+                                long assetBleedAmount, double stayTotal, double moveTotal, int confidence,
+                                PeerData peerData, EconomicContext economicContext) {
+                        this(verdictState, narrativeContext, visualizationHint, costBreakdown, assetBleedAmount,
+                                        stayTotal, moveTotal, confidence, peerData, economicContext, null, null);
+                }
+
+                /** This verdict with {@code sensitivities} attached. */
+                public VerdictResult withSensitivities(Sensitivities sensitivities) {
+                        return new VerdictResult(verdictState, narrativeContext, visualizationHint, costBreakdown,
+                                        assetBleedAmount, stayTotal, moveTotal, confidence, peerData, economicContext,
+                                        sensitivities, quoteRank);
+                }
+        }
+
+        /**
+         * Where a real repair quote sits in the cost distribution of the model's closest-priced known fault,
+         * across every model reporting that component.
+         *
+         * @param component   the matched fault, as the model's data names it
+         * @param slug        the fault's component slug (fault hub)
+         * @param percentile  share of peer repair costs at or below the quote, 0 to 100
+         * @param peerFaults  reported faults in the distribution
+         * @param typicalLow  10th percentile repair cost, whole dollars
+         * @param typicalHigh 90th percentile repair cost, whole dollars
+         * @param outlier     quote below the 5th or above the 95th percentile
+         */
+        public record QuoteRank(
+                        String component,
+                        String slug,
+                        int percentile,
+                        int peerFaults,
+                        long typicalLow,
+                        long typicalHigh,
+                        boolean outlier) {
+
+                /** "82nd", "1st", "13th". */
+                public String percentileLabel() {
+                        int lastTwo = percentile % 100;
+                        String suffix = lastTwo >= 11 && lastTwo <= 13 ? "th" : switch (percentile % 10) {
+                                case 1 -> "st";
+                                case 2 -> "nd";
+                                case 3 -> "rd";
+                                default -> "th";
+                        };
+                        return percentile + suffix;
+                }
+        }
+
+        /**
+         * How RF and RM respond to each input, from the same piecewise-linear formulas that score them. The
+         * continuous inputs carry per-unit partial derivatives on the linear piece holding the current value;
+         * controls are discrete, so each alternative value carries the exact change it would make.
+         */
+        public record Sensitivities(
+                        Sensitivity mileage,
+                        Sensitivity repairQuote,
+                        Sensitivity currentValue,
+                        List<ControlShift> controls) {
+
+                /**
+                 * Every lever at a comparable step (+$500 quote, +10,000 miles, +$1,000 value, each control
+                 * alternative) by its effect on RF − RM, largest first. Positive pushes toward selling.
+                 */
+                public List<Lever> levers() {
+                        List<Lever> levers = new ArrayList<>();
+                        levers.add(new Lever("Repair quote +$500", repairQuote.marginChange(500)));
+                        levers.add(new Lever("Mileage +10,000", mileage.marginChange(10_000)));
+                        levers.add(new Lever("Car value +$1,000", currentValue.marginChange(1_000)));
+                        for (ControlShift shift : controls) {
+                                levers.add(new Lever(shift.label(), shift.rf() - shift.rm()));
+                        }
+                        levers.sort(Comparator.comparingDouble((Lever l) -> -Math.abs(l.marginChange())));
+                        return levers;
+                }
+        }
+
+        /**
+         * @param rf             ∂RF/∂x per unit (mile or dollar)
+         * @param rm             ∂RM/∂x per unit
+         * @param nextBreakpoint last value of the current linear piece, where a slope changes or a score jumps;
+         *                       null when the scores stay linear
+         */
+        public record Sensitivity(double rf, double rm, Long nextBreakpoint) {
+
+                /** Change in RF − RM for a step of {@code delta} units, within the current piece. */
+                public double marginChange(double delta) {
+                        return (rf - rm) * delta;
+                }
+        }
+
+        /**
+         * @param control control name, e.g. {@code hassleTolerance}
+         * @param value   name of the alternative value
+         * @param rf      change in RF when the control is switched to {@code value}
+         * @param rm      change in RM
+         */
+        public record ControlShift(String control, String value, double rf, double rm) {
+
+                public String label() {
+                        String name = switch (control) {
+                                case "failureSeverity" -> "Severity";
+                                case "mobilityStatus" -> "Drivable?";
+                                case "hassleTolerance" -> "Switching hassle";
+                                case "retentionHorizon" -> "Keep it for";
+                                default -> control;
+                        };
+                        return name + ": " + value.replace('_', ' ').toLowerCase();
+                }
+        }
+
+        public record Lever(String label, double marginChange) {
+        }
+
+        /** Verdict without line items or narrative, for batch scoring, sweeps and precomputation. */
+        public record VerdictScore(
+                        VerdictState verdictState,
+                        double stayTotal,
+                        double moveTotal,
+                        int confidence) {
+        }
+
+        /**
+         * Where the verdict flips for one vehicle with everything else held fixed: the lowest repair quote, and
+         * the lowest mileage, at which it is at least BORDERLINE / TIME_BOMB. Null when not reached in range.
+         */
+        public record Breakeven(
+                        VerdictState currentState,
+                        Long borderlineQuote,
+                        Long timeBombQuote,
+                        Long borderlineMileage,
+                        Long timeBombMileage) {
+        }
+
+        /**
+         * Every {@link InputModels.SimulationControls} combination for one vehicle, flattened row-major over
+         * severity, mobility, hassle, horizon (horizon index 0 is "not set"):
+         * {@code index = ((s * mobilities + m) * hassles + h) * horizons + r}. {@code states} has one character
+         * per combination ({@code 0} STABLE, {@code 1} BORDERLINE, {@code 2} TIME_BOMB); totals are whole dollars.
+         */
+        public record ControlMatrix(
+                        List<InputModels.FailureSeverity> failureSeverities,
+                        List<InputModels.MobilityStatus> mobilityStatuses,
+                        List<InputModels.HassleTolerance> hassleTolerances,
+                        List<InputModels.RetentionHorizon> retentionHorizons,
+                        String states,
+                        long[] stayTotals,
+                        long[] moveTotals,
+                        int confidence) {
         }
 
         public record PeerData(
@@ -0,0 +1,291 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputValidator;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scores whole lots of vehicles through {@link DecisionEngine} for fleet and dealer integrations.
+ *
+ * Input is a JSON array or NDJSON stream of {@link BatchVerdictRequest}; output is one NDJSON line per
+ * item, in input order, followed by a summary line. Items are evaluated on a shared worker pool, but at
+ * most {@code window} of them are in flight per batch: the reader waits for the oldest result before
+ * reading further, so memory stays constant no matter how many rows a request carries.
+ */
+@Service
+public class BatchVerdictService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchVerdictService.class);
+
+    private final DecisionEngine decisionEngine;
+    private final ObjectReader requestReader;
+    private final ObjectWriter lineWriter;
+    private final ExecutorService workers;
+    private final Semaphore batchSlots;
+    private final int maxItems;
+    private final int window;
+
+    // --- Throughput metrics (since startup) ---
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejectedBatches = new LongAdder();
+    private final LongAdder truncatedBatches = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    @Autowired
+    public BatchVerdictService(DecisionEngine decisionEngine, ObjectMapper objectMapper,
+            @Value("${app.api.batch.maxItems:10000}") int maxItems,
+            @Value("${app.api.batch.maxConcurrentBatches:4}") int maxConcurrentBatches,
+            @Value("${app.api.batch.parallelism:0}") int parallelism) {
+        this.decisionEngine = decisionEngine;
+        this.requestReader = objectMapper.readerFor(BatchVerdictRequest.class);
+        this.lineWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.maxItems = Math.max(1, maxItems);
+        this.batchSlots = new Semaphore(Math.max(1, maxConcurrentBatches));
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.window = threads * 4;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "verdict-batch-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Reserves one of the concurrent batch slots. Callers that get {@code true} must call
+     * {@link #release()} once the batch has been streamed.
+     */
+    public boolean tryAcquire() {
+        if (batchSlots.tryAcquire()) {
+            return true;
+        }
+        rejectedBatches.increment();
+        return false;
+    }
+
+    public void release() {
+        batchSlots.release();
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public BatchSummary stream(InputStream in, OutputStream out) throws IOException {
+        return stream(in, out, false);
+    }
+
+    /**
+     * Reads requests from {@code in}, evaluates them in parallel and writes one NDJSON line per item to
+     * {@code out} in input order, then a summary line. Neither stream is closed.
+     *
+     * @param scoresOnly write {@link VerdictScore}s (state, RF/RM, confidence) instead of full verdicts
+     */
+    public BatchSummary stream(InputStream in, OutputStream out, boolean scoresOnly) throws IOException {
+        long started = System.nanoTime();
+        ArrayDeque<Future<BatchVerdictLine>> inFlight = new ArrayDeque<>();
+        int read = 0;
+        int failed = 0;
+        boolean truncated = false;
+
+        try (MappingIterator<BatchVerdictRequest> requests = requestReader.readValues(in)) {
+            while (true) {
+                BatchVerdictRequest request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // A malformed item leaves the parser at an unknown position; stop after reporting it
+                    failed += drain(inFlight, out, 0);
+                    writeLine(out, BatchVerdictLine.error(read, null, "Unreadable item: " + rootMessage(e)));
+                    failed++;
+                    read++;
+                    break;
+                }
+
+                if (read >= maxItems) {
+                    truncated = true;
+                    break;
+                }
+                final int index = read++;
+                final BatchVerdictRequest item = request;
+                inFlight.add(workers.submit(() -> evaluate(index, item, scoresOnly)));
+                failed += drain(inFlight, out, window);
+            }
+            failed += drain(inFlight, out, 0);
+        } finally {
+            inFlight.forEach(f -> f.cancel(true));
+        }
+
+        if (truncated) {
+            writeLine(out, BatchVerdictLine.error(read, null,
+                    "Batch limit of " + maxItems + " items reached; remaining items were not evaluated"));
+        }
+
+        long nanos = System.nanoTime() - started;
+        BatchSummary summary = BatchSummary.of(read, failed, truncated, nanos);
+        writeLine(out, new SummaryLine(summary));
+        out.flush();
+
+        batches.increment();
+        items.add(read);
+        errors.add(failed);
+        busyNanos.add(nanos);
+        if (truncated) {
+            truncatedBatches.increment();
+        }
+        logger.info("Batch verdicts: {} items ({} errors{}) in {} ms, {} items/s", summary.items(), summary.errors(),
+                truncated ? ", truncated" : "", summary.millis(), Math.round(summary.itemsPerSecond()));
+        return summary;
+    }
+
+    /** Writes completed results until at most {@code keep} remain in flight; returns the number of errors. */
+    private int drain(ArrayDeque<Future<BatchVerdictLine>> inFlight, OutputStream out, int keep) throws IOException {
+        int failed = 0;
+        while (inFlight.size() > keep) {
+            BatchVerdictLine line = await(inFlight.poll());
+            if (line.error() != null) {
+                failed++;
+            }
+            writeLine(out, line);
+        }
+        return failed;
+    }
+
+    private BatchVerdictLine await(Future<BatchVerdictLine> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            // evaluate() reports its own failures; this only happens if the task itself could not run
+            throw new IOException("Batch item failed", e.getCause());
+        }
+    }
+
+    private BatchVerdictLine evaluate(int index, BatchVerdictRequest request, boolean scoresOnly) {
+        String id = request == null ? null : request.id();
+        String problem = validate(request);
+        if (problem != null) {
+            return BatchVerdictLine.error(index, id, problem);
+        }
+        try {
+            if (scoresOnly) {
+                return new BatchVerdictLine(index, id, null,
+                        decisionEngine.scoreOnce(request.input(), request.controls()), null);
+            }
+            VerdictResult result = decisionEngine.evaluateOnce(request.input(), request.controls());
+            return new BatchVerdictLine(index, id, result, null, null);
+        } catch (RuntimeException e) {
+            logger.debug("Batch item {} failed", index, e);
+            return BatchVerdictLine.error(index, id, "Evaluation failed: " + rootMessage(e));
+        }
+    }
+
+    private static String validate(BatchVerdictRequest request) {
+        return InputValidator.validate(request == null ? null : request.input());
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        lineWriter.writeValue(out, line);
+        out.write('\n');
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage();
+        return message == null ? root.getClass().getSimpleName() : message.lines().findFirst().orElse(message);
+    }
+
+    public BatchMetrics metrics() {
+        long nanos = busyNanos.sum();
+        long total = items.sum();
+        return new BatchMetrics(
+                batches.sum(),
+                total,
+                errors.sum(),
+                rejectedBatches.sum(),
+                truncatedBatches.sum(),
+                batchSlots.availablePermits(),
+                nanos > 0 ? total / (nanos / 1e9) : 0.0,
+                maxItems,
+                window);
+    }
+
+    // --- Wire records ---
+
+    /** One input row: a vehicle and, optionally, Simulation Lab controls. {@code id} is echoed back. */
+    public record BatchVerdictRequest(String id, EngineInput input, SimulationControls controls) {
+    }
+
+    /** One output row; exactly one of {@code verdict} / {@code score} / {@code error} is set. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BatchVerdictLine(int index, String id, VerdictResult verdict, VerdictScore score, String error) {
+        static BatchVerdictLine error(int index, String id, String error) {
+            return new BatchVerdictLine(index, id, null, null, error);
+        }
+    }
+
+    public record BatchSummary(int items, int errors, boolean truncated, long millis, double itemsPerSecond) {
+        static BatchSummary of(int items, int errors, boolean truncated, long nanos) {
+            return new BatchSummary(items, errors, truncated, nanos / 1_000_000,
+                    nanos > 0 ? items / (nanos / 1e9) : 0.0);
+        }
+    }
+
+    /** Trailing line of every batch response. */
+    public record SummaryLine(BatchSummary summary) {
+    }
+
+    public record BatchMetrics(
+            long batches,
+            long items,
+            long errors,
+            long rejectedBatches,
+            long truncatedBatches,
+            int availableBatchSlots,
+            double itemsPerSecond, // while a batch was running
+            int maxItemsPerBatch,
+            int windowPerBatch) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.carmoneypit.engine.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Entry-bounded memo for per-input intermediate results, striped like {@link VerdictCache}: each of 16
+ * stripes is an access-ordered map that drops its least recently used entry once full, so a busy memo
+ * sheds cold inputs instead of starting over. Values are computed outside the stripe lock; two threads
+ * missing on one key may both compute it, and the first stored value wins.
+ */
+final class BoundedMemo<K, V> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<K, V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    BoundedMemo(int maxEntries) {
+        int perStripe = Math.max(1, maxEntries / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+    }
+
+    /** The memoized value for {@code key}; {@code compute} must not return null. */
+    V get(K key, Function<? super K, ? extends V> compute) {
+        Stripe<K, V> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        V value = stripe.get(key);
+        if (value != null) {
+            return value;
+        }
+        return stripe.putIfAbsent(key, compute.apply(key));
+    }
+
+    void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static final class Stripe<K, V> {
+        private final LinkedHashMap<K, V> entries;
+
+        Stripe(int maxEntries) {
+            entries = new LinkedHashMap<>(64, 0.75f, true) { // access order
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            return entries.get(key);
+        }
+
+        /** Stores {@code value} unless another thread got there first; returns whichever is kept. */
+        synchronized V putIfAbsent(K key, V value) {
+            V existing = entries.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.OutputModels.Breakeven;
+import com.carmoneypit.engine.api.OutputModels.VerdictState;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds the repair quote and the mileage at which a vehicle's verdict flips, holding everything else fixed.
+ *
+ * RF − RM is linear and non-decreasing in both the quote and the mileage between the breakpoints published by
+ * {@link RegretCalculator}; at a milestone breakpoint the horizon cost may step down, so pieces are scanned in
+ * order and the first one reaching the level wins. Each piece is solved from its two end values; the candidate is then checked
+ * against {@link DecisionEngine#determineState} at whole dollars / miles and, if the piece turns out not to be
+ * linear there, the threshold is bisected instead. A solve costs a few dozen score evaluations.
+ *
+ * Results for the pSEO pages, whose inputs depend only on model and mileage bucket, are cached until the
+ * next dataset reload.
+ */
+@Service
+public class BreakevenSolver {
+
+    static final long MAX_QUOTE = 250_000;
+    static final long MAX_MILEAGE = 400_000;
+    private static final int MAX_CACHED_PAGES = 20_000;
+
+    private final RegretCalculator regretCalculator;
+    private final BoundedMemo<EngineInput, Breakeven> pageCache = new BoundedMemo<>(MAX_CACHED_PAGES);
+
+    public BreakevenSolver(RegretCalculator regretCalculator) {
+        this.regretCalculator = regretCalculator;
+    }
+
+    public Breakeven solve(EngineInput input, SimulationControls controls) {
+        VehicleFactors factors = regretCalculator.resolveFactors(input);
+        VerdictState current = stateAt(input, controls, factors);
+
+        QuoteAxis quotes = new QuoteAxis(input, controls, factors);
+        MileageAxis mileages = new MileageAxis(input, controls, factors);
+        long[] quoteBreaks = regretCalculator.quoteBreakpoints(input);
+        long[] mileageBreaks = regretCalculator.mileageBreakpoints(input, controls);
+
+        return new Breakeven(current,
+                threshold(quotes, VerdictState.BORDERLINE, 0, MAX_QUOTE, quoteBreaks),
+                threshold(quotes, VerdictState.TIME_BOMB, 0, MAX_QUOTE, quoteBreaks),
+                threshold(mileages, VerdictState.BORDERLINE, 0, MAX_MILEAGE, mileageBreaks),
+                threshold(mileages, VerdictState.TIME_BOMB, 0, MAX_MILEAGE, mileageBreaks));
+    }
+
+    /** {@link #solve} without controls, memoized for the pSEO pages. */
+    public Breakeven solveForPage(EngineInput input) {
+        return pageCache.get(input, key -> solve(key, null));
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        pageCache.clear();
+    }
+
+    private VerdictState stateAt(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+        return DecisionEngine.determineState(regretCalculator.scoreRF(input, controls, factors),
+                regretCalculator.scoreRM(input, controls, factors));
+    }
+
+    /**
+     * Lowest x in [from, to] whose verdict is at least {@code level}, or null.
+     *
+     * @param breakpoints ascending; each is the last x of a linear piece of RF − RM
+     */
+    static Long threshold(Axis axis, VerdictState level, long from, long to, long[] breakpoints) {
+        // The state boundary in terms of RF - RM: STABLE up to -margin, TIME_BOMB above +margin
+        double target = level == VerdictState.TIME_BOMB ? DecisionEngine.SIGNIFICANCE_MARGIN
+                : -DecisionEngine.SIGNIFICANCE_MARGIN;
+
+        long start = from;
+        for (int i = 0; i <= breakpoints.length && start <= to; i++) {
+            long end = i < breakpoints.length ? Math.min(breakpoints[i], to) : to;
+            if (end < start) {
+                continue;
+            }
+            if (axis.reaches(start, level)) {
+                return start;
+            }
+            if (axis.reaches(end, level)) {
+                return solvePiece(axis, level, target, start, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /** Threshold inside one piece, where {@code lo} is below the level and {@code hi} reaches it. */
+    private static long solvePiece(Axis axis, VerdictState level, double target, long lo, long hi) {
+        double dLo = axis.margin(lo);
+        double dHi = axis.margin(hi);
+        if (dHi > dLo) {
+            double root = lo + (target - dLo) * (hi - lo) / (dHi - dLo);
+            long candidate = Math.max(lo + 1, Math.min(hi, (long) Math.floor(root) + 1));
+            // Floating-point rounding can put the exact boundary one step either side of the root
+            for (long c = Math.max(lo + 1, candidate - 1); c <= Math.min(hi, candidate + 1); c++) {
+                if (axis.reaches(c, level) && !axis.reaches(c - 1, level)) {
+                    return c;
+                }
+            }
+        }
+
+        // Not linear after all: bisect, keeping lo below the level and hi at or above it
+        while (hi - lo > 1) {
+            long mid = lo + (hi - lo) / 2;
+            if (axis.reaches(mid, level)) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        return hi;
+    }
+
+    /** One input dimension swept with everything else fixed. */
+    abstract static class Axis {
+        final SimulationControls controls;
+        final VehicleFactors factors;
+        final RegretCalculator calculator;
+
+        Axis(RegretCalculator calculator, SimulationControls controls, VehicleFactors factors) {
+            this.calculator = calculator;
+            this.controls = controls;
+            this.factors = factors;
+        }
+
+        abstract EngineInput at(long x);
+
+        double margin(long x) {
+            EngineInput input = at(x);
+            return calculator.scoreRF(input, controls, factors) - calculator.scoreRM(input, controls, factors);
+        }
+
+        boolean reaches(long x, VerdictState level) {
+            EngineInput input = at(x);
+            VerdictState state = DecisionEngine.determineState(calculator.scoreRF(input, controls, factors),
+                    calculator.scoreRM(input, controls, factors));
+            return state.ordinal() >= level.ordinal();
+        }
+    }
+
+    private final class QuoteAxis extends Axis {
+        private final EngineInput input;
+
+        QuoteAxis(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+            super(regretCalculator, controls, factors);
+            this.input = input;
+        }
+
+        @Override
+        EngineInput at(long quote) {
+            return new EngineInput(input.model(), input.vehicleType(), input.brand(), input.year(), input.mileage(),
+                    quote, input.currentValueUsd(), input.isQuoteEstimated(), input.isValueEstimated());
+        }
+    }
+
+    private final class MileageAxis extends Axis {
+        private final EngineInput input;
+
+        MileageAxis(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+            super(regretCalculator, controls, factors);
+            this.input = input;
+        }
+
+        @Override
+        EngineInput at(long mileage) {
+            return new EngineInput(input.model(), input.vehicleType(), input.brand(), input.year(), mileage,
+                    input.repairQuoteUsd(), input.currentValueUsd(), input.isQuoteEstimated(),
+                    input.isValueEstimated());
+        }
+    }
+}
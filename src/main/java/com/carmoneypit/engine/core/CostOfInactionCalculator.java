@@ -12,28 +12,7 @@ public class CostOfInactionCalculator {
         // (BaseRepairCost × 0.5 [Risk Probability])
 
         // 1. 6moDepreciationRate
-        double depRate = 0.10; // Default
-
-        if (depRateOverride != null) {
-            // JSON rate is annual (e.g., 0.15), convert to 6-mo
-            depRate = depRateOverride / 2.0;
-        } else {
-            // Fallback to legacy heuristic
-            switch (vehicleType) {
-                case LUXURY:
-                case PERFORMANCE:
-                    depRate = 0.15;
-                    break;
-                case SUV:
-                case TRUCK_VAN:
-                    depRate = 0.08;
-                    break;
-                case SEDAN:
-                default:
-                    depRate = 0.10;
-                    break;
-            }
-        }
+        double depRate = annualDepreciationRate(vehicleType, depRateOverride) / 2.0;
 
         // 2. Risk Probability
         double riskProb = 0.10;
@@ -47,4 +26,23 @@ public class CostOfInactionCalculator {
         // Rounding Rule (100s)
         return Math.round(bleed / 100.0) * 100;
     }
+
+    /** Annual depreciation rate: the model's market rate when known, else the vehicle-type heuristic. */
+    public static double annualDepreciationRate(VehicleType vehicleType, Double depRateOverride) {
+        if (depRateOverride != null) {
+            return depRateOverride;
+        }
+        // Fallback to legacy heuristic
+        switch (vehicleType) {
+            case LUXURY:
+            case PERFORMANCE:
+                return 0.30;
+            case SUV:
+            case TRUCK_VAN:
+                return 0.16;
+            case SEDAN:
+            default:
+                return 0.20;
+        }
+    }
 }
@@ -1,15 +1,28 @@
 package com.carmoneypit.engine.core;
 
 import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
 import com.carmoneypit.engine.api.InputModels.SimulationControls;
 import com.carmoneypit.engine.api.FinancialLineItem;
+import com.carmoneypit.engine.api.OutputModels.ControlMatrix;
+import com.carmoneypit.engine.api.OutputModels.QuoteRank;
+import com.carmoneypit.engine.api.OutputModels.Sensitivities;
 import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
 import com.carmoneypit.engine.api.OutputModels.VerdictState;
 import com.carmoneypit.engine.api.OutputModels.VisualizationHint;
 import com.carmoneypit.engine.core.RegretCalculator.RegretDetail;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -18,14 +31,17 @@ public class DecisionEngine {
     private final RegretCalculator regretCalculator;
     private final CostOfInactionCalculator costOfInactionCalculator;
     private final ValuationService valuationService;
+    private final VerdictCache verdictCache;
+    private final BoundedMemo<EngineInput, InputStage> inputStages = new BoundedMemo<>(MAX_INPUT_STAGES);
 
     // --- Calculation Constants & Thresholds ---
-    private static final double SIGNIFICANCE_MARGIN = 500.0;
+    static final double SIGNIFICANCE_MARGIN = 500.0;
     private static final int BASE_CONFIDENCE_GENERIC = 60;
     private static final int BOOST_MODEL_DATA = 25;
     private static final int BOOST_VEHICLE_SEGMENT = 10;
     private static final int BOOST_REAL_QUOTE = 13;
     private static final int BOOST_MARKETING_MATCH = 5;
+    private static final int PENALTY_QUOTE_OUTLIER = 15; // Real quote far outside what peers pay for the matched fault
 
     private static final int DEFAULT_SELL_PCT = 40;
     private static final int SELL_PCT_SHIFT_BOMB = 15;
@@ -34,11 +50,20 @@ public class DecisionEngine {
     private static final long DEFAULT_SWITCHING_FRICTION = 3000L;
     private static final int DEFAULT_NEW_MONTHLY_PAYMENT = 748;
 
+    private static final int MAX_INPUT_STAGES = 10_000;
+
     public DecisionEngine(RegretCalculator regretCalculator, CostOfInactionCalculator costOfInactionCalculator,
             ValuationService valuationService) {
+        this(regretCalculator, costOfInactionCalculator, valuationService, VerdictCache.disabled());
+    }
+
+    @Autowired
+    public DecisionEngine(RegretCalculator regretCalculator, CostOfInactionCalculator costOfInactionCalculator,
+            ValuationService valuationService, VerdictCache verdictCache) {
         this.regretCalculator = regretCalculator;
         this.costOfInactionCalculator = costOfInactionCalculator;
         this.valuationService = valuationService;
+        this.verdictCache = verdictCache;
     }
 
     /**
@@ -55,9 +80,160 @@ public class DecisionEngine {
         return processVerdict(input, controls);
     }
 
+    /**
+     * {@link #simulate} for an input evaluated once, such as a batch row: the same verdict, computed without
+     * reading or filling the verdict cache or the per-input stages, which serve repeated interactive calls.
+     * {@code controls} may be null, as for {@link #evaluate}.
+     */
+    public VerdictResult evaluateOnce(EngineInput input, SimulationControls controls) {
+        return computeVerdict(input, controls, computeInputStage(input), null);
+    }
+
+    /**
+     * Sensitivities of a verdict from {@link #evaluate} or {@link #simulate}, for views that show them. Verdicts
+     * leave them out: they take eleven extra RF/RM evaluations, which /simulate and batch callers never read.
+     */
+    public Sensitivities sensitivities(EngineInput input, SimulationControls controls, VerdictResult result) {
+        return regretCalculator.sensitivities(input, controls, result.stayTotal(), result.moveTotal());
+    }
+
+    /**
+     * {@link #simulate} with RM priced against a specific replacement, such as one picked from
+     * {@link ReplacementRecommender}, instead of the base price of the input's vehicle type. Not cached: the
+     * verdict cache is keyed on input and controls alone. A one-off detail view, so it carries sensitivities.
+     */
+    public VerdictResult simulate(EngineInput input, SimulationControls controls, long replacementPrice) {
+        return computeVerdict(input, controls, inputStage(input), withReplacement(input, replacementPrice));
+    }
+
+    /**
+     * Score-only evaluation: the same RF/RM math, state and confidence as {@link #simulate}, without
+     * building line items, narrative or peer/economic context. {@code controls} may be null. Confidence comes
+     * from the input's stage, so scoring one car under many controls ranks its quote once.
+     */
+    public VerdictScore score(EngineInput input, SimulationControls controls) {
+        double rf = regretCalculator.scoreRF(input, controls);
+        double rm = regretCalculator.scoreRM(input, controls);
+        return new VerdictScore(determineState(rf, rm), rf, rm, inputStage(input).confidence());
+    }
+
+    /**
+     * {@link #score} for an input scored once, such as a batch row or a precomputed table cell: the same
+     * result, without resolving or keeping an input stage for it.
+     */
+    public VerdictScore scoreOnce(EngineInput input, SimulationControls controls) {
+        double rf = regretCalculator.scoreRF(input, controls);
+        double rm = regretCalculator.scoreRM(input, controls);
+        boolean hasMarketData = valuationService.getMarketData(input.model()).isPresent();
+        return new VerdictScore(determineState(rf, rm), rf, rm, calculateConfidence(input, hasMarketData,
+                regretCalculator.rankQuote(input).orElse(null)));
+    }
+
+    /**
+     * {@link #score} with RM priced against a specific replacement, such as one picked from
+     * {@link ReplacementRecommender}, instead of the base price of the input's vehicle type.
+     */
+    public VerdictScore score(EngineInput input, SimulationControls controls, long replacementPrice) {
+        VehicleFactors factors = withReplacement(input, replacementPrice);
+        double rf = regretCalculator.scoreRF(input, controls, factors);
+        double rm = regretCalculator.scoreRM(input, controls, factors);
+        return new VerdictScore(determineState(rf, rm), rf, rm, inputStage(input).confidence());
+    }
+
+    /**
+     * Scores every controls combination for one input in a single pass: the vehicle's factors and confidence
+     * are resolved once, each of the 90 cells is only RF/RM arithmetic. Cells match {@link #score} exactly.
+     */
+    public ControlMatrix scoreMatrix(EngineInput input) {
+        List<FailureSeverity> severities = List.of(FailureSeverity.values());
+        List<MobilityStatus> mobilities = List.of(MobilityStatus.values());
+        List<HassleTolerance> hassles = List.of(HassleTolerance.values());
+        List<RetentionHorizon> horizons = new ArrayList<>();
+        horizons.add(null);
+        horizons.addAll(List.of(RetentionHorizon.values()));
+
+        VehicleFactors factors = regretCalculator.resolveFactors(input);
+        int cells = severities.size() * mobilities.size() * hassles.size() * horizons.size();
+        char[] states = new char[cells];
+        long[] stay = new long[cells];
+        long[] move = new long[cells];
+        int index = 0;
+        for (FailureSeverity severity : severities)
+            for (MobilityStatus mobility : mobilities)
+                for (HassleTolerance hassle : hassles)
+                    for (RetentionHorizon horizon : horizons) {
+                        SimulationControls controls = new SimulationControls(severity, mobility, hassle, horizon);
+                        double rf = regretCalculator.scoreRF(input, controls, factors);
+                        double rm = regretCalculator.scoreRM(input, controls, factors);
+                        states[index] = (char) ('0' + determineState(rf, rm).ordinal());
+                        stay[index] = Math.round(rf);
+                        move[index] = Math.round(rm);
+                        index++;
+                    }
+
+        return new ControlMatrix(severities, mobilities, hassles, Collections.unmodifiableList(horizons),
+                new String(states), stay, move, inputStage(input).confidence());
+    }
+
+    private VehicleFactors withReplacement(EngineInput input, long replacementPrice) {
+        VehicleFactors resolved = regretCalculator.resolveFactors(input);
+        return new VehicleFactors(resolved.majorCostBase(), replacementPrice, resolved.milestones());
+    }
+
     private VerdictResult processVerdict(EngineInput input, SimulationControls controls) {
+        return verdictCache.get(input, controls, () -> computeVerdict(input, controls, inputStage(input), null));
+    }
+
+    /**
+     * Everything in a verdict that does not depend on {@link SimulationControls}: cost of inaction, confidence
+     * and the brand's peer and switching figures. Resolved once per input and reused while the user moves
+     * the /simulate sliders, and by the score paths; the control-dependent stage is just the RF/RM arithmetic
+     * and its line items.
+     */
+    private record InputStage(long assetBleed, int confidence, int baseSellPct, long friction, int monthly,
+            QuoteRank quoteRank) {
+    }
+
+    private InputStage inputStage(EngineInput input) {
+        return inputStages.get(input, this::computeInputStage);
+    }
+
+    private InputStage computeInputStage(EngineInput input) {
+        // Granular Model Context if available
+        var marketDataOpt = valuationService.getMarketData(input.model());
+
+        // Calculate Cost of Inaction (Asset Bleed)
+        Double depRate = marketDataOpt.map(m -> m.depreciationRate()).orElse(null);
+        long assetBleed = costOfInactionCalculator.calculateAssetBleed(input.vehicleType(), input.mileage(),
+                input.repairQuoteUsd(), input.currentValueUsd(), depRate);
+
+        var brandDataOpt = valuationService.getBrandData(input.brand());
+        int sellPct = brandDataOpt
+                .map(d -> normalizePositiveInt(d.sellStatPct, DEFAULT_SELL_PCT))
+                .orElse(DEFAULT_SELL_PCT);
+        long friction = brandDataOpt
+                .map(d -> normalizePositiveLong(d.avgSwitchingFriction, DEFAULT_SWITCHING_FRICTION))
+                .orElse(DEFAULT_SWITCHING_FRICTION);
+        int monthly = brandDataOpt
+                .map(d -> normalizePositiveInt(d.avgNewMonthly, DEFAULT_NEW_MONTHLY_PAYMENT))
+                .orElse(DEFAULT_NEW_MONTHLY_PAYMENT);
+
+        QuoteRank quoteRank = regretCalculator.rankQuote(input).orElse(null);
+        return new InputStage(assetBleed, calculateConfidence(input, marketDataOpt.isPresent(), quoteRank), sellPct,
+                friction, monthly, quoteRank);
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        inputStages.clear();
+    }
+
+    /** @param replacement the vehicle's factors with a chosen replacement's price, or null for the base price */
+    private VerdictResult computeVerdict(EngineInput input, SimulationControls controls, InputStage stage,
+            VehicleFactors replacement) {
         RegretDetail rfDetail = regretCalculator.calculateRF(input, controls);
-        RegretDetail rmDetail = regretCalculator.calculateRM(input, controls);
+        RegretDetail rmDetail = replacement == null ? regretCalculator.calculateRM(input, controls)
+                : regretCalculator.calculateRM(input, controls, replacement);
 
         VerdictState state = determineState(rfDetail.score(), rmDetail.score());
         String narrative = generateNarrative(state, rfDetail.score(), rmDetail.score());
@@ -69,14 +245,6 @@ public class DecisionEngine {
         breakdown.addAll(rfDetail.items());
         breakdown.addAll(rmDetail.items());
 
-        // Granular Model Context if available
-        var marketDataOpt = valuationService.getMarketData(input.model());
-
-        // Calculate Cost of Inaction (Asset Bleed)
-        Double depRate = marketDataOpt.map(m -> m.depreciationRate()).orElse(null);
-        long assetBleed = costOfInactionCalculator.calculateAssetBleed(input.vehicleType(), input.mileage(),
-                input.repairQuoteUsd(), input.currentValueUsd(), depRate);
-
         // Rounding Rule (10s) for "Professional Estimate" feel
         List<FinancialLineItem> roundedBreakdown = new ArrayList<>();
         for (FinancialLineItem item : breakdown) {
@@ -90,25 +258,12 @@ public class DecisionEngine {
         double roundedRM = Math.round(rmDetail.score() / 100.0) * 100.0;
 
         // --- NEW STRATEGIC METRICS ---
-        var brandDataOpt = valuationService.getBrandData(input.brand());
 
         // 1. Data Integrity & Confidence
-        int confidence = BASE_CONFIDENCE_GENERIC;
-        if (input.model() != null && !input.model().isBlank() && !"other".equalsIgnoreCase(input.model())) {
-            confidence += BOOST_MODEL_DATA;
-        } else if (input.vehicleType() != null) {
-            confidence += BOOST_VEHICLE_SEGMENT;
-        }
-        if (!input.isQuoteEstimated())
-            confidence += BOOST_REAL_QUOTE;
-        if (marketDataOpt.isPresent())
-            confidence += BOOST_MARKETING_MATCH;
-        confidence = Math.min(confidence, 98);
+        int confidence = stage.confidence();
 
         // 2. Peer Data (Owner Behavior)
-        int sellPct = brandDataOpt
-                .map(d -> normalizePositiveInt(d.sellStatPct, DEFAULT_SELL_PCT))
-                .orElse(DEFAULT_SELL_PCT);
+        int sellPct = stage.baseSellPct();
         if (state == VerdictState.TIME_BOMB)
             sellPct += SELL_PCT_SHIFT_BOMB;
         if (state == VerdictState.STABLE)
@@ -121,26 +276,41 @@ public class DecisionEngine {
                 state == VerdictState.STABLE ? 8.2 : 4.1);
 
         // 3. Economic Context (Switching Reality)
-        long friction = brandDataOpt
-                .map(d -> normalizePositiveLong(d.avgSwitchingFriction, DEFAULT_SWITCHING_FRICTION))
-                .orElse(DEFAULT_SWITCHING_FRICTION);
-        int monthly = brandDataOpt
-                .map(d -> normalizePositiveInt(d.avgNewMonthly, DEFAULT_NEW_MONTHLY_PAYMENT))
-                .orElse(DEFAULT_NEW_MONTHLY_PAYMENT);
-
         var econContext = new com.carmoneypit.engine.api.OutputModels.EconomicContext(
-                friction,
-                monthly,
+                stage.friction(),
+                stage.monthly(),
                 input.currentValueUsd() / 2 // half-value threshold for repair-vs-replace comparison
         );
 
         VisualizationHint hint = new VisualizationHint(roundedRF, roundedRM, moneyPitState);
-        return new VerdictResult(state, narrative, hint, roundedBreakdown, assetBleed, rfDetail.score(),
-                rmDetail.score(),
-                confidence, peerData, econContext);
+        // Immutable: the result may be shared through the verdict cache
+        return new VerdictResult(state, narrative, hint, List.copyOf(roundedBreakdown), stage.assetBleed(),
+                rfDetail.score(), rmDetail.score(),
+                confidence, peerData, econContext,
+                replacement == null ? null
+                        : regretCalculator.sensitivities(input, controls, replacement, rfDetail.score(),
+                                rmDetail.score()),
+                stage.quoteRank());
+    }
+
+    /** @param quoteRank the input's quote against its fault's peer costs, or null when not ranked */
+    private int calculateConfidence(EngineInput input, boolean hasMarketData, QuoteRank quoteRank) {
+        int confidence = BASE_CONFIDENCE_GENERIC;
+        if (input.model() != null && !input.model().isBlank() && !"other".equalsIgnoreCase(input.model())) {
+            confidence += BOOST_MODEL_DATA;
+        } else if (input.vehicleType() != null) {
+            confidence += BOOST_VEHICLE_SEGMENT;
+        }
+        if (!input.isQuoteEstimated())
+            confidence += BOOST_REAL_QUOTE;
+        if (hasMarketData)
+            confidence += BOOST_MARKETING_MATCH;
+        if (quoteRank != null && quoteRank.outlier())
+            confidence -= PENALTY_QUOTE_OUTLIER;
+        return Math.min(confidence, 98);
     }
 
-    private VerdictState determineState(double rf, double rm) {
+    static VerdictState determineState(double rf, double rm) {
         if (rf > (rm + SIGNIFICANCE_MARGIN)) {
             return VerdictState.TIME_BOMB;
         } else if (rf <= (rm - SIGNIFICANCE_MARGIN)) {
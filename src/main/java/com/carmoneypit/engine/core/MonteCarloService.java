@@ -0,0 +1,287 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.OutputModels.VerdictState;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Uncertainty mode: instead of one point verdict, draws many ownership scenarios and reports how
+ * often each verdict comes out, with P10/P50/P90 bands for both sides of the ledger.
+ *
+ * Each scenario replaces RF's "Risk of Next Breakdown" expectation with a realized outcome: a major failure
+ * happens with the engine's own failure probability and costs what the point verdict charges for it, the
+ * model's costliest known fault, drawn from that fault's quoted range instead of taken at its typical cost.
+ * Estimated repair quotes are drawn around the estimate too. Everything else is the deterministic RF/RM
+ * arithmetic.
+ *
+ * Scenarios run in chunks on the common fork-join pool. Every chunk gets its own {@link SplittableRandom},
+ * split from the seed in chunk order before the chunk is scheduled, so a seed always yields the same
+ * scenarios regardless of thread timing. Chunks run in rounds; after each round the run stops once the 95%
+ * interval of every verdict share is narrower than ±1 point, or when the latency budget is spent. Both the
+ * convergence stop and the scenario limit are deterministic, so a seed reproduces its result; a budget stop
+ * depends on timing and is reported as not {@link UncertaintyResult#reproducible() reproducible}. Rerunning
+ * with the same seed and the reported scenario count as the limit reproduces such a run, budget permitting.
+ */
+@Service
+public class MonteCarloService {
+
+    static final int CHUNK_SIZE = 512;
+    static final int CHUNKS_PER_ROUND = 8;
+    static final double TARGET_HALF_WIDTH = 0.01;
+    private static final double Z_95 = 1.96;
+
+    // Fallback spread of the next failure's cost when no known fault costs more than the general baseline
+    private static final double COST_SPREAD_LOW = 0.75;
+    private static final double COST_SPREAD_HIGH = 1.25;
+
+    // Spread of an estimated repair quote: shops tend to come in above the estimate
+    private static final double ESTIMATED_QUOTE_LOW = 0.7;
+    private static final double ESTIMATED_QUOTE_HIGH = 1.5;
+
+    private final RegretCalculator regretCalculator;
+    private final int maxScenarios;
+    private final long budgetNanos;
+
+    public MonteCarloService(RegretCalculator regretCalculator,
+            @Value("${app.monteCarlo.maxScenarios:20000}") int maxScenarios,
+            @Value("${app.monteCarlo.budgetMillis:200}") long budgetMillis) {
+        this.regretCalculator = regretCalculator;
+        this.maxScenarios = Math.max(CHUNK_SIZE, maxScenarios);
+        this.budgetNanos = Math.max(1, budgetMillis) * 1_000_000L;
+    }
+
+    public int getMaxScenarios() {
+        return maxScenarios;
+    }
+
+    /**
+     * Default seed for an input, stable across restarts and JVMs so a shared link always shows the same
+     * scenarios. Built from the fields themselves (strings and enum names hash the same everywhere), not
+     * from the record's {@code toString}, whose format is not specified.
+     */
+    public static long seedFor(EngineInput input) {
+        long h = 17;
+        h = 31 * h + Objects.hashCode(input.model());
+        h = 31 * h + (input.vehicleType() == null ? 0 : input.vehicleType().name().hashCode());
+        h = 31 * h + Objects.hashCode(input.brand());
+        h = 31 * h + input.year();
+        h = 31 * h + input.mileage();
+        h = 31 * h + input.repairQuoteUsd();
+        h = 31 * h + input.currentValueUsd();
+        h = 31 * h + (input.isQuoteEstimated() ? 1 : 0);
+        h = 31 * h + (input.isValueEstimated() ? 1 : 0);
+        return h;
+    }
+
+    /**
+     * Runs the scenarios for one vehicle.
+     *
+     * @param scenarios upper bound on scenarios; 0 or anything above the configured maximum uses the maximum.
+     *                  Rounded up to whole chunks.
+     */
+    public UncertaintyResult simulate(EngineInput input, SimulationControls controls, long seed, int scenarios) {
+        long started = System.nanoTime();
+        int limit = scenarios <= 0 ? maxScenarios : Math.min(scenarios, maxScenarios);
+        int totalChunks = (limit + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        Scenario scenario = new Scenario(input, controls);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<ChunkResult> chunks = new ArrayList<>();
+        int[] counts = new int[VerdictState.values().length];
+        boolean converged = false;
+        boolean budgetExhausted = false;
+
+        while (chunks.size() < totalChunks) {
+            int round = Math.min(CHUNKS_PER_ROUND, totalChunks - chunks.size());
+            SplittableRandom[] streams = new SplittableRandom[round];
+            for (int i = 0; i < round; i++) {
+                streams[i] = root.split();
+            }
+            ChunkResult[] results = IntStream.range(0, round).parallel()
+                    .mapToObj(i -> scenario.run(streams[i], CHUNK_SIZE))
+                    .toArray(ChunkResult[]::new);
+            for (ChunkResult result : results) {
+                chunks.add(result);
+                for (int s = 0; s < counts.length; s++) {
+                    counts[s] += result.counts()[s];
+                }
+            }
+
+            if (hasConverged(counts, chunks.size() * CHUNK_SIZE)) {
+                converged = true;
+                break;
+            }
+            if (System.nanoTime() - started > budgetNanos) {
+                budgetExhausted = chunks.size() < totalChunks;
+                break;
+            }
+        }
+
+        int n = chunks.size() * CHUNK_SIZE;
+        double[] stay = merge(chunks, n, ChunkResult::stay);
+        double[] move = merge(chunks, n, ChunkResult::move);
+        double[] margin = merge(chunks, n, ChunkResult::margin);
+        return new UncertaintyResult(seed, n, converged, budgetExhausted, !budgetExhausted,
+                (System.nanoTime() - started) / 1_000_000,
+                (double) counts[VerdictState.STABLE.ordinal()] / n,
+                (double) counts[VerdictState.BORDERLINE.ordinal()] / n,
+                (double) counts[VerdictState.TIME_BOMB.ordinal()] / n,
+                RegretBand.of(stay), RegretBand.of(move), RegretBand.of(margin));
+    }
+
+    /** Every verdict share known to within {@link #TARGET_HALF_WIDTH} at 95%. */
+    static boolean hasConverged(int[] counts, int n) {
+        for (int count : counts) {
+            double p = (double) count / n;
+            if (Z_95 * Math.sqrt(p * (1 - p) / n) >= TARGET_HALF_WIDTH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] merge(List<ChunkResult> chunks, int n, Function<ChunkResult, double[]> column) {
+        double[] all = new double[n];
+        int offset = 0;
+        for (ChunkResult chunk : chunks) {
+            double[] values = column.apply(chunk);
+            System.arraycopy(values, 0, all, offset, values.length);
+            offset += values.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    /** Triangular draw on [low, high] peaking at mode, by inverse CDF. */
+    static double triangular(SplittableRandom random, double low, double mode, double high) {
+        if (high <= low) {
+            return mode;
+        }
+        double u = random.nextDouble();
+        double split = (mode - low) / (high - low);
+        return u < split
+                ? low + Math.sqrt(u * (high - low) * (mode - low))
+                : high - Math.sqrt((1 - u) * (high - low) * (high - mode));
+    }
+
+    /** Per-request invariants, resolved once and shared read-only by all chunks. */
+    private final class Scenario {
+        private final EngineInput input;
+        private final SimulationControls controls;
+        private final VehicleFactors factors;
+        private final double failureProbability;
+        private final double fixedStay; // RF without the breakdown term, at the input's quote
+        private final double fixedMove;
+        private final double fallbackCost;
+        private final Fault costliest; // null = no known fault above the general baseline
+
+        Scenario(EngineInput input, SimulationControls controls) {
+            this.input = input;
+            this.controls = controls;
+            this.factors = regretCalculator.resolveFactors(input);
+            this.failureProbability = regretCalculator.failureProbability(input, controls);
+            double risk = regretCalculator.riskRegret(input, controls, factors);
+            this.fixedStay = regretCalculator.scoreRF(input, controls, factors) - risk;
+            this.fixedMove = regretCalculator.scoreRM(input, controls, factors);
+            this.fallbackCost = RegretCalculator.majorFailureCost(factors.majorCostBase(), controls);
+
+            // The fault RegretCalculator's majorCostBase settled on, if it was a fault rather than the baseline
+            this.costliest = regretCalculator.modelFaults(input).stream()
+                    .filter(fault -> fault.repairCost() >= factors.majorCostBase())
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        ChunkResult run(SplittableRandom random, int size) {
+            int[] counts = new int[VerdictState.values().length];
+            double[] stay = new double[size];
+            double[] move = new double[size];
+            double[] margin = new double[size];
+
+            for (int i = 0; i < size; i++) {
+                double rf = fixedStay;
+                double rm = fixedMove;
+                if (input.isQuoteEstimated() && input.repairQuoteUsd() > 0) {
+                    long quote = Math.round(triangular(random, input.repairQuoteUsd() * ESTIMATED_QUOTE_LOW,
+                            input.repairQuoteUsd(), input.repairQuoteUsd() * ESTIMATED_QUOTE_HIGH));
+                    EngineInput drawn = new EngineInput(input.model(), input.vehicleType(), input.brand(),
+                            input.year(), input.mileage(), quote, input.currentValueUsd(), input.isQuoteEstimated(),
+                            input.isValueEstimated());
+                    rf = regretCalculator.scoreRF(drawn, controls, factors)
+                            - regretCalculator.riskRegret(drawn, controls, factors);
+                    rm = regretCalculator.scoreRM(drawn, controls, factors);
+                }
+                if (random.nextDouble() < failureProbability) {
+                    rf += breakdownCost(random);
+                }
+
+                counts[DecisionEngine.determineState(rf, rm).ordinal()]++;
+                stay[i] = rf;
+                move[i] = rm;
+                margin[i] = rf - rm;
+            }
+            return new ChunkResult(counts, stay, move, margin);
+        }
+
+        private double breakdownCost(SplittableRandom random) {
+            if (costliest == null) {
+                return triangular(random, fallbackCost * COST_SPREAD_LOW, fallbackCost,
+                        fallbackCost * COST_SPREAD_HIGH);
+            }
+            double cost = triangular(random, costliest.repairCostLow(), costliest.repairCost(),
+                    costliest.repairCostHigh());
+            return RegretCalculator.majorFailureCost(cost, controls);
+        }
+    }
+
+    private record ChunkResult(int[] counts, double[] stay, double[] move, double[] margin) {
+    }
+
+    // --- Wire records ---
+
+    /** Nearest-rank percentiles of one quantity across all scenarios. */
+    public record RegretBand(double p10, double p50, double p90) {
+        static RegretBand of(double[] sorted) {
+            return new RegretBand(percentile(sorted, 0.10), percentile(sorted, 0.50), percentile(sorted, 0.90));
+        }
+
+        private static double percentile(double[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+
+    /**
+     * @param reproducible false when the latency budget cut the run short, so its length depended on timing;
+     *                     pass {@code scenarios} back as the limit, with the same seed, to reproduce it
+     * @param stay         total regret of fixing (RF) per scenario
+     * @param move         total regret of selling (RM) per scenario
+     * @param margin       RF − RM per scenario; above +500 the scenario's verdict is TIME_BOMB
+     */
+    public record UncertaintyResult(
+            long seed,
+            int scenarios,
+            boolean converged,
+            boolean budgetExhausted,
+            boolean reproducible,
+            long millis,
+            double stableShare,
+            double borderlineShare,
+            double timeBombShare,
+            RegretBand stay,
+            RegretBand move,
+            RegretBand margin) {
+    }
+}
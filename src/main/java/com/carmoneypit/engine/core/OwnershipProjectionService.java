@@ -0,0 +1,229 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Month-by-month cumulative cost of ownership, 0 to 60 months out, for keeping the car (fix) and for
+ * replacing it (sell). Where {@link CostOfInactionCalculator#calculateAssetBleed} gives one 6-month number,
+ * this gives the whole curve for the result-page chart.
+ *
+ * Fix path: today's repair quote, the car's depreciation at the model's market rate, and expected repair
+ * spend as the odometer passes the model's critical milestones (full estimated cost) and the typical failure
+ * mileage of its known faults (cost weighted by occurrence rate), at an assumed pace of miles per month.
+ * Sell path: switching friction and the trade-in spread up front, then the replacement's depreciation.
+ *
+ * Projections are cached per input fingerprint (the vehicle plus hassle tolerance, the only control that moves
+ * either path) until the next dataset reload. A projection grows incrementally: asking for more months extends
+ * the arrays from the last computed month instead of starting over.
+ */
+@Service
+public class OwnershipProjectionService {
+
+    public static final int MAX_MONTHS = 60;
+    private static final int MAX_CACHED_PROJECTIONS = 10_000;
+
+    private final RegretCalculator regretCalculator;
+    private final CarDataService carDataService;
+    private final ValuationService valuationService;
+    private final int milesPerMonth;
+    private final Map<Fingerprint, Projection> cache = new ConcurrentHashMap<>();
+
+    public OwnershipProjectionService(RegretCalculator regretCalculator, CarDataService carDataService,
+            ValuationService valuationService,
+            @Value("${app.projection.milesPerMonth:1000}") int milesPerMonth) {
+        this.regretCalculator = regretCalculator;
+        this.carDataService = carDataService;
+        this.valuationService = valuationService;
+        this.milesPerMonth = Math.max(1, milesPerMonth);
+    }
+
+    /**
+     * @param months last month of the series, clamped to [1, {@link #MAX_MONTHS}]
+     */
+    public OwnershipTimeline project(EngineInput input, SimulationControls controls, int months) {
+        int horizon = Math.max(1, Math.min(MAX_MONTHS, months));
+        Fingerprint key = new Fingerprint(input, controls != null ? controls.hassleTolerance() : null);
+        if (cache.size() >= MAX_CACHED_PROJECTIONS) {
+            cache.clear();
+        }
+        return cache.computeIfAbsent(key, k -> new Projection(input, controls)).timeline(horizon);
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        cache.clear();
+    }
+
+    int milesPerMonth() {
+        return milesPerMonth;
+    }
+
+    /**
+     * Cumulative expected repair spend at each month 0..{@code months}, for the repairs the fix path expects
+     * once the odometer passes each event's mileage.
+     */
+    double[] cumulativeRepairs(EngineInput input, int months) {
+        RepairEvent[] events = repairEvents(input, regretCalculator.resolveModel(input));
+        double[] repairs = new double[months + 1];
+        double sum = 0;
+        int next = 0;
+        for (int m = 0; m <= months; m++) {
+            long odometer = input.mileage() + (long) m * milesPerMonth;
+            while (next < events.length && events[next].mileage() <= odometer) {
+                sum += events[next++].expectedCost();
+            }
+            repairs[m] = sum;
+        }
+        return repairs;
+    }
+
+    /**
+     * Repairs still ahead of the odometer: the model's critical milestones at full estimated cost and its known
+     * faults at their typical failure mileage, weighted by occurrence rate. Ascending by mileage.
+     */
+    private RepairEvent[] repairEvents(EngineInput input, Optional<CarModel> model) {
+        long startMileage = input.mileage();
+        List<RepairEvent> upcoming = new ArrayList<>();
+        model.flatMap(m -> carDataService.findReliabilityByModelId(m.id()))
+                .map(ModelReliability::criticalMilestones)
+                .ifPresent(milestones -> {
+                    for (Milestone milestone : milestones) {
+                        if (milestone.mileage() > startMileage && milestone.estCost() > 0) {
+                            upcoming.add(new RepairEvent(milestone.mileage(), milestone.estCost()));
+                        }
+                    }
+                });
+        for (Fault fault : regretCalculator.modelFaults(input)) {
+            if (fault.avgFailureMileage() > startMileage && fault.occurrenceRate() > 0) {
+                upcoming.add(new RepairEvent(fault.avgFailureMileage(),
+                        fault.repairCost() * Math.min(1.0, fault.occurrenceRate())));
+            }
+        }
+        upcoming.sort(Comparator.comparingLong(RepairEvent::mileage));
+        return upcoming.toArray(RepairEvent[]::new);
+    }
+
+    private record Fingerprint(EngineInput input, HassleTolerance hassleTolerance) {
+    }
+
+    /** A repair the fix path expects once the odometer passes {@code mileage}. */
+    private record RepairEvent(long mileage, double expectedCost) {
+    }
+
+    /** One vehicle's projection, extended on demand; months already computed are never recomputed. */
+    private final class Projection {
+        private final long startMileage;
+        private final double repairQuote;
+        private final double currentValue;
+        private final double depreciationRate;
+        private final double replacementPrice;
+        private final double switchingCost;
+        private final RepairEvent[] events; // ascending by mileage
+
+        private double[] fixRepairs = new double[0]; // cumulative, excluding today's quote
+        private double[] fixDepreciation = new double[0];
+        private double[] sellDepreciation = new double[0];
+        private int computed = -1; // last month filled in
+        private int nextEvent;
+        private double repairsSoFar;
+
+        Projection(EngineInput input, SimulationControls controls) {
+            Optional<CarModel> model = regretCalculator.resolveModel(input);
+            Optional<ModelMarket> market = model.flatMap(m -> carDataService.findMarketByModelId(m.id()));
+            Double marketRate = market.map(ModelMarket::depreciationRate).filter(r -> r > 0).orElse(null);
+
+            this.startMileage = input.mileage();
+            this.repairQuote = input.repairQuoteUsd();
+            this.currentValue = input.currentValueUsd();
+            this.depreciationRate = CostOfInactionCalculator.annualDepreciationRate(input.vehicleType(), marketRate);
+            this.replacementPrice = valuationService.getBasePrice(input.vehicleType());
+            this.switchingCost = RegretCalculator.transactionFriction(controls)
+                    + input.currentValueUsd() * RegretCalculator.TRADE_IN_SPREAD_RATE;
+            this.events = repairEvents(input, model);
+        }
+
+        synchronized OwnershipTimeline timeline(int months) {
+            extendTo(months);
+            long[] fixTotal = new long[months + 1];
+            long[] fixRepairsOut = new long[months + 1];
+            long[] fixDepreciationOut = new long[months + 1];
+            long[] sellTotal = new long[months + 1];
+            long[] sellDepreciationOut = new long[months + 1];
+            Integer sellCheaperFrom = null;
+            for (int m = 0; m <= months; m++) {
+                double fix = repairQuote + fixRepairs[m] + fixDepreciation[m];
+                double sell = switchingCost + sellDepreciation[m];
+                fixTotal[m] = Math.round(fix);
+                fixRepairsOut[m] = Math.round(fixRepairs[m]);
+                fixDepreciationOut[m] = Math.round(fixDepreciation[m]);
+                sellTotal[m] = Math.round(sell);
+                sellDepreciationOut[m] = Math.round(sellDepreciation[m]);
+                if (sellCheaperFrom == null && fix > sell) {
+                    sellCheaperFrom = m;
+                }
+            }
+            return new OwnershipTimeline(months, milesPerMonth, fixTotal, fixRepairsOut, fixDepreciationOut,
+                    sellTotal, sellDepreciationOut, sellCheaperFrom);
+        }
+
+        private void extendTo(int months) {
+            if (months <= computed) {
+                return;
+            }
+            fixRepairs = Arrays.copyOf(fixRepairs, months + 1);
+            fixDepreciation = Arrays.copyOf(fixDepreciation, months + 1);
+            sellDepreciation = Arrays.copyOf(sellDepreciation, months + 1);
+            for (int m = computed + 1; m <= months; m++) {
+                long odometer = startMileage + (long) m * milesPerMonth;
+                while (nextEvent < events.length && events[nextEvent].mileage() <= odometer) {
+                    repairsSoFar += events[nextEvent++].expectedCost();
+                }
+                double years = m / 12.0;
+                fixRepairs[m] = repairsSoFar;
+                fixDepreciation[m] = currentValue * (1.0 - Math.pow(1.0 - depreciationRate, years));
+                sellDepreciation[m] = replacementPrice
+                        * (1.0 - Math.pow(1.0 - RegretCalculator.NEW_CAR_FIRST_YEAR_DEPRECIATION, years));
+            }
+            computed = months;
+        }
+    }
+
+    /**
+     * Cumulative dollars spent from today through each month; index = month, 0 is today.
+     *
+     * @param fixTotal              repair quote + {@code fixRepairs} + {@code fixDepreciation}
+     * @param sellTotal             switching friction + trade-in spread + {@code sellDepreciation}
+     * @param sellCheaperFromMonth  first month at which keeping the car has cost more than replacing it, or null
+     *                              within the projected months
+     */
+    public record OwnershipTimeline(
+            int months,
+            int milesPerMonth,
+            long[] fixTotal,
+            long[] fixRepairs,
+            long[] fixDepreciation,
+            long[] sellTotal,
+            long[] sellDepreciation,
+            Integer sellCheaperFromMonth) {
+    }
+}
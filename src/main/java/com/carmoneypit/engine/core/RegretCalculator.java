@@ -7,21 +7,50 @@ import com.carmoneypit.engine.api.InputModels.SimulationControls;
 import com.carmoneypit.engine.api.InputModels.FailureSeverity;
 import com.carmoneypit.engine.api.InputModels.MobilityStatus;
 import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.ControlShift;
+import com.carmoneypit.engine.api.OutputModels.QuoteRank;
+import com.carmoneypit.engine.api.OutputModels.Sensitivities;
+import com.carmoneypit.engine.api.OutputModels.Sensitivity;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import com.carmoneypit.engine.service.FaultCostSketches;
+import com.carmoneypit.engine.service.FaultHubService;
+import com.carmoneypit.engine.service.MileageProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class RegretCalculator {
 
     private final com.carmoneypit.engine.service.CarDataService carDataService;
     private final ValuationService valuationService;
+    private final long milesPerYear;
+    private volatile FactorMemo factorMemo = new FactorMemo(null, new ConcurrentHashMap<>());
 
     public RegretCalculator(com.carmoneypit.engine.service.CarDataService carDataService,
             ValuationService valuationService) {
+        this(carDataService, valuationService, DEFAULT_MILES_PER_MONTH);
+    }
+
+    @Autowired
+    public RegretCalculator(com.carmoneypit.engine.service.CarDataService carDataService,
+            ValuationService valuationService,
+            @Value("${app.projection.milesPerMonth:" + DEFAULT_MILES_PER_MONTH + "}") int milesPerMonth) {
         this.carDataService = carDataService;
         this.valuationService = valuationService;
+        this.milesPerYear = 12L * Math.max(1, milesPerMonth);
     }
 
     public record RegretDetail(double score, List<FinancialLineItem> items) {
@@ -34,6 +63,10 @@ public class RegretCalculator {
     private static final double MAJOR_FAILURE_SUSPENSION = 1800.0;
     private static final double MAJOR_FAILURE_GENERAL = 800.0;
     
+    // Mileage tiers for the probability of the next major failure
+    private static final long FAILURE_RISK_MILEAGE_MID = 100000;
+    private static final long FAILURE_RISK_MILEAGE_HIGH = 150000;
+
     // Diagnostic buffer for unknown issues (credibility factor)
     private static final double DIAGNOSTIC_BUFFER = 150.0;
 
@@ -48,93 +81,385 @@ public class RegretCalculator {
     private static final double REPAIR_PAIN_COEFFICIENT = 0.05; // Stress relative to the size of the repair bill
 
     // Replacement Economics
-    private static final double NEW_CAR_FIRST_YEAR_DEPRECIATION = 0.12; // Typical off-the-lot hit for replacement asset
+    static final double NEW_CAR_FIRST_YEAR_DEPRECIATION = 0.12; // Typical off-the-lot hit for replacement asset
     private static final double FRESH_START_MULTIPLIER = 0.80; // Utility gain from a reliable new asset
+    private static final double FRESH_START_PAIN_CAP = 5000.0; // Ceiling on the pain a replacement can relieve
     private static final double TRANSACTION_FRICTION_DEFAULT = 2500.0; // Taxes + Dealer Fees + Registration
     private static final double TRANSACTION_FRICTION_HASSLE = 5000.0; // High friction for those who hate switching
     private static final double TRANSACTION_FRICTION_WANT_NEW = 1200.0; // Lower perceived friction for enthusiasts
-    private static final double TRADE_IN_SPREAD_RATE = 0.15; // Realistic dealer margin on trade-in assets
+    static final double TRADE_IN_SPREAD_RATE = 0.15; // Realistic dealer margin on trade-in assets
     private static final double PSYCHOLOGICAL_ATTACHMENT_FLOOR = 400.0; // Inherent bias toward current asset
 
+    // Driving pace for the milestones due over the retention horizon (same default as the ownership projection)
+    static final int DEFAULT_MILES_PER_MONTH = 1000;
+
+    // A real quote outside this band of its fault's peer repair costs is flagged as an outlier
+    private static final double QUOTE_OUTLIER_LOW_PERCENTILE = 5.0;
+    private static final double QUOTE_OUTLIER_HIGH_PERCENTILE = 95.0;
+
+    private static final int MAX_MEMOIZED_FACTORS = 4096;
+
+    /**
+     * Per-vehicle lookups that do not depend on mileage, quote, value or controls. Resolve once with
+     * {@link #resolveFactors} to score many variations of the same vehicle.
+     *
+     * @param milestones the model's critical milestones, {@link MileageProfile#EMPTY} when it has none on record
+     */
+    public record VehicleFactors(double majorCostBase, long replacementPrice, MileageProfile milestones) {
+    }
+
+    /**
+     * Factors depend only on the model name and vehicle type, so they are memoized per pair for the current
+     * dataset snapshot; repeated /simulate calls for one car skip the fault scan. A reload swaps the snapshot
+     * and thereby starts a fresh memo, whatever order the reload listeners run in.
+     */
+    public VehicleFactors resolveFactors(EngineInput input) {
+        FactorMemo memo = factorMemo;
+        Object snapshot = carDataService.snapshot();
+        if (memo.snapshot() != snapshot) {
+            memo = new FactorMemo(snapshot, new ConcurrentHashMap<>());
+            factorMemo = memo;
+        }
+        if (memo.factors().size() >= MAX_MEMOIZED_FACTORS) {
+            memo.factors().clear();
+        }
+        return memo.factors().computeIfAbsent(new FactorKey(input.model(), input.vehicleType()),
+                key -> new VehicleFactors(majorCostBase(input),
+                        key.vehicleType() != null ? valuationService.getBasePrice(key.vehicleType()) : 0L,
+                        milestones(input)));
+    }
+
+    private record FactorKey(String model, VehicleType vehicleType) {
+    }
+
+    private record FactorMemo(Object snapshot, Map<FactorKey, VehicleFactors> factors) {
+    }
+
+    /**
+     * Repair quotes at which RF or RM stop being linear in the quote, at the input's mileage. Each one is the
+     * last quote of a linear piece; between pieces the scores may kink but never jump.
+     */
+    public long[] quoteBreakpoints(EngineInput input) {
+        double growth = input.mileage() > MILEAGE_THRHESOLD ? MILEAGE_STRESS_GROWTH : 1.0;
+        double capQuote = (FRESH_START_PAIN_CAP / growth - input.mileage() * MILEAGE_PAIN_COEFFICIENT)
+                / REPAIR_PAIN_COEFFICIENT;
+        return capQuote > 0 ? new long[] { (long) Math.floor(capQuote) } : new long[0];
+    }
+
+    /**
+     * Mileages at which RF or RM stop being linear in mileage, at the input's quote and without a retention
+     * horizon: the failure-risk tiers and stress growth (where the scores jump) and the Peace of Mind cap (where
+     * RM kinks). Each one is the last mileage of a linear piece, in ascending order.
+     */
+    public long[] mileageBreakpoints(EngineInput input) {
+        return mileageBreakpoints(input, null);
+    }
+
+    /**
+     * {@link #mileageBreakpoints(EngineInput)} under {@code controls}. With a retention horizon the horizon cost
+     * also steps wherever one of the model's milestones enters or leaves the window the odometer covers.
+     */
+    public long[] mileageBreakpoints(EngineInput input, SimulationControls controls) {
+        TreeSet<Long> breakpoints = new TreeSet<>();
+        breakpoints.add((long) MILEAGE_THRHESOLD);
+        breakpoints.add(FAILURE_RISK_MILEAGE_MID);
+        breakpoints.add(FAILURE_RISK_MILEAGE_HIGH);
+
+        double quotePain = input.repairQuoteUsd() * REPAIR_PAIN_COEFFICIENT;
+        double capBelow = (FRESH_START_PAIN_CAP - quotePain) / MILEAGE_PAIN_COEFFICIENT;
+        if (capBelow > 0 && capBelow <= MILEAGE_THRHESOLD) {
+            breakpoints.add((long) Math.floor(capBelow));
+        }
+        double capAbove = (FRESH_START_PAIN_CAP / MILEAGE_STRESS_GROWTH - quotePain) / MILEAGE_PAIN_COEFFICIENT;
+        if (capAbove > MILEAGE_THRHESOLD) {
+            breakpoints.add((long) Math.floor(capAbove));
+        }
+
+        if (controls != null && controls.retentionHorizon() != null) {
+            long window = horizonMiles(controls.retentionHorizon());
+            for (Milestone milestone : resolveFactors(input).milestones().milestones()) {
+                // In the window (mileage, mileage + window] exactly for mileage in [milestone - window, milestone - 1]
+                if (milestone.mileage() - window - 1 >= 0) {
+                    breakpoints.add(milestone.mileage() - window - 1);
+                }
+                if (milestone.mileage() - 1 >= 0) {
+                    breakpoints.add(milestone.mileage() - 1L);
+                }
+            }
+        }
+        return breakpoints.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Partial derivatives of RF and RM with respect to mileage, repair quote and current value, read off the
+     * same formulas {@link #computeRF} and {@link #computeRM} evaluate, plus the exact change each alternative
+     * control value would make. The derivatives hold on the linear piece containing the input; each
+     * sensitivity names where that piece ends ({@link #mileageBreakpoints}, {@link #quoteBreakpoints}).
+     *
+     * @param rf the input's RF score under {@code controls}
+     * @param rm the input's RM score under {@code controls}
+     */
+    public Sensitivities sensitivities(EngineInput input, SimulationControls controls, double rf, double rm) {
+        return sensitivities(input, controls, resolveFactors(input), rf, rm);
+    }
+
+    /** {@link #sensitivities} for scores computed against {@code factors}, such as a chosen replacement's price. */
+    public Sensitivities sensitivities(EngineInput input, SimulationControls controls, VehicleFactors factors,
+            double rf, double rm) {
+        boolean wantNewCar = controls != null && controls.hassleTolerance() == HassleTolerance.WANT_NEW_CAR;
+        double hassleWeight = wantNewCar ? 1.25 : 1.0;
+        double growth = input.mileage() > MILEAGE_THRHESOLD ? MILEAGE_STRESS_GROWTH : 1.0;
+        double basePain = (input.repairQuoteUsd() * REPAIR_PAIN_COEFFICIENT
+                + input.mileage() * MILEAGE_PAIN_COEFFICIENT) * growth;
+        boolean capped = basePain > FRESH_START_PAIN_CAP;
+        double amortization = 0;
+        if (controls != null && controls.retentionHorizon() != null
+                && switches(controls.retentionHorizon()) >= 1.0) {
+            amortization = 1.0 - 1.0 / switches(controls.retentionHorizon());
+        }
+
+        Sensitivity mileage = new Sensitivity(
+                MILEAGE_PAIN_COEFFICIENT * growth * hassleWeight,
+                capped ? 0 : -(MILEAGE_PAIN_COEFFICIENT * growth * FRESH_START_MULTIPLIER),
+                nextBreakpoint(mileageBreakpoints(input, controls), input.mileage()));
+        Sensitivity quote = new Sensitivity(
+                1.0 + REPAIR_PAIN_COEFFICIENT * hassleWeight - amortization,
+                capped ? 0 : -(REPAIR_PAIN_COEFFICIENT * growth * FRESH_START_MULTIPLIER),
+                nextBreakpoint(quoteBreakpoints(input), input.repairQuoteUsd()));
+        Sensitivity value = new Sensitivity(OPPORTUNITY_COST_RATE, TRADE_IN_SPREAD_RATE, null);
+
+        SimulationControls current = controls != null ? controls : new SimulationControls(null, null, null, null);
+        List<ControlShift> shifts = new ArrayList<>();
+        for (FailureSeverity severity : FailureSeverity.values()) {
+            if (severity != current.failureSeverity()) {
+                shifts.add(shift("failureSeverity", severity, input, new SimulationControls(severity,
+                        current.mobilityStatus(), current.hassleTolerance(), current.retentionHorizon()), factors,
+                        rf, rm));
+            }
+        }
+        for (MobilityStatus mobility : MobilityStatus.values()) {
+            if (mobility != current.mobilityStatus()) {
+                shifts.add(shift("mobilityStatus", mobility, input, new SimulationControls(current.failureSeverity(),
+                        mobility, current.hassleTolerance(), current.retentionHorizon()), factors, rf, rm));
+            }
+        }
+        for (HassleTolerance hassle : HassleTolerance.values()) {
+            if (hassle != current.hassleTolerance()) {
+                shifts.add(shift("hassleTolerance", hassle, input, new SimulationControls(current.failureSeverity(),
+                        current.mobilityStatus(), hassle, current.retentionHorizon()), factors, rf, rm));
+            }
+        }
+        for (RetentionHorizon horizon : RetentionHorizon.values()) {
+            if (horizon != current.retentionHorizon()) {
+                shifts.add(shift("retentionHorizon", horizon, input, new SimulationControls(current.failureSeverity(),
+                        current.mobilityStatus(), current.hassleTolerance(), horizon), factors, rf, rm));
+            }
+        }
+        return new Sensitivities(mileage, quote, value, List.copyOf(shifts));
+    }
+
+    private ControlShift shift(String control, Enum<?> value, EngineInput input, SimulationControls alternative,
+            VehicleFactors factors, double rf, double rm) {
+        return new ControlShift(control, value.name(),
+                computeRF(input, alternative, factors, null) - rf,
+                computeRM(input, alternative, factors.replacementPrice(), null) - rm);
+    }
+
+    /** First breakpoint at or above {@code x}: the end of the linear piece holding it, or null if none. */
+    private static Long nextBreakpoint(long[] breakpoints, long x) {
+        for (long breakpoint : breakpoints) {
+            if (breakpoint >= x) {
+                return breakpoint;
+            }
+        }
+        return null;
+    }
+
     public RegretDetail calculateRF(EngineInput input, SimulationControls controls) {
         List<FinancialLineItem> items = new ArrayList<>();
-        double totalScore = 0;
+        double totalScore = computeRF(input, controls, resolveFactors(input), items);
+        return new RegretDetail(totalScore, items);
+    }
 
-        // 1. Current Repair Cost
-        double repairCost = (double) input.repairQuoteUsd();
-        items.add(new FinancialLineItem("Immediate Repair Bill", repairCost,
-                "Immediate cash liquidity required for the current restoration.", ItemCategory.STAY));
-        totalScore += repairCost;
+    /** RF score only: the same arithmetic as {@link #calculateRF}, without building line items. */
+    public double scoreRF(EngineInput input, SimulationControls controls) {
+        return computeRF(input, controls, resolveFactors(input), null);
+    }
 
-        // 2. Future Failure Probability
+    /** RF score for a vehicle whose factors were resolved from an input with the same model and type. */
+    public double scoreRF(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+        return computeRF(input, controls, factors, null);
+    }
+
+    /** Catalog model the input's model name resolves to, as used by the RF fault scan. */
+    public Optional<CarModel> resolveModel(EngineInput input) {
+        if (input.model() == null || input.model().isBlank()) {
+            return Optional.empty();
+        }
+        var modelOpt = carDataService.findCarBySlug(null, input.model()); // Using pre-optimized map search if available
+
+        // Fallback to the model-name index when the brand is unknown
+        if (modelOpt.isEmpty()) {
+            modelOpt = carDataService.findCarByModelName(input.model());
+        }
+        return modelOpt;
+    }
+
+    /** Known faults of the input's model, as used by the RF fault scan; empty when the model is unknown. */
+    public List<Fault> modelFaults(EngineInput input) {
+        // DYNAMIC FAULT LOOKUP
+        var modelOpt = resolveModel(input);
+        if (modelOpt.isPresent()) {
+            var faultsOpt = carDataService.findFaultsByModelId(modelOpt.get().id());
+            if (faultsOpt.isPresent() && faultsOpt.get().faults() != null) {
+                return faultsOpt.get().faults();
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Ranks a real repair quote against the peer cost distribution of the model's known fault whose typical
+     * cost is closest to it (by ratio). Empty for estimated quotes and models without priced faults.
+     */
+    public Optional<QuoteRank> rankQuote(EngineInput input) {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        if (input.isQuoteEstimated() || input.repairQuoteUsd() <= 0 || snapshot == null) {
+            return Optional.empty();
+        }
+        FaultCostSketches sketches = snapshot.faultCostSketches();
+        Fault match = null;
+        FaultCostSketches.Sketch matchSketch = null;
+        double closest = Double.MAX_VALUE;
+        for (Fault fault : modelFaults(input)) {
+            if (fault.repairCost() <= 0) {
+                continue;
+            }
+            var sketch = sketches.sketch(FaultHubService.normalizeToSlug(fault.component()));
+            double distance = Math.abs(Math.log(input.repairQuoteUsd() / fault.repairCost()));
+            if (sketch.isPresent() && distance < closest) {
+                closest = distance;
+                match = fault;
+                matchSketch = sketch.get();
+            }
+        }
+        if (match == null) {
+            return Optional.empty();
+        }
+        double percentile = matchSketch.percentile(input.repairQuoteUsd());
+        return Optional.of(new QuoteRank(match.component(), FaultHubService.normalizeToSlug(match.component()),
+                (int) Math.round(percentile), matchSketch.faults(),
+                Math.round(matchSketch.quantile(0.10)), Math.round(matchSketch.quantile(0.90)),
+                percentile < QUOTE_OUTLIER_LOW_PERCENTILE || percentile > QUOTE_OUTLIER_HIGH_PERCENTILE));
+    }
+
+    /** Critical milestones of the input's model; {@link MileageProfile#EMPTY} when the model or its data is unknown. */
+    private MileageProfile milestones(EngineInput input) {
+        return resolveModel(input)
+                .flatMap(model -> carDataService.findMileageProfile(model.id()))
+                .orElse(MileageProfile.EMPTY);
+    }
+
+    /** Cost of the next major failure: the costliest known fault of the model, never below the general baseline. */
+    private double majorCostBase(EngineInput input) {
+        double majorCostBase = MAJOR_FAILURE_GENERAL;
+        for (var fault : modelFaults(input)) {
+            if (fault.repairCost() > majorCostBase) {
+                majorCostBase = fault.repairCost();
+            }
+        }
+        return majorCostBase;
+    }
+
+    /** Probability of another major failure in the usage window: mileage tier, age, and a known-critical fault. */
+    public double failureProbability(EngineInput input, SimulationControls controls) {
+        return failureProbability(input.mileage(), input.year(), controls);
+    }
+
+    private static double failureProbability(long mileage, int year, SimulationControls controls) {
         double failureProb = 0.10;
-        if (input.mileage() > 150000) {
+        if (mileage > FAILURE_RISK_MILEAGE_HIGH) {
             failureProb = 0.55;
-        } else if (input.mileage() > 100000) {
+        } else if (mileage > FAILURE_RISK_MILEAGE_MID) {
             failureProb = 0.30;
         }
         
         // AGE FACTOR: Rubber Rot & Seal degradation (Physical aging vs Usage aging)
         int currentYear = 2026;
-        int age = Math.max(0, currentYear - input.year());
+        int age = Math.max(0, currentYear - year);
         if (age > 10) {
             failureProb = Math.min(failureProb + 0.15, 0.95);
         }
 
-        double majorCostBase = MAJOR_FAILURE_GENERAL;
+        if (controls != null && controls.failureSeverity() == FailureSeverity.ENGINE_TRANSMISSION) {
+            failureProb = Math.min(failureProb * 1.5, 0.90);
+        }
+        return failureProb;
+    }
 
-        // DYNAMIC FAULT LOOKUP
-        if (input.model() != null && !input.model().isBlank()) {
-            var modelOpt = carDataService.findCarBySlug(null, input.model()); // Using pre-optimized map search if available
-            
-            // Fallback to stream if direct lookup fails in current version
-            if (modelOpt.isEmpty()) {
-                modelOpt = carDataService.getAllModels().stream()
-                        .filter(m -> m.model().equalsIgnoreCase(input.model()))
-                        .findFirst();
+    /** A major failure's cost raised to the floor implied by the reported severity. */
+    public static double majorFailureCost(double cost, SimulationControls controls) {
+        if (controls != null) {
+            if (controls.failureSeverity() == FailureSeverity.ENGINE_TRANSMISSION) {
+                return Math.max(cost, MAJOR_FAILURE_ENGINE);
+            } else if (controls.failureSeverity() == FailureSeverity.SUSPENSION_BRAKES) {
+                return Math.max(cost, MAJOR_FAILURE_SUSPENSION);
             }
+        }
+        return cost;
+    }
 
-            if (modelOpt.isPresent()) {
-                var faultsOpt = carDataService.findFaultsByModelId(modelOpt.get().id());
-                if (faultsOpt.isPresent()) {
-                    var faultsList = faultsOpt.get().faults();
-                    if (!faultsList.isEmpty()) {
-                        double maxPositiveFaultCost = faultsList.stream()
-                                .mapToDouble(f -> f.repairCost())
-                                .filter(cost -> cost > 0)
-                                .max()
-                                .orElse(MAJOR_FAILURE_GENERAL);
-                        majorCostBase = Math.max(maxPositiveFaultCost, MAJOR_FAILURE_GENERAL);
-                    }
-                }
-            }
+    /** The "Risk of Next Breakdown" term of RF: failure probability times the cost of the next major failure. */
+    public double riskRegret(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+        return failureProbability(input, controls) * majorFailureCost(factors.majorCostBase(), controls);
+    }
+
+    /**
+     * @param factors the input's vehicle factors (cost of the next major failure, milestones)
+     * @param items receives the line items, or null to compute the score alone
+     */
+    private double computeRF(EngineInput input, SimulationControls controls, VehicleFactors factors,
+            List<FinancialLineItem> items) {
+        double totalScore = 0;
+
+        // 1. Current Repair Cost
+        double repairCost = (double) input.repairQuoteUsd();
+        if (items != null) {
+            items.add(new FinancialLineItem("Immediate Repair Bill", repairCost,
+                    "Immediate cash liquidity required for the current restoration.", ItemCategory.STAY));
         }
+        totalScore += repairCost;
+
+        // 2. Future Failure Probability
+        double failureProb = failureProbability(input, controls);
+        double majorCostBase = majorFailureCost(factors.majorCostBase(), controls);
 
         if (controls != null) {
-            if (controls.failureSeverity() == FailureSeverity.ENGINE_TRANSMISSION) {
-                majorCostBase = Math.max(majorCostBase, MAJOR_FAILURE_ENGINE);
-                failureProb = Math.min(failureProb * 1.5, 0.90);
-            } else if (controls.failureSeverity() == FailureSeverity.SUSPENSION_BRAKES) {
-                majorCostBase = Math.max(majorCostBase, MAJOR_FAILURE_SUSPENSION);
-            } else if (controls.failureSeverity() == FailureSeverity.GENERAL_UNKNOWN) {
+            if (controls.failureSeverity() == FailureSeverity.GENERAL_UNKNOWN) {
                 // Diagnostic Mystery Premium
-                items.add(new FinancialLineItem("Diagnostic Buffer", DIAGNOSTIC_BUFFER,
-                        "Estimated cost for identifying root causes of unspecified mechanical signals.", ItemCategory.STAY));
+                if (items != null) {
+                    items.add(new FinancialLineItem("Diagnostic Buffer", DIAGNOSTIC_BUFFER,
+                            "Estimated cost for identifying root causes of unspecified mechanical signals.", ItemCategory.STAY));
+                }
                 totalScore += DIAGNOSTIC_BUFFER;
             }
         }
 
         double riskRegret = failureProb * majorCostBase;
-        items.add(new FinancialLineItem("Risk of Next Breakdown", riskRegret,
-                String.format("[Statistical] %d%% probability of adjacent system failure within current usage window.",
-                        (int) (failureProb * 100)),
-                ItemCategory.STAY));
+        if (items != null) {
+            items.add(new FinancialLineItem("Risk of Next Breakdown", riskRegret,
+                    String.format("[Statistical] %d%% probability of adjacent system failure within current usage window.",
+                            (int) (failureProb * 100)),
+                    ItemCategory.STAY));
+        }
         totalScore += riskRegret;
 
         // 3. Asset Opportunity Cost
         double timingCost = input.currentValueUsd() * OPPORTUNITY_COST_RATE;
-        items.add(new FinancialLineItem("Opportunity Cost of Delay", timingCost,
-                "The economic loss of holding a depreciating asset instead of diversified capital.", ItemCategory.STAY));
+        if (items != null) {
+            items.add(new FinancialLineItem("Opportunity Cost of Delay", timingCost,
+                    "The economic loss of holding a depreciating asset instead of diversified capital.", ItemCategory.STAY));
+        }
         totalScore += timingCost;
 
         // 4. Stress & Downtime
@@ -157,73 +482,206 @@ public class RegretCalculator {
             }
         }
 
-        items.add(new FinancialLineItem("Stress & Reliability Tax", painScore,
-                "Valuation of unplanned downtime and psychological burden of asset insecurity.", ItemCategory.STAY));
+        if (items != null) {
+            items.add(new FinancialLineItem("Stress & Reliability Tax", painScore,
+                    "Valuation of unplanned downtime and psychological burden of asset insecurity.", ItemCategory.STAY));
+        }
         totalScore += painScore;
 
         // 5. Retention Horizon & Amortization
         if (controls != null && controls.retentionHorizon() != null) {
-            double horizonCost = 0;
-            double horizonYears = 1.0;
-            switch (controls.retentionHorizon()) {
-                case MONTHS_6 -> {
-                    horizonCost = 800.0;
-                    horizonYears = 0.5;
-                }
-                case YEARS_1 -> {
-                    horizonCost = 1200.0;
-                    horizonYears = 1.0;
-                }
-                case YEARS_3 -> {
-                    horizonCost = 2500.0;
-                    horizonYears = 3.0;
-                }
-                case YEARS_5 -> {
-                    horizonCost = 3000.0;
-                    horizonYears = 5.0;
-                }
+            long window = horizonMiles(controls.retentionHorizon());
+            double horizonCost = horizonCost(factors.milestones(), input.mileage(), window,
+                    controls.retentionHorizon());
+            double horizonYears = switches(controls.retentionHorizon());
+            if (items != null) {
+                items.add(new FinancialLineItem("Ownership Window Contingency", horizonCost,
+                        horizonNote(factors.milestones(), input.mileage(), window, controls.retentionHorizon()),
+                        ItemCategory.STAY));
             }
-            items.add(new FinancialLineItem("Ownership Window Contingency", horizonCost,
-                    "Projected wear-and-tear liabilities over the selected retention period.", ItemCategory.STAY));
             totalScore += horizonCost;
 
             // AMORTIZATION BENEFIT: Current repair utility spread across time
             if (horizonYears >= 1.0) {
                 double amortBenefit = -(repairCost * (1.0 - (1.0 / horizonYears)));
-                items.add(new FinancialLineItem("Utility Amortization", amortBenefit,
-                        String.format("Spreading current repair overhead over %.1f years of continued asset utility.", horizonYears),
-                        ItemCategory.STAY));
+                if (items != null) {
+                    items.add(new FinancialLineItem("Utility Amortization", amortBenefit,
+                            String.format("Spreading current repair overhead over %.1f years of continued asset utility.", horizonYears),
+                            ItemCategory.STAY));
+                }
                 totalScore += amortBenefit;
             }
         }
 
-        return new RegretDetail(totalScore, items);
+        return totalScore;
+    }
+
+    /**
+     * Batch form of {@link #scoreRF} / {@link #scoreRM} for many mileage / quote / value variations of one vehicle
+     * under one set of controls. Everything that does not vary per row is resolved here, once.
+     *
+     * @param vehicle supplies model, type and year; its mileage, quote and value are ignored
+     */
+    public BatchKernel batchKernel(EngineInput vehicle, SimulationControls controls, VehicleFactors factors) {
+        long window = controls != null && controls.retentionHorizon() != null
+                ? horizonMiles(controls.retentionHorizon())
+                : 0;
+        return new BatchKernel(vehicle.year(), controls, factors, window);
+    }
+
+    /**
+     * Struct-of-arrays RF/RM kernel. Each row performs exactly the floating-point operations of
+     * {@link #computeRF} and {@link #computeRM}, in the same order, so results are bit-identical to the scalar
+     * path. Branches on the controls are loop-invariant; the per-row mileage thresholds (failure-risk tier,
+     * stress growth, pain cap) are selects. The one per-row lookup is the horizon cost, two binary searches over
+     * the model's milestone prefix sums, and only under a retention horizon.
+     */
+    public static final class BatchKernel {
+        private final double riskLow;
+        private final double riskMid;
+        private final double riskHigh;
+        private final boolean diagnosticBuffer;
+        private final boolean wantNewCar;
+        private final boolean needsTow;
+        private final boolean hasHorizon;
+        private final RetentionHorizon horizon;
+        private final MileageProfile milestones;
+        private final long window;
+        private final boolean amortizes;
+        private final double amortFactor;
+        private final double friction;
+        private final double depreciationHit;
+
+        private BatchKernel(int year, SimulationControls controls, VehicleFactors factors, long window) {
+            double failureCost = majorFailureCost(factors.majorCostBase(), controls);
+            this.riskLow = failureProbability(FAILURE_RISK_MILEAGE_MID, year, controls) * failureCost;
+            this.riskMid = failureProbability(FAILURE_RISK_MILEAGE_HIGH, year, controls) * failureCost;
+            this.riskHigh = failureProbability(FAILURE_RISK_MILEAGE_HIGH + 1, year, controls) * failureCost;
+
+            this.diagnosticBuffer = controls != null && controls.failureSeverity() == FailureSeverity.GENERAL_UNKNOWN;
+            this.wantNewCar = controls != null && controls.hassleTolerance() == HassleTolerance.WANT_NEW_CAR;
+            this.needsTow = controls != null && controls.mobilityStatus() == MobilityStatus.NEEDS_TOW;
+            this.hasHorizon = controls != null && controls.retentionHorizon() != null;
+            double horizonYears = hasHorizon ? switches(controls.retentionHorizon()) : 1.0;
+            this.horizon = hasHorizon ? controls.retentionHorizon() : null;
+            this.milestones = factors.milestones();
+            this.window = window;
+            this.amortizes = horizonYears >= 1.0;
+            this.amortFactor = 1.0 - (1.0 / horizonYears);
+
+            this.friction = transactionFriction(controls);
+            double hit = factors.replacementPrice() * NEW_CAR_FIRST_YEAR_DEPRECIATION;
+            if (hasHorizon && horizonYears > 1.0) {
+                hit = hit / Math.sqrt(horizonYears);
+            }
+            this.depreciationHit = hit;
+        }
+
+        /** Scores every row; all arrays must have the same length. */
+        public void score(long[] mileages, long[] quotes, long[] values, double[] rf, double[] rm) {
+            int n = mileages.length;
+            if (quotes.length != n || values.length != n || rf.length != n || rm.length != n) {
+                throw new IllegalArgumentException("Batch arrays must have the same length");
+            }
+            for (int i = 0; i < n; i++) {
+                long mileage = mileages[i];
+                double repairCost = (double) quotes[i];
+                double quotePain = quotes[i] * REPAIR_PAIN_COEFFICIENT;
+                double rawMileagePain = mileage * MILEAGE_PAIN_COEFFICIENT;
+                boolean stressed = mileage > MILEAGE_THRHESOLD;
+                double risk = mileage > FAILURE_RISK_MILEAGE_HIGH ? riskHigh
+                        : mileage > FAILURE_RISK_MILEAGE_MID ? riskMid : riskLow;
+
+                // RF
+                double stay = 0;
+                stay += repairCost;
+                if (diagnosticBuffer) {
+                    stay += DIAGNOSTIC_BUFFER;
+                }
+                stay += risk;
+                stay += values[i] * OPPORTUNITY_COST_RATE;
+                double mileagePain = stressed ? rawMileagePain * MILEAGE_STRESS_GROWTH : rawMileagePain;
+                double painScore = quotePain + mileagePain;
+                if (wantNewCar) {
+                    painScore *= 1.25;
+                }
+                if (needsTow) {
+                    painScore += RAGE_COST;
+                }
+                stay += painScore;
+                if (hasHorizon) {
+                    stay += horizonCost(milestones, mileage, window, horizon);
+                    if (amortizes) {
+                        stay += -(repairCost * amortFactor);
+                    }
+                }
+                rf[i] = stay;
+
+                // RM
+                double move = 0;
+                move += friction;
+                move += values[i] * TRADE_IN_SPREAD_RATE;
+                move += depreciationHit;
+                if (needsTow) {
+                    move += 1500.0;
+                }
+                move += PSYCHOLOGICAL_ATTACHMENT_FLOOR;
+                double basePain = quotePain + rawMileagePain;
+                basePain = stressed ? basePain * MILEAGE_STRESS_GROWTH : basePain;
+                move += -(Math.min(basePain, FRESH_START_PAIN_CAP) * FRESH_START_MULTIPLIER);
+                rm[i] = move;
+            }
+        }
     }
 
     public RegretDetail calculateRM(EngineInput input, SimulationControls controls) {
         List<FinancialLineItem> items = new ArrayList<>();
+        double totalScore = computeRM(input, controls, valuationService.getBasePrice(input.vehicleType()), items);
+        return new RegretDetail(totalScore, items);
+    }
+
+    /** {@link #calculateRM} priced against {@code factors.replacementPrice()} instead of the type's base price. */
+    public RegretDetail calculateRM(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+        List<FinancialLineItem> items = new ArrayList<>();
+        double totalScore = computeRM(input, controls, factors.replacementPrice(), items);
+        return new RegretDetail(totalScore, items);
+    }
+
+    /** RM score only: the same arithmetic as {@link #calculateRM}, without building line items. */
+    public double scoreRM(EngineInput input, SimulationControls controls) {
+        return computeRM(input, controls, valuationService.getBasePrice(input.vehicleType()), null);
+    }
+
+    /** RM score for a vehicle whose factors were resolved from an input with the same model and type. */
+    public double scoreRM(EngineInput input, SimulationControls controls, VehicleFactors factors) {
+        return computeRM(input, controls, factors.replacementPrice(), null);
+    }
+
+    /**
+     * @param replacementPrice base price of a replacement vehicle of the same type
+     * @param items receives the line items, or null to compute the score alone
+     */
+    private double computeRM(EngineInput input, SimulationControls controls, long replacementPrice,
+            List<FinancialLineItem> items) {
         double totalScore = 0;
 
         // 1. Transaction Costs
-        double friction = TRANSACTION_FRICTION_DEFAULT;
-        if (controls != null) {
-            if (controls.hassleTolerance() == HassleTolerance.HATE_SWITCHING)
-                friction = TRANSACTION_FRICTION_HASSLE;
-            else if (controls.hassleTolerance() == HassleTolerance.WANT_NEW_CAR)
-                friction = TRANSACTION_FRICTION_WANT_NEW;
+        double friction = transactionFriction(controls);
+        if (items != null) {
+            items.add(new FinancialLineItem("Transaction Friction", friction,
+                    "Estimated taxes, dealer fees, and procurement labor required to secure a replacement.", ItemCategory.MOVE));
         }
-        items.add(new FinancialLineItem("Transaction Friction", friction,
-                "Estimated taxes, dealer fees, and procurement labor required to secure a replacement.", ItemCategory.MOVE));
         totalScore += friction;
 
         // 2. Trade-in Spread
         double tradeInSpread = input.currentValueUsd() * TRADE_IN_SPREAD_RATE;
-        items.add(new FinancialLineItem("Liquidation Margin Loss", tradeInSpread,
-                "Market inefficiency incurred when liquidating an asset to a dealer vs private party.", ItemCategory.MOVE));
+        if (items != null) {
+            items.add(new FinancialLineItem("Liquidation Margin Loss", tradeInSpread,
+                    "Market inefficiency incurred when liquidating an asset to a dealer vs private party.", ItemCategory.MOVE));
+        }
         totalScore += tradeInSpread;
 
         // 3. REPLACEMENT ASSET DEPRECIATION (The "Off-The-Lot" Burn)
-        long replacementPrice = valuationService.getBasePrice(input.vehicleType());
         double depreciationHit = replacementPrice * NEW_CAR_FIRST_YEAR_DEPRECIATION;
         
         // RETENTION HORIZON IMPACT: Long-term owners diffuse the depreciation hit
@@ -235,18 +693,24 @@ public class RegretCalculator {
             }
         }
         
-        items.add(new FinancialLineItem("New Asset Burn", depreciationHit,
-                "Projected first-year depreciation overhead for the replacement vehicle.", ItemCategory.MOVE));
+        if (items != null) {
+            items.add(new FinancialLineItem("New Asset Burn", depreciationHit,
+                    "Projected first-year depreciation overhead for the replacement vehicle.", ItemCategory.MOVE));
+        }
         totalScore += depreciationHit;
 
         if (controls != null && controls.mobilityStatus() == MobilityStatus.NEEDS_TOW) {
-            items.add(new FinancialLineItem("Non-Drivable Penalty", 1500.0,
-                    "Immediate reduction in disposal value due to critical mechanical failure.", ItemCategory.MOVE));
+            if (items != null) {
+                items.add(new FinancialLineItem("Non-Drivable Penalty", 1500.0,
+                        "Immediate reduction in disposal value due to critical mechanical failure.", ItemCategory.MOVE));
+            }
             totalScore += 1500.0;
         }
 
-        items.add(new FinancialLineItem("Psychological Pivot Cost", PSYCHOLOGICAL_ATTACHMENT_FLOOR,
-                "Inherent bias toward asset continuity and familiar systems.", ItemCategory.MOVE));
+        if (items != null) {
+            items.add(new FinancialLineItem("Psychological Pivot Cost", PSYCHOLOGICAL_ATTACHMENT_FLOOR,
+                    "Inherent bias toward asset continuity and familiar systems.", ItemCategory.MOVE));
+        }
         totalScore += PSYCHOLOGICAL_ATTACHMENT_FLOOR;
 
         // 4. Peace of Mind Dividend
@@ -256,16 +720,68 @@ public class RegretCalculator {
             basePain *= MILEAGE_STRESS_GROWTH;
 
         // Cap basePain to prevent extreme values from skewing results
-        double cappedPain = Math.min(basePain, 5000.0);
+        double cappedPain = Math.min(basePain, FRESH_START_PAIN_CAP);
         double dividend = -(cappedPain * FRESH_START_MULTIPLIER);
-        items.add(new FinancialLineItem("Peace of Mind Dividend", dividend,
-                "Emotional utility gain from transitioning to a more reliable replacement asset.", ItemCategory.MOVE));
+        if (items != null) {
+            items.add(new FinancialLineItem("Peace of Mind Dividend", dividend,
+                    "Emotional utility gain from transitioning to a more reliable replacement asset.", ItemCategory.MOVE));
+        }
         totalScore += dividend;
 
-        return new RegretDetail(totalScore, items);
+        return totalScore;
     }
     
-    private double switches(com.carmoneypit.engine.api.InputModels.RetentionHorizon h) {
+    /** Taxes, fees and procurement effort of switching cars, by hassle tolerance. */
+    public static double transactionFriction(SimulationControls controls) {
+        double friction = TRANSACTION_FRICTION_DEFAULT;
+        if (controls != null) {
+            if (controls.hassleTolerance() == HassleTolerance.HATE_SWITCHING)
+                friction = TRANSACTION_FRICTION_HASSLE;
+            else if (controls.hassleTolerance() == HassleTolerance.WANT_NEW_CAR)
+                friction = TRANSACTION_FRICTION_WANT_NEW;
+        }
+        return friction;
+    }
+
+    /** Miles the odometer covers over the retention horizon at the configured driving pace. */
+    long horizonMiles(RetentionHorizon h) {
+        return MileageProfile.horizonMiles(milesPerYear, switches(h));
+    }
+
+    /**
+     * "Ownership Window Contingency": the estimated cost of the model's critical milestones the odometer reaches
+     * within {@code window} miles, never less than the flat {@link #horizonContingency} allowance. The two are
+     * estimates of the same wear, so they are not added: the allowance only stands in when the milestones ahead
+     * cost less, or none are on record. A longer horizon therefore never costs less than a shorter one.
+     */
+    private static double horizonCost(MileageProfile milestones, long mileage, long window, RetentionHorizon h) {
+        return Math.max(horizonContingency(h), milestones.milestoneCostBetween(mileage, mileage + window));
+    }
+
+    private String horizonNote(MileageProfile milestones, long mileage, long window, RetentionHorizon h) {
+        List<Milestone> due = milestones.milestonesBetween(mileage, mileage + window);
+        if (milestones.milestoneCostBetween(mileage, mileage + window) <= horizonContingency(h)) {
+            return "Projected wear-and-tear liabilities over the selected retention period.";
+        }
+        List<String> names = new ArrayList<>();
+        for (Milestone milestone : due) {
+            names.add(String.format("%s at %,d mi", milestone.description(), milestone.mileage()));
+        }
+        return String.format("Critical maintenance due within the selected retention period at %,d miles a year: %s.",
+                milesPerYear, String.join("; ", names));
+    }
+
+    /** Flat wear-and-tear allowance per retention horizon: the floor under the milestone estimate. */
+    private static double horizonContingency(RetentionHorizon h) {
+        return switch (h) {
+            case MONTHS_6 -> 800.0;
+            case YEARS_1 -> 1200.0;
+            case YEARS_3 -> 2500.0;
+            case YEARS_5 -> 3000.0;
+        };
+    }
+
+    private static double switches(RetentionHorizon h) {
         if (h == null) return 1.0;
         return switch (h) {
             case MONTHS_6 -> 0.5;
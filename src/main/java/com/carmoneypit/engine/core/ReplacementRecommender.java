@@ -0,0 +1,184 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Ranks catalog models as replacements for a segment and budget by what they are expected to cost to own over
+ * 3 or 5 years: the value lost at the model's market depreciation rate (price less residual), and expected
+ * repairs (the model's average annual repair bill plus the milestones and weighted faults it is expected to
+ * reach, starting from {@value #PURCHASE_MILEAGE} miles, the age the market prices assume). The price itself
+ * is the budget filter, not a cost; most of it comes back at resale.
+ *
+ * Each model is ranked in the segment its {@code car_models.json} record names; dataset validation rejects
+ * models without one.
+ *
+ * Cost vectors are built per dataset version, at startup and on every reload, into per-segment arrays sorted by
+ * price, and live on that version's snapshot. A query binary-searches the budget and keeps the K cheapest with a bounded heap.
+ */
+@Service
+public class ReplacementRecommender {
+
+    public static final int DEFAULT_LIMIT = 5;
+    public static final int MAX_LIMIT = 20;
+    static final int PURCHASE_MILEAGE = 60_000; // Market prices are for ~5 year old cars at ~12k miles a year
+
+    private final CarDataService carDataService;
+    private final OwnershipProjectionService projectionService;
+
+    public ReplacementRecommender(CarDataService carDataService, OwnershipProjectionService projectionService) {
+        this.carDataService = carDataService;
+        this.projectionService = projectionService;
+    }
+
+    @PostConstruct
+    public void init() {
+        index();
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        event.current().derived(this, this::build);
+    }
+
+    /**
+     * The {@code limit} cheapest replacements in {@code segment} priced at or under {@code budget}, by expected
+     * cost over {@code years} (3 or 5), cheapest first.
+     */
+    public List<Replacement> recommend(VehicleType segment, long budget, int years, int limit) {
+        if (years != 3 && years != 5) {
+            throw new IllegalArgumentException("years must be 3 or 5");
+        }
+        Segment candidates = index().segments().get(segment);
+        int k = Math.max(1, Math.min(MAX_LIMIT, limit));
+        if (candidates == null) {
+            return List.of();
+        }
+        long[] costs = years == 3 ? candidates.cost3() : candidates.cost5();
+        int affordable = upperBound(candidates.prices(), budget);
+
+        // Max-heap on cost holding the k cheapest seen so far; ties go to the cheaper purchase
+        Comparator<Integer> byCost = Comparator.<Integer>comparingLong(i -> costs[i])
+                .thenComparingLong(i -> candidates.prices()[i]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, byCost.reversed());
+        for (int i = 0; i < affordable; i++) {
+            heap.offer(i);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Integer> best = new ArrayList<>(heap);
+        best.sort(byCost);
+        return best.stream().map(i -> candidates.replacements()[i]).toList();
+    }
+
+    public Optional<Replacement> find(String modelId) {
+        return Optional.ofNullable(index().byId().get(modelId));
+    }
+
+    /** Number of prices in the ascending {@code prices} that are at most {@code budget}. */
+    private static int upperBound(long[] prices, long budget) {
+        int lo = 0;
+        int hi = prices.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= budget) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // --- Build ---
+
+    /** Cost vectors of the dataset being served, kept on its snapshot so a reload swaps them together. */
+    private Index index() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        return snapshot == null ? Index.EMPTY : snapshot.derived(this, this::build);
+    }
+
+    private Index build(DatasetSnapshot snapshot) {
+        Map<VehicleType, List<Replacement>> bySegment = new EnumMap<>(VehicleType.class);
+        Map<String, Replacement> byId = new HashMap<>();
+        for (CarModel car : snapshot.carModels()) {
+            ModelMarket market = snapshot.marketMap().get(car.id());
+            if (market == null || market.jan2026AvgPrice() <= 0 || car.segment() == null
+                    || byId.containsKey(car.id())) {
+                continue;
+            }
+            Replacement replacement = costVector(car, market);
+            bySegment.computeIfAbsent(replacement.segment(), s -> new ArrayList<>()).add(replacement);
+            byId.put(car.id(), replacement);
+        }
+
+        Map<VehicleType, Segment> segments = new EnumMap<>(VehicleType.class);
+        bySegment.forEach((segment, list) -> {
+            Replacement[] sorted = list.toArray(Replacement[]::new);
+            Arrays.sort(sorted, Comparator.comparingLong(Replacement::price).thenComparing(Replacement::modelId));
+            segments.put(segment, new Segment(sorted,
+                    Arrays.stream(sorted).mapToLong(Replacement::price).toArray(),
+                    Arrays.stream(sorted).mapToLong(Replacement::cost3Years).toArray(),
+                    Arrays.stream(sorted).mapToLong(Replacement::cost5Years).toArray()));
+        });
+        return new Index(Map.copyOf(byId), segments);
+    }
+
+    private Replacement costVector(CarModel car, ModelMarket market) {
+        EngineInput purchase = new EngineInput(car.model(), car.segment(), car.brand(), car.endYear(),
+                PURCHASE_MILEAGE, 0, market.jan2026AvgPrice(), false, false);
+        double[] repairs = projectionService.cumulativeRepairs(purchase, OwnershipProjectionService.MAX_MONTHS);
+        long price = market.jan2026AvgPrice();
+        return new Replacement(car.id(), car.brand(), car.model(), purchase.vehicleType(), price,
+                Math.round(ownershipCost(price, market, 3, repairs[36])),
+                Math.round(ownershipCost(price, market, 5, repairs[60])));
+    }
+
+    private static double ownershipCost(long price, ModelMarket market, int years, double eventRepairs) {
+        double rate = Math.max(0, Math.min(1, market.depreciationRate()));
+        double residual = price * Math.pow(1.0 - rate, years);
+        return (price - residual) + (double) market.avgAnnualRepairCost() * years + eventRepairs;
+    }
+
+    /**
+     * @param cost3Years 3-year depreciation (price less residual) + 3 years of expected repairs, whole dollars
+     * @param cost5Years same over 5 years
+     */
+    public record Replacement(
+            String modelId,
+            String brand,
+            String model,
+            VehicleType segment,
+            long price,
+            long cost3Years,
+            long cost5Years) {
+    }
+
+    /** One segment's candidates, ascending by price, with their costs as parallel arrays. */
+    private record Segment(Replacement[] replacements, long[] prices, long[] cost3, long[] cost5) {
+    }
+
+    private record Index(Map<String, Replacement> byId, Map<VehicleType, Segment> segments) {
+
+        static final Index EMPTY = new Index(Map.of(), new EnumMap<>(VehicleType.class));
+    }
+}
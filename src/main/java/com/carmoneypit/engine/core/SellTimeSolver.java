@@ -0,0 +1,116 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * The cheapest month to get out of a car, within the ownership projection's horizon.
+ *
+ * Exiting at month t costs what keeping it cost up to then (today's quote, expected milestone and fault repairs,
+ * lost resale value) plus the switch itself (friction and trade-in spread on the value left at t) plus the
+ * replacement's depreciation for the rest of the horizon. Keeping it through the last month carries no switch.
+ *
+ * The value curves that do not depend on the quote, the value or the controls (the resale value retention from
+ * {@link ValuationService#estimateValue} as the car ages and the odometer climbs, and the replacement's
+ * depreciation) are precomputed per model, year and {@value #MILEAGE_BUCKET}-mile bucket and cached until the
+ * next dataset reload. Cumulative repairs are not bucketed: they step at exact milestone and fault mileages, so
+ * they are walked from the car's own odometer on every solve. A solve is then one pass over those arrays.
+ */
+@Service
+public class SellTimeSolver {
+
+    static final int MILEAGE_BUCKET = 5_000;
+    private static final int MAX_CACHED_CURVES = 10_000;
+
+    private final OwnershipProjectionService projectionService;
+    private final ValuationService valuationService;
+    private final BoundedMemo<EngineInput, Curves> cache = new BoundedMemo<>(MAX_CACHED_CURVES);
+
+    public SellTimeSolver(OwnershipProjectionService projectionService, ValuationService valuationService) {
+        this.projectionService = projectionService;
+        this.valuationService = valuationService;
+    }
+
+    public SellTiming solve(EngineInput input, SimulationControls controls) {
+        int horizon = OwnershipProjectionService.MAX_MONTHS;
+        Curves curves = curves(input);
+        double[] repairs = projectionService.cumulativeRepairs(input, horizon);
+        double value = input.currentValueUsd();
+        double friction = RegretCalculator.transactionFriction(controls);
+
+        long[] exitCost = new long[horizon + 1];
+        int best = 0;
+        double bestCost = Double.MAX_VALUE;
+        for (int m = 0; m <= horizon; m++) {
+            double valueLeft = value * curves.retention()[m];
+            double cost = m == 0 ? 0 : input.repairQuoteUsd() + repairs[m] + (value - valueLeft);
+            if (m < horizon) {
+                cost += friction + valueLeft * RegretCalculator.TRADE_IN_SPREAD_RATE
+                        + curves.replacementDepreciation()[horizon - m];
+            }
+            exitCost[m] = Math.round(cost);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = m;
+            }
+        }
+        return new SellTiming(horizon, best, exitCost[best], exitCost[0], exitCost[horizon], exitCost);
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        cache.clear();
+    }
+
+    private Curves curves(EngineInput input) {
+        long bucket = input.mileage() / MILEAGE_BUCKET * MILEAGE_BUCKET;
+        EngineInput key = new EngineInput(input.model(), input.vehicleType(), input.brand(), input.year(), bucket,
+                0, 0, false, false);
+        return cache.get(key, this::computeCurves);
+    }
+
+    private Curves computeCurves(EngineInput vehicle) {
+        int horizon = OwnershipProjectionService.MAX_MONTHS;
+        int milesPerMonth = projectionService.milesPerMonth();
+        double[] retention = new double[horizon + 1];
+        double[] replacement = new double[horizon + 1];
+
+        long today = valuationService.estimateValue(vehicle.brand(), vehicle.model(), vehicle.vehicleType(),
+                vehicle.year(), vehicle.mileage());
+        double replacementPrice = valuationService.getBasePrice(vehicle.vehicleType());
+        for (int m = 0; m <= horizon; m++) {
+            // A model year "ages" a year every twelve months
+            long later = valuationService.estimateValue(vehicle.brand(), vehicle.model(), vehicle.vehicleType(),
+                    vehicle.year() - m / 12, vehicle.mileage() + (long) m * milesPerMonth);
+            retention[m] = today > 0 ? Math.min(1.0, (double) later / today) : 1.0;
+            replacement[m] = replacementPrice
+                    * (1.0 - Math.pow(1.0 - RegretCalculator.NEW_CAR_FIRST_YEAR_DEPRECIATION, m / 12.0));
+        }
+        return new Curves(retention, replacement);
+    }
+
+    /**
+     * @param retention               share of today's resale value left at each month
+     * @param replacementDepreciation replacement's cumulative depreciation after k months, index k
+     */
+    private record Curves(double[] retention, double[] replacementDepreciation) {
+    }
+
+    /**
+     * @param bestMonth   month of the cheapest exit; {@code horizonMonths} means keep it through the horizon
+     * @param sellNowCost cost of exiting today ({@code exitCost[0]})
+     * @param keepCost    cost of keeping it through the horizon ({@code exitCost[horizonMonths]})
+     * @param exitCost    total cost over the horizon for exiting at each month, whole dollars
+     */
+    public record SellTiming(
+            int horizonMonths,
+            int bestMonth,
+            long bestCost,
+            long sellNowCost,
+            long keepCost,
+            long[] exitCost) {
+    }
+}
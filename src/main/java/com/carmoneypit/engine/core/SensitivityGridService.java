@@ -0,0 +1,175 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.OutputModels.VerdictState;
+import com.carmoneypit.engine.core.RegretCalculator.BatchKernel;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Verdict sensitivity grid: how the verdict for one vehicle moves across a mileage × repair-quote plane,
+ * with one layer per {@link RetentionHorizon}. Feeds the heatmap on the result page.
+ *
+ * The model's fault lookup and the replacement base price are resolved once per request; every row (one
+ * mileage of one horizon) is then a single {@link RegretCalculator.BatchKernel} call, and rows are scored
+ * in parallel.
+ *
+ * Each layer is encoded compactly for a canvas: {@code states} has one character per cell
+ * ({@code 0} STABLE, {@code 1} BORDERLINE, {@code 2} TIME_BOMB), {@code margins} is base64 of little-endian
+ * int16 RF − RM in dollars, clamped to ±32767. Cells are row-major: row = mileage step, column = quote step.
+ */
+@Service
+public class SensitivityGridService {
+
+    public static final int DEFAULT_STEPS = 40;
+    public static final int MAX_STEPS = 100;
+
+    private static final long MIN_MILEAGE = 5_000;
+    private static final long MAX_MILEAGE = 250_000;
+    private static final long MIN_QUOTE_SPAN = 5_000;
+
+    private final RegretCalculator regretCalculator;
+
+    public SensitivityGridService(RegretCalculator regretCalculator) {
+        this.regretCalculator = regretCalculator;
+    }
+
+    /**
+     * Axis ranges and resolution. Zero or out-of-range values fall back to defaults around the input,
+     * see {@link #resolve}.
+     */
+    public record GridSpec(long minMileage, long maxMileage, int mileageSteps, long minQuote, long maxQuote,
+            int quoteSteps) {
+
+        public static GridSpec defaults() {
+            return new GridSpec(0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public record GridLayer(RetentionHorizon retentionHorizon, String states, String margins) {
+    }
+
+    public record SensitivityGrid(
+            long[] mileages,
+            long[] quotes,
+            long mileage, // the vehicle's own position, for the marker
+            long repairQuoteUsd,
+            List<GridLayer> layers) {
+    }
+
+    /**
+     * Scores the full grid. Severity, mobility and hassle come from {@code controls} (all optional); the
+     * retention horizon is the layer axis, so {@code controls.retentionHorizon()} is ignored.
+     */
+    public SensitivityGrid compute(EngineInput input, SimulationControls controls, GridSpec spec) {
+        GridSpec resolved = resolve(input, spec == null ? GridSpec.defaults() : spec);
+        long[] mileages = axis(resolved.minMileage(), resolved.maxMileage(), resolved.mileageSteps());
+        long[] quotes = axis(resolved.minQuote(), resolved.maxQuote(), resolved.quoteSteps());
+
+        RetentionHorizon[] horizons = RetentionHorizon.values();
+        SimulationControls[] layerControls = new SimulationControls[horizons.length];
+        for (int h = 0; h < horizons.length; h++) {
+            layerControls[h] = controls == null
+                    ? new SimulationControls(null, null, null, horizons[h])
+                    : new SimulationControls(controls.failureSeverity(), controls.mobilityStatus(),
+                            controls.hassleTolerance(), horizons[h]);
+        }
+
+        VehicleFactors factors = regretCalculator.resolveFactors(input);
+        BatchKernel[] kernels = new BatchKernel[horizons.length];
+        for (int h = 0; h < horizons.length; h++) {
+            kernels[h] = regretCalculator.batchKernel(input, layerControls[h], factors);
+        }
+        int rows = mileages.length;
+        int cols = quotes.length;
+        byte[][] states = new byte[horizons.length][rows * cols];
+        short[][] margins = new short[horizons.length][rows * cols];
+
+        // One row = one kernel call: mileage and value are constant along it, the quote axis varies
+        IntStream.range(0, horizons.length * rows).parallel().forEach(task -> {
+            int h = task / rows;
+            int row = task % rows;
+            long[] rowMileages = new long[cols];
+            long[] rowValues = new long[cols];
+            Arrays.fill(rowMileages, mileages[row]);
+            Arrays.fill(rowValues, input.currentValueUsd());
+            double[] rf = new double[cols];
+            double[] rm = new double[cols];
+            kernels[h].score(rowMileages, quotes, rowValues, rf, rm);
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                states[h][index] = (byte) DecisionEngine.determineState(rf[col], rm[col]).ordinal();
+                margins[h][index] = clampToShort(Math.round(rf[col] - rm[col]));
+            }
+        });
+
+        List<GridLayer> layers = new ArrayList<>(horizons.length);
+        for (int h = 0; h < horizons.length; h++) {
+            layers.add(new GridLayer(horizons[h], encodeStates(states[h]), encodeMargins(margins[h])));
+        }
+        return new SensitivityGrid(mileages, quotes, input.mileage(), input.repairQuoteUsd(), List.copyOf(layers));
+    }
+
+    /** Fills in unset or invalid axis bounds: mileage spans the usable life, quotes reach past the car's value. */
+    static GridSpec resolve(EngineInput input, GridSpec spec) {
+        long minMileage = spec.minMileage() > 0 ? spec.minMileage() : MIN_MILEAGE;
+        long maxMileage = spec.maxMileage() > minMileage ? spec.maxMileage()
+                : Math.max(MAX_MILEAGE, roundUp(input.mileage() + 50_000, 5_000));
+        long minQuote = Math.max(0, spec.minQuote());
+        long maxQuote = spec.maxQuote() > minQuote ? spec.maxQuote()
+                : minQuote + roundUp(Math.max(MIN_QUOTE_SPAN,
+                        Math.max(input.repairQuoteUsd() * 2, input.currentValueUsd())), 500);
+        return new GridSpec(minMileage, maxMileage, steps(spec.mileageSteps()), minQuote, maxQuote,
+                steps(spec.quoteSteps()));
+    }
+
+    private static int steps(int requested) {
+        return requested <= 0 ? DEFAULT_STEPS : Math.max(2, Math.min(requested, MAX_STEPS));
+    }
+
+    private static long roundUp(long value, long unit) {
+        return ((value + unit - 1) / unit) * unit;
+    }
+
+    private static long[] axis(long min, long max, int steps) {
+        long[] values = new long[steps];
+        for (int i = 0; i < steps; i++) {
+            values[i] = min + Math.round((double) (max - min) * i / (steps - 1));
+        }
+        return values;
+    }
+
+    private static short clampToShort(long value) {
+        return (short) Math.max(-Short.MAX_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+
+    private static String encodeStates(byte[] states) {
+        char[] chars = new char[states.length];
+        for (int i = 0; i < states.length; i++) {
+            chars[i] = (char) ('0' + states[i]);
+        }
+        return new String(chars);
+    }
+
+    private static String encodeMargins(short[] margins) {
+        byte[] bytes = new byte[margins.length * 2];
+        for (int i = 0; i < margins.length; i++) {
+            bytes[2 * i] = (byte) margins[i];
+            bytes[2 * i + 1] = (byte) (margins[i] >> 8);
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /** Inverse of the {@code states} encoding, for callers that work with the grid server-side. */
+    public static VerdictState stateAt(GridLayer layer, int index) {
+        return VerdictState.values()[layer.states().charAt(index) - '0'];
+    }
+}
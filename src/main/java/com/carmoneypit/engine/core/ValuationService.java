@@ -6,15 +6,19 @@ import com.carmoneypit.engine.service.CarDataService;
 import com.carmoneypit.engine.service.CarDataService.CarModel;
 import com.carmoneypit.engine.service.CarDataService.ModelMarket;
 import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import com.carmoneypit.engine.service.MileageProfile;
+import com.carmoneypit.engine.service.SlugCodec;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,9 +41,12 @@ import java.util.Optional;
 @Service
 public class ValuationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ValuationService.class);
+
     private final ObjectMapper objectMapper;
     private final CarDataService carDataService;
-    private Map<String, CarBrandData> brandDataMap = new HashMap<>();
+    // Bundled brands, used only when no dataset snapshot is available (e.g. a stubbed CarDataService)
+    private volatile Map<String, CarBrandData> bundledBrandData = Map.of();
 
     // --- Default MSRP by Vehicle Type (2026 Base) ---
     private static final long BASE_SEDAN = 32_000;
@@ -74,19 +81,32 @@ public class ValuationService {
 
     @PostConstruct
     public void init() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        if (snapshot != null && !snapshot.brandData().isEmpty()) {
+            logger.info("Using {} brands from dataset {}", snapshot.brandData().size(), snapshot.version());
+            return;
+        }
         try {
             ClassPathResource resource = new ClassPathResource("data/car_brands.json");
             try (InputStream inputStream = resource.getInputStream()) {
                 Map<String, CarBrandData> data = objectMapper.readValue(inputStream, new TypeReference<>() {
                 });
-                brandDataMap = data;
-                System.out.println("[ValuationService] Loaded " + brandDataMap.size() + " brands from car_brands.json");
+                bundledBrandData = data;
+                logger.info("Loaded {} brands from car_brands.json", data.size());
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to load car_brands.json", e);
         }
     }
 
+    /**
+     * Brand data of the dataset currently served; follows hot reloads of the snapshot.
+     */
+    private Map<String, CarBrandData> brandDataMap() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        return snapshot != null && !snapshot.brandData().isEmpty() ? snapshot.brandData() : bundledBrandData;
+    }
+
     /**
      * Estimate vehicle value using tiered data sources:
      * 1. Model-specific market data (if available)
@@ -94,8 +114,8 @@ public class ValuationService {
      * 3. Vehicle type defaults (last resort)
      */
     public long estimateValue(String brand, String modelName, VehicleType type, int year, long mileage) {
-        String normalizedBrand = normalizeBrandKey(brand);
-        CarBrandData brandData = brandDataMap.get(normalizedBrand);
+        String normalizedBrand = SlugCodec.brandKey(brand);
+        CarBrandData brandData = brandDataMap().get(normalizedBrand);
 
         // Try to find model-specific data
         Optional<CarModel> carModel = findCarModel(normalizedBrand, modelName);
@@ -224,8 +244,8 @@ public class ValuationService {
     }
 
     public long estimateRepairCost(String brand, String modelName, VehicleType type, long mileage) {
-        String normalizedBrand = normalizeBrandKey(brand);
-        CarBrandData brandData = brandDataMap.get(normalizedBrand);
+        String normalizedBrand = SlugCodec.brandKey(brand);
+        CarBrandData brandData = brandDataMap().get(normalizedBrand);
 
         // Try model-specific data
         if (modelName != null) {
@@ -318,15 +338,15 @@ public class ValuationService {
     }
 
     public Optional<CarBrandData> getBrandData(String brand) {
-        return Optional.ofNullable(brandDataMap.get(normalizeBrandKey(brand)));
+        return Optional.ofNullable(brandDataMap().get(SlugCodec.brandKey(brand)));
     }
 
     public boolean isValidBrand(String brand) {
-        return brandDataMap.containsKey(normalizeBrandKey(brand));
+        return brandDataMap().containsKey(SlugCodec.brandKey(brand));
     }
 
     public List<String> getAllBrandKeys() {
-        return brandDataMap.keySet().stream().sorted().toList();
+        return brandDataMap().keySet().stream().sorted().toList();
     }
 
     public List<CarModel> getModelsByBrand(String brand) {
@@ -334,9 +354,7 @@ public class ValuationService {
     }
 
     public Optional<ModelMarket> getMarketData(String modelName) {
-        return carDataService.getAllModels().stream()
-                .filter(m -> m.model().equalsIgnoreCase(modelName))
-                .findFirst()
+        return carDataService.findCarByModelName(modelName)
                 .flatMap(m -> carDataService.findMarketByModelId(m.id()));
     }
 
@@ -345,7 +363,7 @@ public class ValuationService {
      * Useful for pSEO pages and detailed reports.
      */
     public ValuationContext getValuationContext(String brand, String modelName, int year, long mileage) {
-        String normalizedBrand = normalizeBrandKey(brand);
+        String normalizedBrand = SlugCodec.brandKey(brand);
         Optional<CarModel> carModel = findCarModel(normalizedBrand, modelName);
         Optional<ModelMarket> market = carModel.flatMap(m -> carDataService.findMarketByModelId(m.id()));
         Optional<ModelReliability> reliability = carModel.flatMap(m -> carDataService.findReliabilityByModelId(m.id()));
@@ -382,28 +400,10 @@ public class ValuationService {
             return getDefaultMileageContext(mileage);
         }
 
-        Map<String, String> logicText = reliability.mileageLogicText();
-        String key = findClosestMileageKey(logicText, mileage);
-        return key != null ? logicText.get(key) : getDefaultMileageContext(mileage);
-    }
-
-    private String findClosestMileageKey(Map<String, String> logicText, long mileage) {
-        String closestKey = null;
-        long closestDiff = Long.MAX_VALUE;
-
-        for (String key : logicText.keySet()) {
-            try {
-                long keyMileage = Long.parseLong(key);
-                long diff = Math.abs(keyMileage - mileage);
-                if (diff < closestDiff && diff < 25000) { // Within 25k miles
-                    closestDiff = diff;
-                    closestKey = key;
-                }
-            } catch (NumberFormatException ignored) {
-            }
-        }
-
-        return closestKey;
+        MileageProfile profile = carDataService.findMileageProfile(reliability.modelId())
+                .orElseGet(() -> MileageProfile.of(reliability));
+        String text = profile.closestLogicText(mileage, 25000); // Within 25k miles
+        return text != null ? text : getDefaultMileageContext(mileage);
     }
 
     private String getDefaultMileageContext(long mileage) {
@@ -427,15 +427,6 @@ public class ValuationService {
         return carDataService.findCarBySlug(brand, modelName);
     }
 
-    private String normalizeBrandKey(String brand) {
-        if (brand == null)
-            return "";
-        return brand.toUpperCase()
-                .replace("-", "_")
-                .replace(" ", "_")
-                .trim();
-    }
-
     // === Context Record ===
 
     public record ValuationContext(
@@ -0,0 +1,268 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.FinancialLineItem;
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import com.carmoneypit.engine.service.SlugCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded memo of {@link VerdictResult}s in front of {@link DecisionEngine}, so a shared
+ * {@code /verdict?token=} link or a repeated Simulation Lab combination is evaluated once.
+ *
+ * Keys are the canonical form of the input: brand and model are reduced to the lookup keys the engine
+ * itself resolves them with, so "CR-V", "crv" and "Cr V" share an entry; numeric fields stay exact
+ * because each of them feeds the scores. The dataset version is part of the key and the whole cache is
+ * dropped on reload. Entries are weighed by estimated size and evicted LRU within 16 lock stripes;
+ * concurrent misses on one key wait for a single evaluation.
+ */
+@Component
+public class VerdictCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerdictCache.class);
+
+    private static final int STRIPES = 16;
+
+    private final CarDataService carDataService;
+    private final long maxBytes;
+    private final Stripe[] stripes;
+    private final Map<VerdictKey, CompletableFuture<VerdictResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public VerdictCache(CarDataService carDataService,
+            @Value("${app.verdictCache.maxBytes:33554432}") long maxBytes) {
+        this.carDataService = carDataService;
+        this.maxBytes = Math.max(0, maxBytes);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(this.maxBytes / STRIPES);
+        }
+    }
+
+    /** A cache that never stores anything; every call evaluates. */
+    public static VerdictCache disabled() {
+        return new VerdictCache(null, 0);
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the cached verdict for {@code input}/{@code controls}, evaluating it with {@code compute}
+     * on a miss. The computed result must not be mutated afterwards.
+     */
+    public VerdictResult get(EngineInput input, SimulationControls controls, Supplier<VerdictResult> compute) {
+        if (!isEnabled() || input == null) {
+            return compute.get();
+        }
+
+        VerdictKey key = VerdictKey.of(datasetVersion(), input, controls);
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        VerdictResult cached = stripe.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<VerdictResult> mine = new CompletableFuture<>();
+        CompletableFuture<VerdictResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Someone else is already evaluating this exact key
+            hits.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            VerdictResult result = compute.get();
+            evictions.add(stripe.put(key, result, weigh(key, result)));
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        invalidateAll();
+        logger.info("Verdict cache cleared for dataset {}", event.current().version());
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        invalidations.increment();
+    }
+
+    public CacheStats stats() {
+        long entries = 0;
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                entries += stripe.entries.size();
+                bytes += stripe.bytes;
+            }
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new CacheStats(h, m, evictions.sum(), invalidations.sum(), entries, bytes, maxBytes,
+                h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    private String datasetVersion() {
+        DatasetSnapshot snapshot = carDataService == null ? null : carDataService.snapshot();
+        return snapshot == null ? "" : snapshot.version();
+    }
+
+    /** Rough retained size of an entry: object headers, strings (2 bytes/char), line items, sensitivities and quote rank. */
+    private static long weigh(VerdictKey key, VerdictResult result) {
+        long bytes = 256 + 2L * (key.modelKey().length() + key.brandKey().length());
+        if (result.narrativeContext() != null) {
+            bytes += 48 + 2L * result.narrativeContext().length();
+        }
+        if (result.costBreakdown() != null) {
+            for (FinancialLineItem item : result.costBreakdown()) {
+                bytes += 96;
+                bytes += item.label() == null ? 0 : 2L * item.label().length();
+                bytes += item.description() == null ? 0 : 2L * item.description().length();
+            }
+        }
+        if (result.sensitivities() != null) {
+            bytes += 192 + 48L * result.sensitivities().controls().size();
+        }
+        if (result.quoteRank() != null) {
+            bytes += 48; // its strings are the dataset's own
+        }
+        return bytes;
+    }
+
+    // --- Internals ---
+
+    private static final class Stripe {
+        private final long maxBytes;
+        private final LinkedHashMap<VerdictKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // access order
+        private long bytes;
+
+        Stripe(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized VerdictResult get(VerdictKey key) {
+            Entry entry = entries.get(key);
+            return entry == null ? null : entry.result();
+        }
+
+        /** Stores the entry and evicts least-recently-used ones over budget; returns the eviction count. */
+        synchronized int put(VerdictKey key, VerdictResult result, long weight) {
+            if (weight > maxBytes) {
+                return 0;
+            }
+            Entry previous = entries.put(key, new Entry(result, weight));
+            bytes += weight - (previous == null ? 0 : previous.weight());
+
+            int evicted = 0;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().weight();
+                eldest.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private record Entry(VerdictResult result, long weight) {
+    }
+
+    record VerdictKey(
+            String datasetVersion,
+            String modelKey,
+            boolean modelNamed, // drives the "specific model" confidence boost, which looks at the raw name
+            VehicleType vehicleType,
+            String brandKey,
+            int year,
+            long mileage,
+            long repairQuoteUsd,
+            long currentValueUsd,
+            boolean quoteEstimated,
+            boolean valueEstimated,
+            boolean hasControls,
+            FailureSeverity failureSeverity,
+            MobilityStatus mobilityStatus,
+            HassleTolerance hassleTolerance,
+            RetentionHorizon retentionHorizon) {
+
+        static VerdictKey of(String datasetVersion, EngineInput input, SimulationControls controls) {
+            String model = input.model();
+            return new VerdictKey(
+                    datasetVersion,
+                    SlugCodec.key(model),
+                    model != null && !model.isBlank() && !"other".equalsIgnoreCase(model),
+                    input.vehicleType(),
+                    SlugCodec.brandKey(input.brand()),
+                    input.year(),
+                    input.mileage(),
+                    input.repairQuoteUsd(),
+                    input.currentValueUsd(),
+                    input.isQuoteEstimated(),
+                    input.isValueEstimated(),
+                    controls != null,
+                    controls == null ? null : controls.failureSeverity(),
+                    controls == null ? null : controls.mobilityStatus(),
+                    controls == null ? null : controls.hassleTolerance(),
+                    controls == null ? null : controls.retentionHorizon());
+        }
+    }
+
+    public record CacheStats(
+            long hits,
+            long misses,
+            long evictions,
+            long invalidations,
+            long entries,
+            long bytes,
+            long maxBytes,
+            double hitRate) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.Breakeven;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.carmoneypit.engine.api.OutputModels.VerdictState;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import com.carmoneypit.engine.service.MileageProfile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Verdicts for every catalog model at every pSEO mileage bucket, computed once per dataset version so
+ * that mileage pages and the /should-i-fix quick signal are lookups instead of per-crawl evaluations.
+ *
+ * Each cell evaluates exactly what the mileage page shows: the model's representative year at the bucket
+ * mileage, the page's estimated market value and the model's average annual repair bill as an estimated
+ * quote. The model's costliest known fault is kept alongside for copy and the quick signal.
+ * Cells are computed on all cores at startup and on every dataset reload. The table lives on the snapshot it was
+ * built from, so a page never pairs a new dataset with the previous table: a request arriving mid-rebuild waits
+ * for it. Models without reliability or market data have no row.
+ */
+@Service
+public class VerdictTableService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerdictTableService.class);
+
+    /** Mileages that get their own /verdict/{brand}/{model}/{mileage}-miles page. */
+    public static final List<Integer> MILEAGE_BUCKETS = List.of(50000, 75000, 100000, 125000, 150000, 175000, 200000);
+
+    private static final int DEFAULT_JUNK_VALUE = 500;
+
+    private final CarDataService carDataService;
+    private final DecisionEngine decisionEngine;
+    private final BreakevenSolver breakevenSolver;
+
+    public VerdictTableService(CarDataService carDataService, DecisionEngine decisionEngine,
+            BreakevenSolver breakevenSolver) {
+        this.carDataService = carDataService;
+        this.decisionEngine = decisionEngine;
+        this.breakevenSolver = breakevenSolver;
+    }
+
+    @PostConstruct
+    public void init() {
+        table();
+    }
+
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        event.current().derived(this, this::build);
+    }
+
+    /** Precomputed verdict for a model at one of {@link #MILEAGE_BUCKETS}. */
+    public Optional<MileageVerdict> find(String modelId, int mileage) {
+        Table current = table();
+        Integer row = current.rows.get(modelId);
+        int bucket = MILEAGE_BUCKETS.indexOf(mileage);
+        if (row == null || bucket < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.cells[row * MILEAGE_BUCKETS.size() + bucket]);
+    }
+
+    /** The model's costliest known fault, the one the quick signal weighs against market value. */
+    public Optional<Fault> topFault(String modelId) {
+        Table current = table();
+        Integer row = current.rows.get(modelId);
+        return row == null ? Optional.empty() : Optional.ofNullable(current.topFaults[row]);
+    }
+
+    /** {@link #quickSignal(Integer, Integer, Integer, int)} for a catalog model, precomputed per dataset. */
+    public Optional<String> quickSignal(String modelId, int year) {
+        Table current = table();
+        Integer row = current.rows.get(modelId);
+        if (row == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(year <= QUICK_SIGNAL_OLDER_YEAR ? current.signalsOlder[row]
+                : current.signalsNewer[row]);
+    }
+
+    public String datasetVersion() {
+        return table().datasetVersion;
+    }
+
+    // --- Shared page rules ---
+
+    private static final int QUICK_SIGNAL_OLDER_YEAR = 2018;
+
+    /** One-line fix-or-sell signal for /should-i-fix pages: repair-to-value ratio when known, else age. */
+    public static String quickSignal(Integer marketValue, Integer primaryFaultCost, Integer lifespanMiles, int year) {
+        if (marketValue != null && primaryFaultCost != null && marketValue > 0) {
+            double repairToValue = (double) primaryFaultCost / marketValue;
+            if (repairToValue >= 0.35) {
+                return "Likely sell zone";
+            }
+            if (repairToValue >= 0.2) {
+                return "Borderline decision";
+            }
+            return "Usually worth fixing";
+        }
+
+        if (lifespanMiles != null && year <= QUICK_SIGNAL_OLDER_YEAR) {
+            return "Mileage-sensitive call";
+        }
+
+        return "Quote decides";
+    }
+
+    /** Year a model's pages lead with: its latest best year, else the last production year. */
+    public static int representativeYear(CarModel car, MileageProfile profile) {
+        if (profile.hasBestYears()) {
+            int best = profile.latestBestYear(car.startYear(), car.endYear());
+            return best >= 0 ? best : car.endYear();
+        }
+        return car.endYear() > 0 ? car.endYear() : car.startYear();
+    }
+
+    /** Market value the mileage pages show: ~3% per 10k miles off the average price, floored at junk value. */
+    public static int estimatedValue(ModelMarket market, int mileage) {
+        int junk = market.commonJunkValue() != null ? market.commonJunkValue() : DEFAULT_JUNK_VALUE;
+        return (int) Math.max(junk, market.jan2026AvgPrice() * Math.max(0.15, 1.0 - (mileage * 0.000003)));
+    }
+
+    // --- Build ---
+
+    private Table table() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        return snapshot == null ? Table.EMPTY : snapshot.derived(this, this::build);
+    }
+
+    private Table build(DatasetSnapshot snapshot) {
+        long started = System.nanoTime();
+        List<CarModel> models = snapshot.carModels();
+        int buckets = MILEAGE_BUCKETS.size();
+
+        Map<String, Integer> rows = new HashMap<>();
+        for (CarModel car : models) {
+            rows.putIfAbsent(car.id(), rows.size());
+        }
+        CarModel[] byRow = new CarModel[rows.size()];
+        for (CarModel car : models) {
+            if (byRow[rows.get(car.id())] == null) {
+                byRow[rows.get(car.id())] = car;
+            }
+        }
+
+        Fault[] topFaults = new Fault[byRow.length];
+        String[] signalsOlder = new String[byRow.length];
+        String[] signalsNewer = new String[byRow.length];
+        MileageVerdict[] cells = new MileageVerdict[byRow.length * buckets];
+
+        IntStream.range(0, byRow.length).parallel().forEach(row -> {
+            CarModel car = byRow[row];
+            ModelReliability reliability = snapshot.reliabilityMap().get(car.id());
+            ModelMarket market = snapshot.marketMap().get(car.id());
+            Fault top = costliestFault(snapshot.faultsMap().get(car.id()));
+            topFaults[row] = top;
+
+            Integer marketValue = market != null ? market.jan2026AvgPrice() : null;
+            Integer faultCost = top != null ? (int) Math.round(top.repairCost()) : null;
+            Integer lifespan = reliability != null ? reliability.lifespanMiles() : null;
+            signalsOlder[row] = quickSignal(marketValue, faultCost, lifespan, QUICK_SIGNAL_OLDER_YEAR);
+            signalsNewer[row] = quickSignal(marketValue, faultCost, lifespan, QUICK_SIGNAL_OLDER_YEAR + 1);
+
+            if (reliability == null || market == null) {
+                return;
+            }
+            MileageProfile profile = snapshot.mileageProfiles().getOrDefault(car.id(), MileageProfile.of(reliability));
+            int year = representativeYear(car, profile);
+            for (int b = 0; b < buckets; b++) {
+                int mileage = MILEAGE_BUCKETS.get(b);
+                int value = estimatedValue(market, mileage);
+                EngineInput input = new EngineInput(car.model(), VehicleType.SEDAN, car.brand(), year, mileage,
+                        market.avgAnnualRepairCost(), value, true, true);
+                VerdictScore score = decisionEngine.scoreOnce(input, null);
+                cells[row * buckets + b] = new MileageVerdict(year, mileage, score.verdictState(), score.stayTotal(),
+                        score.moveTotal(), value, top, breakevenSolver.solve(input, null));
+            }
+        });
+
+        logger.info("Verdict table for dataset {}: {} models x {} buckets in {} ms", snapshot.version(), byRow.length,
+                buckets, (System.nanoTime() - started) / 1_000_000);
+        return new Table(snapshot.version(), Map.copyOf(rows), cells, topFaults, signalsOlder, signalsNewer);
+    }
+
+    private static Fault costliestFault(MajorFaults faults) {
+        if (faults == null || faults.faults() == null) {
+            return null;
+        }
+        Fault top = null;
+        for (Fault fault : faults.faults()) {
+            if (top == null || fault.repairCost() > top.repairCost()) {
+                top = fault;
+            }
+        }
+        return top;
+    }
+
+    private record Table(
+            String datasetVersion,
+            Map<String, Integer> rows, // model id -> row
+            MileageVerdict[] cells, // row * buckets + bucket
+            Fault[] topFaults,
+            String[] signalsOlder,
+            String[] signalsNewer) {
+
+        static final Table EMPTY = new Table("", Map.of(), new MileageVerdict[0], new Fault[0], new String[0],
+                new String[0]);
+    }
+
+    /**
+     * @param quoteBreakeven walk-away repair quotes at this mileage
+     */
+    public record MileageVerdict(
+            int year,
+            int mileage,
+            VerdictState verdictState,
+            double stayTotal,
+            double moveTotal,
+            int estimatedValue,
+            Fault topFault,
+            Breakeven quoteBreakeven) {
+    }
+}
@@ -1,17 +1,19 @@
 package com.carmoneypit.engine.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Service responsible for loading and providing access to car data.
@@ -22,127 +24,111 @@ public class CarDataService {
 
     private static final Logger logger = LoggerFactory.getLogger(CarDataService.class);
 
-    private final List<CarModel> carModels;
-    private final Map<String, CarModel> carModelsMap; // Key: "brand|model" (normalized)
-
-    private final Map<String, ModelReliability> reliabilityMap;
-    private final Map<String, ModelMarket> marketMap;
-    private final Map<String, MajorFaults> faultsMap;
+    // Swapped as a whole on reload; every query reads it exactly once
+    private volatile DatasetSnapshot snapshot;
 
     public CarDataService(ObjectMapper objectMapper) {
-        this.carModels = loadJson(objectMapper, "/data/car_models.json", new TypeReference<>() {
-        });
-        var reliabilityData = loadJson(objectMapper, "/data/model_reliability.json",
-                new TypeReference<List<ModelReliability>>() {
-                });
-        var marketData = loadJson(objectMapper, "/data/model_market.json", new TypeReference<List<ModelMarket>>() {
-        });
-        var faultsData = loadJson(objectMapper, "/data/major_faults.json", new TypeReference<List<MajorFaults>>() {
-        });
-
-        // Initialize Lookup Maps
-        this.carModelsMap = carModels.stream()
-                .collect(Collectors.toMap(
-                        c -> makeKey(c.brand(), c.model()),
-                        Function.identity(),
-                        (existing, replacement) -> existing));
-
-        this.reliabilityMap = reliabilityData.stream()
-                .collect(Collectors.toMap(ModelReliability::modelId, Function.identity(), (a, b) -> a));
-
-        this.marketMap = marketData.stream()
-                .collect(Collectors.toMap(ModelMarket::modelId, Function.identity(), (a, b) -> a));
-
-        this.faultsMap = faultsData.stream()
-                .collect(Collectors.toMap(MajorFaults::modelIdRef, Function.identity(), (a, b) -> a));
-
-        logger.info("Loaded {} car models", carModels.size());
-    }
-
-    private <T> List<T> loadJson(ObjectMapper mapper, String path, TypeReference<List<T>> typeRef) {
-        try {
-            InputStream stream = getClass().getResourceAsStream(path);
-            if (stream != null) {
-                return mapper.readValue(stream, typeRef);
+        this(objectMapper, null);
+    }
+
+    /**
+     * @param dataDir external data directory ({@code app.data.dir}); blank = bundled data only
+     */
+    @Autowired
+    public CarDataService(ObjectMapper objectMapper, @Value("${app.data.dir:}") String dataDir) {
+        this.snapshot = initialSnapshot(new DatasetLoader(objectMapper), DatasetLoader.toPath(dataDir));
+        SlugCodec.warm(snapshot);
+        logger.info("Loaded {} car models (dataset {} from {})", snapshot.carModels().size(), snapshot.version(),
+                snapshot.source());
+    }
+
+    /**
+     * The external directory's dataset when it loads and validates, else the bundled one. Read here rather than
+     * by {@link DatasetReloadService} so that every bean built from this service starts on the served data.
+     */
+    private static DatasetSnapshot initialSnapshot(DatasetLoader loader, Path dataDir) {
+        if (dataDir != null && Files.isDirectory(dataDir)) {
+            try {
+                DatasetSnapshot external = loader.load(dataDir);
+                List<String> problems = DatasetLoader.validate(external);
+                if (problems.isEmpty()) {
+                    return external;
+                }
+                logger.warn("Dataset in {} rejected at startup ({} problems, first: {}); serving bundled dataset",
+                        dataDir, problems.size(), problems.get(0));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Dataset in {} failed to load at startup; serving bundled dataset", dataDir, e);
             }
-        } catch (Exception e) {
-            logger.error("Failed to load {}", path, e);
         }
-        return List.of();
+        return loader.loadClasspath();
+    }
+
+    /** The dataset version currently served. */
+    public DatasetSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Atomically replaces the served dataset. In-flight requests keep the version they already read.
+     *
+     * @return the snapshot that was replaced
+     */
+    public synchronized DatasetSnapshot publish(DatasetSnapshot next) {
+        DatasetSnapshot previous = this.snapshot;
+        SlugCodec.warm(next);
+        this.snapshot = next;
+        return previous;
     }
 
     // --- Query Methods ---
 
     public Optional<CarModel> findCarBySlug(String brandSlug, String modelSlug) {
-        return Optional.ofNullable(carModelsMap.get(makeKey(brandSlug, modelSlug)));
+        return snapshot.catalogIndex().findByBrandAndModel(brandSlug, modelSlug);
+    }
+
+    /**
+     * Looks a model up by its name alone (brand unknown), e.g. from
+     * {@code EngineInput.model()}. First catalog entry wins when generations share a name.
+     */
+    public Optional<CarModel> findCarByModelName(String modelName) {
+        return snapshot.catalogIndex().findByModelName(modelName);
     }
 
     public Optional<MajorFaults> findFaultsByModelId(String modelId) {
-        return Optional.ofNullable(faultsMap.get(modelId));
+        return Optional.ofNullable(snapshot.faultsMap().get(modelId));
     }
 
     public Optional<ModelReliability> findReliabilityByModelId(String modelId) {
-        return Optional.ofNullable(reliabilityMap.get(modelId));
+        return Optional.ofNullable(snapshot.reliabilityMap().get(modelId));
+    }
+
+    public Optional<MileageProfile> findMileageProfile(String modelId) {
+        return Optional.ofNullable(snapshot.mileageProfiles().get(modelId));
     }
 
     public Optional<ModelMarket> findMarketByModelId(String modelId) {
-        return Optional.ofNullable(marketMap.get(modelId));
+        return Optional.ofNullable(snapshot.marketMap().get(modelId));
     }
 
     public List<String> getAllBrands() {
-        return carModels.stream()
-                .map(CarModel::brand)
-                .distinct()
-                .map(this::toTitleCase)
-                .sorted()
-                .toList();
-    }
-
-    private String toTitleCase(String input) {
-        if (input == null || input.isEmpty())
-            return input;
-
-        // Handle special cases
-        if (input.equalsIgnoreCase("BMW") || input.equalsIgnoreCase("GMC"))
-            return input.toUpperCase();
-        if (input.equalsIgnoreCase("VW") || input.equalsIgnoreCase("Volkswagen"))
-            return "Volkswagen";
-
-        String[] words = input.toLowerCase().split("[\\s-_]");
-        StringBuilder sb = new StringBuilder();
-        for (String word : words) {
-            if (!word.isEmpty()) {
-                if (sb.length() > 0)
-                    sb.append(" ");
-                sb.append(Character.toUpperCase(word.charAt(0)));
-                sb.append(word.substring(1));
-            }
-        }
-        return sb.toString();
+        return snapshot.catalogIndex().brandNames();
     }
 
     public List<CarModel> getModelsByBrand(String brandSlug) {
-        String normalizedBrand = normalize(brandSlug);
-        return carModels.stream()
-                .filter(c -> normalize(c.brand()).equals(normalizedBrand))
-                .sorted((c1, c2) -> String.CASE_INSENSITIVE_ORDER.compare(c1.model(), c2.model()))
-                .toList();
+        return snapshot.catalogIndex().modelsByBrand(brandSlug);
     }
 
     public List<CarModel> getAllModels() {
-        return carModels;
+        return snapshot.carModels();
     }
 
-    private String makeKey(String brand, String model) {
-        return normalize(brand) + "|" + normalize(model);
-    }
-
-    private String normalize(String input) {
-        return input == null ? "" : input.toLowerCase().replaceAll("[^a-z0-9]", "");
+    public FaultRollup getFaultRollup() {
+        return snapshot.faultRollup();
     }
 
     // --- Data Records (Updated) ---
 
+    /** @param segment the body style a replacement for this model is shopped in; required by validation */
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
     public record CarModel(
             String id,
@@ -150,7 +136,12 @@ public class CarDataService {
             String model,
             String generation,
             @com.fasterxml.jackson.annotation.JsonProperty("start_year") int startYear,
-            @com.fasterxml.jackson.annotation.JsonProperty("end_year") int endYear) {
+            @com.fasterxml.jackson.annotation.JsonProperty("end_year") int endYear,
+            VehicleType segment) {
+
+        public CarModel(String id, String brand, String model, String generation, int startYear, int endYear) {
+            this(id, brand, model, generation, startYear, endYear, null);
+        }
     }
 
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
@@ -209,10 +200,29 @@ public class CarDataService {
             @com.fasterxml.jackson.annotation.JsonProperty("repairCost") double repairCost,
             @com.fasterxml.jackson.annotation.JsonProperty("verdictImplication") String verdictImplication,
             @com.fasterxml.jackson.annotation.JsonProperty("occurrence_rate") double occurrenceRate,
-            @com.fasterxml.jackson.annotation.JsonProperty("avg_failure_mileage") int avgFailureMileage) {
+            @com.fasterxml.jackson.annotation.JsonProperty("avg_failure_mileage") int avgFailureMileage,
+            @com.fasterxml.jackson.annotation.JsonProperty("repairCost_range_low") Integer repairCostRangeLow,
+            @com.fasterxml.jackson.annotation.JsonProperty("repairCost_range_high") Integer repairCostRangeHigh) {
+
+        public Fault(String component, String symptoms, double repairCost, String verdictImplication,
+                double occurrenceRate, int avgFailureMileage) {
+            this(component, symptoms, repairCost, verdictImplication, occurrenceRate, avgFailureMileage, null, null);
+        }
 
         public Fault(String component, String symptoms, double repairCost, String verdictImplication) {
             this(component, symptoms, repairCost, verdictImplication, 0.0, 0);
         }
+
+        /** Low end of the quoted repair cost range; the point estimate when the source gives no range. */
+        public double repairCostLow() {
+            return repairCostRangeLow != null && repairCostRangeLow > 0 ? Math.min(repairCostRangeLow, repairCost)
+                    : repairCost;
+        }
+
+        /** High end of the quoted repair cost range; the point estimate when the source gives no range. */
+        public double repairCostHigh() {
+            return repairCostRangeHigh != null && repairCostRangeHigh > 0 ? Math.max(repairCostRangeHigh, repairCost)
+                    : repairCost;
+        }
     }
 }
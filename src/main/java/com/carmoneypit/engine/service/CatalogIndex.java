@@ -0,0 +1,119 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable lookup index over the car catalog, built once per load.
+ * Replaces the per-request stream scans over {@link CarDataService#getAllModels()}:
+ * every query here is a hash lookup returning a pre-built, unmodifiable result.
+ */
+public final class CatalogIndex {
+
+    private final List<CarModel> models;
+    private final Map<String, BrandEntry> brands; // Key: normalized brand
+    private final Map<String, CarModel> byModelName; // Key: normalized model name, first entry wins
+    private final List<String> brandNames; // Title-cased, sorted
+
+    private CatalogIndex(List<CarModel> models, Map<String, BrandEntry> brands,
+            Map<String, CarModel> byModelName, List<String> brandNames) {
+        this.models = models;
+        this.brands = brands;
+        this.byModelName = byModelName;
+        this.brandNames = brandNames;
+    }
+
+    public static CatalogIndex build(List<CarModel> carModels) {
+        List<CarModel> models = List.copyOf(carModels);
+
+        Map<String, Map<String, CarModel>> modelsByBrand = new LinkedHashMap<>();
+        Map<String, List<CarModel>> listsByBrand = new HashMap<>();
+        Map<String, CarModel> byModelName = new HashMap<>();
+        Map<String, String> rawBrands = new LinkedHashMap<>(); // distinct raw brand names, catalog order
+
+        for (CarModel car : models) {
+            String brandKey = SlugCodec.key(car.brand());
+            String modelKey = SlugCodec.key(car.model());
+            modelsByBrand.computeIfAbsent(brandKey, k -> new HashMap<>()).putIfAbsent(modelKey, car);
+            listsByBrand.computeIfAbsent(brandKey, k -> new ArrayList<>()).add(car);
+            byModelName.putIfAbsent(modelKey, car);
+            if (car.brand() != null) {
+                rawBrands.putIfAbsent(car.brand(), car.brand());
+            }
+        }
+
+        Map<String, BrandEntry> brands = new HashMap<>();
+        for (var entry : modelsByBrand.entrySet()) {
+            List<CarModel> sorted = new ArrayList<>(listsByBrand.get(entry.getKey()));
+            sorted.sort((c1, c2) -> String.CASE_INSENSITIVE_ORDER.compare(c1.model(), c2.model()));
+            brands.put(entry.getKey(), new BrandEntry(Map.copyOf(entry.getValue()), List.copyOf(sorted)));
+        }
+
+        List<String> brandNames = rawBrands.keySet().stream()
+                .map(CatalogIndex::toTitleCase)
+                .sorted()
+                .toList();
+
+        return new CatalogIndex(models, Collections.unmodifiableMap(brands), Collections.unmodifiableMap(byModelName),
+                brandNames);
+    }
+
+    public Optional<CarModel> findByBrandAndModel(String brandSlug, String modelSlug) {
+        BrandEntry entry = brands.get(SlugCodec.key(brandSlug));
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.byModel().get(SlugCodec.key(modelSlug)));
+    }
+
+    public Optional<CarModel> findByModelName(String modelName) {
+        return Optional.ofNullable(byModelName.get(SlugCodec.key(modelName)));
+    }
+
+    public List<CarModel> modelsByBrand(String brandSlug) {
+        BrandEntry entry = brands.get(SlugCodec.key(brandSlug));
+        return entry == null ? List.of() : entry.sortedModels();
+    }
+
+    public List<String> brandNames() {
+        return brandNames;
+    }
+
+    public List<CarModel> allModels() {
+        return models;
+    }
+
+    public int size() {
+        return models.size();
+    }
+
+    private static String toTitleCase(String input) {
+        if (input == null || input.isEmpty())
+            return input;
+
+        // Handle special cases
+        if (input.equalsIgnoreCase("BMW") || input.equalsIgnoreCase("GMC"))
+            return input.toUpperCase();
+        if (input.equalsIgnoreCase("VW") || input.equalsIgnoreCase("Volkswagen"))
+            return "Volkswagen";
+
+        String[] words = input.toLowerCase().split("[\\s-_]");
+        StringBuilder sb = new StringBuilder();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                if (sb.length() > 0)
+                    sb.append(" ");
+                sb.append(Character.toUpperCase(word.charAt(0)));
+                sb.append(word.substring(1));
+            }
+        }
+        return sb.toString();
+    }
+
+    private record BrandEntry(Map<String, CarModel> byModel, List<CarModel> sortedModels) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.data.CarBrandData;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the data files into a {@link DatasetSnapshot}.
+ * Files come from an external directory when one is given; any file missing there falls back
+ * to the copy bundled under {@code /data} on the classpath, so a directory may override only
+ * the files that changed.
+ */
+public class DatasetLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetLoader.class);
+
+    public static final String CAR_MODELS = "car_models.json";
+    public static final String RELIABILITY = "model_reliability.json";
+    public static final String MARKET = "model_market.json";
+    public static final String FAULTS = "major_faults.json";
+    public static final String BRANDS = "car_brands.json";
+    public static final String FAULT_REFERENCES = "fault_references.json";
+
+    /** Every file that makes up a dataset version, in fingerprint order. */
+    public static final List<String> FILES = List.of(CAR_MODELS, RELIABILITY, MARKET, FAULTS, BRANDS,
+            FAULT_REFERENCES);
+
+    private final ObjectMapper objectMapper;
+
+    public DatasetLoader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Blank or null configuration value = not configured. */
+    public static Path toPath(String configured) {
+        return configured == null || configured.isBlank() ? null : Path.of(configured.trim());
+    }
+
+    /** Loads the bundled classpath dataset. Missing or unreadable files load as empty. */
+    public DatasetSnapshot loadClasspath() {
+        try {
+            return load(null);
+        } catch (IOException e) {
+            // Unreachable in practice: classpath reads are already lenient per file
+            throw new IllegalStateException("Failed to load bundled dataset", e);
+        }
+    }
+
+    /**
+     * Loads a dataset from {@code dataDir} (null = classpath only).
+     * Files in the external directory must parse; a malformed file fails the whole load.
+     */
+    public DatasetSnapshot load(Path dataDir) throws IOException {
+        long start = System.nanoTime();
+        String source = dataDir == null ? "classpath" : dataDir.toAbsolutePath().toString();
+
+        // Raw bytes first: the version is a fingerprint of exactly what was read
+        Map<String, byte[]> raw = new LinkedHashMap<>();
+        MessageDigest digest = sha256();
+        for (String name : FILES) {
+            byte[] bytes = readBytes(dataDir, name);
+            if (bytes != null) {
+                raw.put(name, bytes);
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes);
+            }
+        }
+        String version = HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+
+        boolean strict = dataDir != null;
+        List<CarModel> carModels = parse(raw, CAR_MODELS, strict, new TypeReference<>() {
+        }, List.of());
+        List<ModelReliability> reliability = parse(raw, RELIABILITY, strict, new TypeReference<>() {
+        }, List.of());
+        List<ModelMarket> market = parse(raw, MARKET, strict, new TypeReference<>() {
+        }, List.of());
+        List<MajorFaults> faults = parse(raw, FAULTS, strict, new TypeReference<>() {
+        }, List.of());
+        Map<String, CarBrandData> brands = parse(raw, BRANDS, strict, new TypeReference<>() {
+        }, Map.of());
+        JsonNode references = parse(raw, FAULT_REFERENCES, strict, new TypeReference<>() {
+        }, null);
+
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        return new DatasetSnapshot(version, source, Instant.now(), loadMillis,
+                carModels, reliability, market, faults, brands, references);
+    }
+
+    /**
+     * Structural and referential checks a snapshot must pass before it may replace the live one.
+     * Returns human-readable problems; empty means valid.
+     */
+    public static List<String> validate(DatasetSnapshot snapshot) {
+        List<String> problems = new ArrayList<>();
+        if (snapshot.carModels().isEmpty()) {
+            problems.add(CAR_MODELS + " has no models");
+        }
+        if (snapshot.brandData().isEmpty()) {
+            problems.add(BRANDS + " has no brands");
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (CarModel car : snapshot.carModels()) {
+            if (isBlank(car.id()) || isBlank(car.brand()) || isBlank(car.model())) {
+                problems.add("Model with missing id/brand/model: " + car);
+            } else if (!ids.add(car.id())) {
+                problems.add("Duplicate model id: " + car.id());
+            } else if (car.segment() == null) {
+                problems.add("Model without a segment: " + car.id());
+            }
+        }
+
+        snapshot.reliabilityMap().values().forEach(r -> {
+            if (!ids.contains(r.modelId()))
+                problems.add(RELIABILITY + " references unknown model " + r.modelId());
+            else if (r.lifespanMiles() <= 0)
+                problems.add(RELIABILITY + " has non-positive lifespan for " + r.modelId());
+        });
+        snapshot.marketMap().values().forEach(m -> {
+            if (!ids.contains(m.modelId()))
+                problems.add(MARKET + " references unknown model " + m.modelId());
+            else if (m.jan2026AvgPrice() <= 0 || m.depreciationRate() < 0)
+                problems.add(MARKET + " has invalid price/depreciation for " + m.modelId());
+        });
+        snapshot.faultsMap().values().forEach(f -> {
+            if (!ids.contains(f.modelIdRef()))
+                problems.add(FAULTS + " references unknown model " + f.modelIdRef());
+            else if (f.faults() != null && f.faults().stream().anyMatch(x -> x.repairCost() < 0))
+                problems.add(FAULTS + " has a negative repair cost for " + f.modelIdRef());
+        });
+        return problems;
+    }
+
+    /** External file if present, else the bundled copy; null when neither exists. */
+    private byte[] readBytes(Path dataDir, String name) throws IOException {
+        if (dataDir != null) {
+            Path file = dataDir.resolve(name);
+            if (Files.isRegularFile(file)) {
+                return Files.readAllBytes(file);
+            }
+        }
+        String path = "/data/" + name;
+        try (InputStream stream = DatasetLoader.class.getResourceAsStream(path)) {
+            return stream == null ? null : stream.readAllBytes();
+        } catch (IOException e) {
+            logger.error("Failed to load {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses one file. Bundled files stay lenient (log and fall back, as before); files from an
+     * external directory must parse, so a half-written upload never replaces good data.
+     */
+    private <T> T parse(Map<String, byte[]> raw, String name, boolean strict, TypeReference<T> type, T fallback)
+            throws IOException {
+        byte[] bytes = raw.get(name);
+        if (bytes == null) {
+            return fallback;
+        }
+        try {
+            T value = objectMapper.readValue(bytes, type);
+            return value == null ? fallback : value;
+        } catch (IOException e) {
+            if (strict) {
+                throw new IOException("Failed to parse " + name + ": " + e.getMessage(), e);
+            }
+            logger.error("Failed to load /data/{}", name, e);
+            return fallback;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -0,0 +1,230 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.DatasetSnapshot.RecordCounts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot reload of the dataset from an optional external directory ({@code app.data.dir}).
+ *
+ * {@link CarDataService} already starts on that directory's data. Watching begins once the application is ready,
+ * when every {@link DatasetReloadedEvent} listener is registered, so no reload can go unannounced.
+ *
+ * A daemon thread watches the directory; after a burst of file events settles it builds and validates
+ * a complete new snapshot on that thread, then publishes it with a single reference swap in
+ * {@link CarDataService}. Invalid or unparseable data is rejected and the live version keeps serving.
+ * Without {@code app.data.dir} the bundled classpath data is used and nothing is watched.
+ */
+@Service
+public class DatasetReloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetReloadService.class);
+
+    private final CarDataService carDataService;
+    private final DatasetLoader loader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path dataDir; // null = hot reload disabled
+    private final long debounceMillis;
+
+    private volatile ReloadReport lastReport;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public DatasetReloadService(CarDataService carDataService, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.data.dir:}") String dataDir,
+            @Value("${app.data.reloadDebounceMs:750}") long debounceMillis) {
+        this.carDataService = carDataService;
+        this.loader = new DatasetLoader(objectMapper);
+        this.eventPublisher = eventPublisher;
+        this.dataDir = DatasetLoader.toPath(dataDir);
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (dataDir == null || watcher != null) {
+            return;
+        }
+        if (!Files.isDirectory(dataDir)) {
+            logger.warn("app.data.dir {} is not a directory; serving bundled dataset", dataDir);
+            return;
+        }
+
+        // Catch up with anything changed since CarDataService loaded, then follow changes in the background
+        reload("startup");
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dataDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.error("Cannot watch {}; dataset hot reload disabled", dataDir, e);
+            return;
+        }
+        watcher = new Thread(this::watchLoop, "dataset-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} for dataset changes", dataDir);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing dataset watcher", e);
+            }
+        }
+    }
+
+    public boolean isWatching() {
+        return watcher != null && watcher.isAlive();
+    }
+
+    public Path getDataDir() {
+        return dataDir;
+    }
+
+    /** Outcome of the most recent reload attempt, or null if none has run. */
+    public ReloadReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Builds a snapshot from the external directory and publishes it if it is valid and differs
+     * from the live version. Runs on the calling thread; serialized so two reloads never interleave.
+     */
+    public synchronized ReloadReport reload(String trigger) {
+        DatasetSnapshot current = carDataService.snapshot();
+        if (dataDir == null) {
+            return record(ReloadReport.of(trigger, Outcome.UNCHANGED, current, current, 0,
+                    List.of("app.data.dir is not set")));
+        }
+
+        DatasetSnapshot candidate;
+        try {
+            candidate = loader.load(dataDir);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Dataset reload from {} failed; keeping version {}", dataDir, current.version(), e);
+            return record(ReloadReport.of(trigger, Outcome.REJECTED, current, null, 0,
+                    List.of(String.valueOf(e.getMessage()))));
+        }
+
+        List<String> problems = DatasetLoader.validate(candidate);
+        if (!problems.isEmpty()) {
+            logger.warn("Dataset from {} rejected; keeping version {}. Problems: {}",
+                    dataDir, current.version(), problems);
+            return record(ReloadReport.of(trigger, Outcome.REJECTED, current, candidate, candidate.loadMillis(),
+                    problems));
+        }
+
+        if (candidate.version().equals(current.version())) {
+            return record(ReloadReport.of(trigger, Outcome.UNCHANGED, current, candidate, candidate.loadMillis(),
+                    List.of()));
+        }
+
+        DatasetSnapshot previous = carDataService.publish(candidate);
+        eventPublisher.publishEvent(new DatasetReloadedEvent(previous, candidate));
+
+        ReloadReport report = ReloadReport.of(trigger, Outcome.PUBLISHED, previous, candidate,
+                candidate.loadMillis(), List.of());
+        logger.info("Dataset {} -> {} ({}) loaded in {} ms; records {} -> {}", report.previousVersion(),
+                report.version(), trigger, report.loadMillis(), report.previousCounts(), report.counts());
+        return record(report);
+    }
+
+    private ReloadReport record(ReloadReport report) {
+        lastReport = report;
+        return report;
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = drain(key);
+
+                // Editors and deploy scripts touch several files in a row; wait for the burst to settle
+                WatchKey next;
+                while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(next);
+                }
+
+                if (relevant) {
+                    reload("watch");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutdown
+        } catch (RuntimeException e) {
+            logger.error("Dataset watcher stopped unexpectedly", e);
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (event.context() instanceof Path changed
+                    && DatasetLoader.FILES.contains(changed.getFileName().toString())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    public enum Outcome {
+        PUBLISHED, UNCHANGED, REJECTED
+    }
+
+    public record ReloadReport(
+            String trigger,
+            Outcome outcome,
+            String previousVersion,
+            String version,
+            long loadMillis,
+            RecordCounts previousCounts,
+            RecordCounts counts,
+            List<String> problems,
+            Instant at) {
+
+        static ReloadReport of(String trigger, Outcome outcome, DatasetSnapshot previous, DatasetSnapshot next,
+                long loadMillis, List<String> problems) {
+            return new ReloadReport(
+                    trigger,
+                    outcome,
+                    previous != null ? previous.version() : null,
+                    next != null ? next.version() : null,
+                    loadMillis,
+                    previous != null ? previous.counts() : null,
+                    next != null ? next.counts() : null,
+                    List.copyOf(problems),
+                    Instant.now());
+        }
+    }
+}
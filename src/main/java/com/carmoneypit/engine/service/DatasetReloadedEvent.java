@@ -0,0 +1,8 @@
+package com.carmoneypit.engine.service;
+
+/**
+ * Published after a new {@link DatasetSnapshot} has been swapped in.
+ * Listeners rebuild whatever they derive from the data (hub indexes, caches, precomputed tables).
+ */
+public record DatasetReloadedEvent(DatasetSnapshot previous, DatasetSnapshot current) {
+}
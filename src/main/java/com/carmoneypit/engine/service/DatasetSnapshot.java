@@ -0,0 +1,180 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.data.CarBrandData;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * One consistent, immutable version of every data file plus the indexes derived from it.
+ * A snapshot is fully built before it is published, and readers never see a half-loaded state:
+ * {@link CarDataService} swaps the whole object in a single volatile write.
+ *
+ * Indexes owned by other services (fault hubs, similar models, replacements, the verdict table) hang off the
+ * snapshot through {@link #derived}, so whoever reads a snapshot also reads the indexes built from it.
+ */
+public final class DatasetSnapshot {
+
+    private final String version;
+    private final String source;
+    private final Instant loadedAt;
+    private final long loadMillis;
+
+    private final List<CarModel> carModels;
+    private final CatalogIndex catalogIndex;
+    private final Map<String, ModelReliability> reliabilityMap;
+    private final Map<String, MileageProfile> mileageProfiles; // Key: model_id
+    private final Map<String, ModelMarket> marketMap;
+    private final Map<String, MajorFaults> faultsMap; // Key: model_id_ref
+    private final FaultRollup faultRollup;
+    private final FaultCostSketches faultCostSketches;
+    private final Map<String, CarBrandData> brandData; // Key: brand key (e.g. LAND_ROVER)
+    private final JsonNode faultReferences;
+
+    private final Map<Object, Derived<?>> derived = new ConcurrentHashMap<>(); // Key: owning service
+
+    DatasetSnapshot(String version, String source, Instant loadedAt, long loadMillis,
+            List<CarModel> carModels, List<ModelReliability> reliability, List<ModelMarket> market,
+            List<MajorFaults> faults, Map<String, CarBrandData> brandData, JsonNode faultReferences) {
+        this.version = version;
+        this.source = source;
+        this.loadedAt = loadedAt;
+        this.loadMillis = loadMillis;
+        this.carModels = List.copyOf(carModels);
+        this.catalogIndex = CatalogIndex.build(this.carModels);
+        this.reliabilityMap = index(reliability, ModelReliability::modelId);
+        this.mileageProfiles = profiles(this.reliabilityMap);
+        this.marketMap = index(market, ModelMarket::modelId);
+        this.faultsMap = index(faults, MajorFaults::modelIdRef);
+        this.faultRollup = FaultRollup.build(this.carModels, this.faultsMap);
+        this.faultCostSketches = FaultCostSketches.build(this.carModels, this.faultsMap);
+        this.brandData = brandData == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(brandData));
+        this.faultReferences = faultReferences;
+    }
+
+    private static <T> Map<String, T> index(List<T> rows, Function<T, String> key) {
+        Map<String, T> map = new LinkedHashMap<>();
+        for (T row : rows) {
+            String k = key.apply(row);
+            if (k != null) {
+                map.putIfAbsent(k, row);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static Map<String, MileageProfile> profiles(Map<String, ModelReliability> reliability) {
+        Map<String, MileageProfile> map = new HashMap<>();
+        reliability.forEach((modelId, row) -> map.put(modelId, MileageProfile.of(row)));
+        return Collections.unmodifiableMap(map);
+    }
+
+    /** Short content fingerprint of the source files; changes whenever any file changes. */
+    public String version() {
+        return version;
+    }
+
+    /** "classpath" or the external directory the files were read from. */
+    public String source() {
+        return source;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public long loadMillis() {
+        return loadMillis;
+    }
+
+    public List<CarModel> carModels() {
+        return carModels;
+    }
+
+    public CatalogIndex catalogIndex() {
+        return catalogIndex;
+    }
+
+    public Map<String, ModelReliability> reliabilityMap() {
+        return reliabilityMap;
+    }
+
+    /** Pre-parsed mileage text, milestones and year quality per model_id. */
+    public Map<String, MileageProfile> mileageProfiles() {
+        return mileageProfiles;
+    }
+
+    public Map<String, ModelMarket> marketMap() {
+        return marketMap;
+    }
+
+    public Map<String, MajorFaults> faultsMap() {
+        return faultsMap;
+    }
+
+    /** Repair cost aggregates by brand, component, generation and failure mileage. */
+    public FaultRollup faultRollup() {
+        return faultRollup;
+    }
+
+    /** Repair cost quantiles per fault component, across every model reporting it. */
+    public FaultCostSketches faultCostSketches() {
+        return faultCostSketches;
+    }
+
+    public Map<String, CarBrandData> brandData() {
+        return brandData;
+    }
+
+    /** Raw fault_references.json tree (hub slug → sources), or null when absent. */
+    public JsonNode faultReferences() {
+        return faultReferences;
+    }
+
+    /**
+     * The index {@code owner} derives from this snapshot, built with {@code builder} on first use and kept for
+     * the snapshot's lifetime. Concurrent first calls build it once; other owners' indexes are not blocked.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derived(Object owner, Function<DatasetSnapshot, T> builder) {
+        Derived<T> slot = (Derived<T>) derived.computeIfAbsent(owner, k -> new Derived<>());
+        return slot.get(this, builder);
+    }
+
+    private static final class Derived<T> {
+        private volatile T value;
+
+        T get(DatasetSnapshot snapshot, Function<DatasetSnapshot, T> builder) {
+            T built = value;
+            if (built == null) {
+                synchronized (this) {
+                    built = value;
+                    if (built == null) {
+                        built = builder.apply(snapshot);
+                        value = built;
+                    }
+                }
+            }
+            return built;
+        }
+    }
+
+    public RecordCounts counts() {
+        return new RecordCounts(carModels.size(), reliabilityMap.size(), marketMap.size(), faultsMap.size(),
+                brandData.size());
+    }
+
+    public record RecordCounts(int models, int reliability, int market, int faults, int brands) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repair cost distribution per fault component (hub slug), across every model that reports it, built once per load.
+ *
+ * Each reported fault is a triangular distribution over its quoted range, peaking at the point estimate; faults
+ * without a range get the same fallback spread the Monte Carlo mode uses. A component's peers are mixed with equal
+ * weight and the mixture is kept as {@value #POINTS} evenly spaced quantiles, so ranking a quote is a binary
+ * search over a few dozen doubles.
+ */
+public final class FaultCostSketches {
+
+    static final int POINTS = 33; // quantiles 0, 1/32, ..., 1
+    private static final int SAMPLES_PER_FAULT = 16;
+
+    // Spread of a fault's cost when the source gives no range (triangular, mode = 1)
+    private static final double COST_SPREAD_LOW = 0.75;
+    private static final double COST_SPREAD_HIGH = 1.25;
+
+    public static final FaultCostSketches EMPTY = build(List.of(), Map.of());
+
+    private final Map<String, Sketch> sketches; // Key: hub slug
+
+    private FaultCostSketches(Map<String, Sketch> sketches) {
+        this.sketches = sketches;
+    }
+
+    public static FaultCostSketches build(List<CarModel> carModels, Map<String, MajorFaults> faultsMap) {
+        Map<String, List<Fault>> bySlug = new HashMap<>();
+        for (CarModel car : carModels) {
+            MajorFaults faults = faultsMap.get(car.id());
+            if (faults == null || faults.faults() == null) {
+                continue;
+            }
+            for (Fault fault : faults.faults()) {
+                String slug = FaultHubService.normalizeToSlug(fault.component());
+                if (!slug.isEmpty() && fault.repairCost() > 0) {
+                    bySlug.computeIfAbsent(slug, k -> new ArrayList<>()).add(fault);
+                }
+            }
+        }
+
+        Map<String, Sketch> sketches = new HashMap<>();
+        bySlug.forEach((slug, faults) -> sketches.put(slug, sketch(faults)));
+        return new FaultCostSketches(Map.copyOf(sketches));
+    }
+
+    public Optional<Sketch> sketch(String slug) {
+        return Optional.ofNullable(sketches.get(slug));
+    }
+
+    private static Sketch sketch(List<Fault> faults) {
+        double[] samples = new double[faults.size() * SAMPLES_PER_FAULT];
+        int n = 0;
+        for (Fault fault : faults) {
+            boolean ranged = fault.repairCostLow() < fault.repairCostHigh();
+            double low = ranged ? fault.repairCostLow() : fault.repairCost() * COST_SPREAD_LOW;
+            double high = ranged ? fault.repairCostHigh() : fault.repairCost() * COST_SPREAD_HIGH;
+            for (int j = 0; j < SAMPLES_PER_FAULT; j++) {
+                samples[n++] = triangularQuantile((j + 0.5) / SAMPLES_PER_FAULT, low, fault.repairCost(), high);
+            }
+        }
+        Arrays.sort(samples);
+
+        double[] quantiles = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            double position = (double) i / (POINTS - 1) * (samples.length - 1);
+            int below = (int) position;
+            int above = Math.min(below + 1, samples.length - 1);
+            quantiles[i] = samples[below] + (samples[above] - samples[below]) * (position - below);
+        }
+        return new Sketch(quantiles, faults.size());
+    }
+
+    /** Inverse CDF of the triangular distribution on [low, high] peaking at mode. */
+    static double triangularQuantile(double u, double low, double mode, double high) {
+        if (high <= low) {
+            return mode;
+        }
+        double split = (mode - low) / (high - low);
+        return u < split
+                ? low + Math.sqrt(u * (high - low) * (mode - low))
+                : high - Math.sqrt((1 - u) * (high - low) * (high - mode));
+    }
+
+    /** One component's cost distribution as {@link #POINTS} ascending quantiles. */
+    public static final class Sketch {
+
+        private final double[] quantiles;
+        private final int faults;
+
+        private Sketch(double[] quantiles, int faults) {
+            this.quantiles = quantiles;
+            this.faults = faults;
+        }
+
+        /** Number of reported faults (model × component) mixed into the sketch. */
+        public int faults() {
+            return faults;
+        }
+
+        /** Cost at quantile {@code q} in [0, 1]. */
+        public double quantile(double q) {
+            double position = Math.max(0, Math.min(1, q)) * (POINTS - 1);
+            int below = (int) position;
+            int above = Math.min(below + 1, POINTS - 1);
+            return quantiles[below] + (quantiles[above] - quantiles[below]) * (position - below);
+        }
+
+        /** Share of the distribution at or below {@code cost}, 0 to 100. */
+        public double percentile(double cost) {
+            if (cost < quantiles[0]) {
+                return 0;
+            }
+            if (cost >= quantiles[POINTS - 1]) {
+                return 100;
+            }
+            // Last quantile at or below the cost
+            int lo = 0;
+            int hi = POINTS - 1;
+            while (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                if (quantiles[mid] <= cost) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            double span = quantiles[hi] - quantiles[lo];
+            double within = span > 0 ? (cost - quantiles[lo]) / span : 0;
+            return 100.0 * (lo + within) / (POINTS - 1);
+        }
+    }
+}
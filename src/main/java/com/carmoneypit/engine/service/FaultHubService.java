@@ -7,13 +7,15 @@ import com.carmoneypit.engine.web.FaultHubViewModel;
 import com.carmoneypit.engine.web.FaultHubViewModel.AffectedModel;
 import com.carmoneypit.engine.web.FaultHubViewModel.ReferenceSource;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,7 +23,7 @@ public class FaultHubService {
 
         private static final Logger log = LoggerFactory.getLogger(FaultHubService.class);
 
-        // Immutable allowed slugs — the ONLY hubs that will ever render
+        // Curated hubs with hand-written names and FAQs; they always render, even with no affected models
         public static final Set<String> ALLOWED_SLUGS = Set.of(
                         "cvt-transmission",
                         "timing-chain",
@@ -36,96 +38,169 @@ public class FaultHubService {
                         "torque-converter", "Torque Converter Shudder",
                         "air-suspension", "Air Suspension Failure");
 
+        // Component names repeat across models and pages; the mapping never changes
+        private static final int SLUG_CACHE_LIMIT = 4096;
+        private static final Map<String, String> SLUG_CACHE = new ConcurrentHashMap<>();
+
+        private static final Map<String, List<FaultHubViewModel.FaqItem>> FAQ_ITEMS = ALLOWED_SLUGS.stream()
+                        .collect(Collectors.toUnmodifiableMap(slug -> slug, FaultHubService::generateFaqItems));
+
+        // Any other component gets a hub once it affects this many models
+        public static final int DEFAULT_MIN_MODELS = 3;
+
         private final CarDataService carDataService;
-        private final Map<String, List<ReferenceSource>> referencesMap;
+        private final int minModels;
+
+        public FaultHubService(CarDataService carDataService) {
+                this(carDataService, DEFAULT_MIN_MODELS);
+        }
 
-        public FaultHubService(CarDataService carDataService, ObjectMapper objectMapper) {
+        @Autowired
+        public FaultHubService(CarDataService carDataService,
+                        @Value("${app.faultHubs.minModels:" + DEFAULT_MIN_MODELS + "}") int minModels) {
                 this.carDataService = carDataService;
-                this.referencesMap = loadReferences(objectMapper);
+                this.minModels = Math.max(1, minModels);
+                index();
+        }
+
+        /** Builds the new dataset's index right away instead of on the first page view. */
+        @EventListener
+        public void onDatasetReloaded(DatasetReloadedEvent event) {
+                HubIndex rebuilt = event.current().derived(this, this::buildIndex);
+                log.info("Fault hub index rebuilt for dataset {} ({} hubs)", event.current().version(),
+                                rebuilt.hubs().size());
         }
 
         /**
          * Returns a fully populated hub view model, or empty if slug is invalid.
          */
         public Optional<FaultHubViewModel> getHub(String slug) {
-                if (!ALLOWED_SLUGS.contains(slug)) {
-                        return Optional.empty();
-                }
-
-                String displayName = SLUG_DISPLAY_NAMES.getOrDefault(slug, slug);
-                List<AffectedModel> affectedModels = aggregateModels(slug);
-
-                // Sort: occurrence_rate desc, then avg_failure_mileage asc
-                affectedModels.sort(Comparator
-                                .comparingDouble(AffectedModel::occurrenceRate).reversed()
-                                .thenComparing(AffectedModel::avgFailureMileage));
-
-                List<ReferenceSource> references = referencesMap.getOrDefault(slug, List.of());
-
-                return Optional.of(new FaultHubViewModel(
-                                slug,
-                                displayName,
-                                generateQuickAnswer(slug, affectedModels),
-                                affectedModels,
-                                references,
-                                generateFaqItems(slug)));
+                return Optional.ofNullable(index().hubs().get(slug));
         }
 
         /**
-         * Returns summary data for all 5 hubs (for the directory page).
+         * Returns summary data for every hub, by slug (for the directory page).
          */
         public List<FaultHubViewModel> getAllHubSummaries() {
-                return ALLOWED_SLUGS.stream()
-                                .sorted()
-                                .map(this::getHub)
-                                .filter(Optional::isPresent)
-                                .map(Optional::get)
-                                .collect(Collectors.toList());
+                return index().summaries();
+        }
+
+        /**
+         * Slugs of every hub in the current dataset, sorted: the curated ones plus any component
+         * affecting at least {@code app.faultHubs.minModels} models.
+         */
+        public List<String> getHubSlugs() {
+                return index().slugs();
         }
 
         /**
          * Returns the top N fault hub slugs relevant to a given model ID.
          */
         public List<String> getRelevantHubSlugs(String modelId, int maxLinks) {
-                Optional<MajorFaults> faultsOpt = carDataService.findFaultsByModelId(modelId);
-                if (faultsOpt.isEmpty())
-                        return List.of();
-
-                return faultsOpt.get().faults().stream()
-                                .map(f -> normalizeToSlug(f.component()))
-                                .filter(ALLOWED_SLUGS::contains)
-                                .distinct()
-                                .limit(maxLinks)
-                                .collect(Collectors.toList());
+                List<String> slugs = index().slugsByModel().getOrDefault(modelId, List.of());
+                return slugs.size() <= maxLinks ? slugs : slugs.subList(0, Math.max(0, maxLinks));
         }
 
-        // --- Aggregation Logic ---
+        // --- Index Building (once per dataset version) ---
+
+        /** Hub index of the dataset being served; cached on its snapshot, so a page never mixes two versions. */
+        private HubIndex index() {
+                return carDataService.snapshot().derived(this, this::buildIndex);
+        }
 
-        private List<AffectedModel> aggregateModels(String targetSlug) {
-                List<AffectedModel> result = new ArrayList<>();
-                List<CarModel> allModels = carDataService.getAllModels();
+        private HubIndex buildIndex(DatasetSnapshot snapshot) {
+                Map<String, List<ReferenceSource>> references = loadReferences(snapshot);
 
-                for (CarModel car : allModels) {
-                        Optional<MajorFaults> faultsOpt = carDataService.findFaultsByModelId(car.id());
-                        if (faultsOpt.isEmpty())
+                // One pass over every fault: affected models, distinct model ids and component names per slug
+                Map<String, List<AffectedModel>> affectedBySlug = new HashMap<>();
+                Map<String, Set<String>> modelIdsBySlug = new HashMap<>();
+                Map<String, Map<String, Integer>> namesBySlug = new HashMap<>();
+                Map<String, List<String>> slugsByModel = new HashMap<>();
+                for (CarModel car : snapshot.carModels()) {
+                        MajorFaults faults = snapshot.faultsMap().get(car.id());
+                        if (faults == null || faults.faults() == null)
                                 continue;
 
-                        for (Fault fault : faultsOpt.get().faults()) {
+                        List<String> modelSlugs = new ArrayList<>();
+                        for (Fault fault : faults.faults()) {
                                 String faultSlug = normalizeToSlug(fault.component());
-                                if (targetSlug.equals(faultSlug)) {
-                                        result.add(new AffectedModel(
-                                                        car.brand(),
-                                                        car.model(),
-                                                        car.generation(),
-                                                        fault.repairCost(),
-                                                        fault.occurrenceRate(),
-                                                        fault.avgFailureMileage(),
-                                                        fault.symptoms(),
-                                                        fault.verdictImplication()));
-                                }
+                                if (faultSlug.isEmpty())
+                                        continue;
+                                if (!modelSlugs.contains(faultSlug))
+                                        modelSlugs.add(faultSlug);
+                                modelIdsBySlug.computeIfAbsent(faultSlug, k -> new HashSet<>()).add(car.id());
+                                namesBySlug.computeIfAbsent(faultSlug, k -> new HashMap<>())
+                                                .merge(fault.component(), 1, Integer::sum);
+                                affectedBySlug.computeIfAbsent(faultSlug, k -> new ArrayList<>()).add(new AffectedModel(
+                                                car.brand(),
+                                                car.model(),
+                                                car.generation(),
+                                                fault.repairCost(),
+                                                fault.occurrenceRate(),
+                                                fault.avgFailureMileage(),
+                                                fault.symptoms(),
+                                                fault.verdictImplication()));
                         }
+                        if (!modelSlugs.isEmpty())
+                                slugsByModel.putIfAbsent(car.id(), List.copyOf(modelSlugs));
                 }
-                return result;
+
+                Set<String> hubSlugs = new TreeSet<>(ALLOWED_SLUGS);
+                modelIdsBySlug.forEach((slug, ids) -> {
+                        if (ids.size() >= minModels)
+                                hubSlugs.add(slug);
+                });
+
+                FaultRollup rollup = snapshot.faultRollup();
+                Map<String, FaultHubViewModel> hubs = new HashMap<>();
+                for (String slug : hubSlugs) {
+                        List<AffectedModel> affectedModels = affectedBySlug.getOrDefault(slug, new ArrayList<>());
+
+                        // Sort: occurrence_rate desc, then avg_failure_mileage asc
+                        affectedModels.sort(Comparator
+                                        .comparingDouble(AffectedModel::occurrenceRate).reversed()
+                                        .thenComparing(AffectedModel::avgFailureMileage));
+
+                        hubs.put(slug, new FaultHubViewModel(
+                                        slug,
+                                        SLUG_DISPLAY_NAMES.getOrDefault(slug,
+                                                        mostCommonName(namesBySlug.get(slug), slug)),
+                                        generateQuickAnswer(rollup.get(null, slug, null, FaultRollup.ALL_BUCKETS)),
+                                        List.copyOf(affectedModels),
+                                        references.getOrDefault(slug, List.of()),
+                                        FAQ_ITEMS.getOrDefault(slug, List.of())));
+                }
+
+                List<String> slugs = List.copyOf(hubSlugs);
+                List<FaultHubViewModel> summaries = slugs.stream().map(hubs::get).toList();
+
+                // Models only link to hubs that exist
+                Map<String, List<String>> hubSlugsByModel = new HashMap<>();
+                slugsByModel.forEach((modelId, modelSlugs) -> {
+                        List<String> linked = modelSlugs.stream().filter(hubs::containsKey).toList();
+                        if (!linked.isEmpty())
+                                hubSlugsByModel.put(modelId, linked);
+                });
+
+                return new HubIndex(Map.copyOf(hubs), summaries, slugs, Map.copyOf(hubSlugsByModel));
+        }
+
+        /** Display name for a data-driven hub: the component name used most often, alphabetically first on ties. */
+        private static String mostCommonName(Map<String, Integer> names, String slug) {
+                if (names == null || names.isEmpty())
+                        return slug;
+                return names.entrySet().stream()
+                                .min(Map.Entry.<String, Integer>comparingByValue().reversed()
+                                                .thenComparing(Map.Entry.comparingByKey()))
+                                .map(Map.Entry::getKey)
+                                .orElse(slug);
+        }
+
+        private record HubIndex(
+                        Map<String, FaultHubViewModel> hubs,
+                        List<FaultHubViewModel> summaries,
+                        List<String> slugs,
+                        Map<String, List<String>> slugsByModel) {
         }
 
         /**
@@ -135,6 +210,17 @@ public class FaultHubService {
         public static String normalizeToSlug(String component) {
                 if (component == null)
                         return "";
+                String cached = SLUG_CACHE.get(component);
+                if (cached != null)
+                        return cached;
+
+                String slug = computeSlug(component);
+                if (SLUG_CACHE.size() < SLUG_CACHE_LIMIT)
+                        SLUG_CACHE.put(component, slug);
+                return slug;
+        }
+
+        private static String computeSlug(String component) {
                 String c = component.toLowerCase();
 
                 if (c.contains("cvt"))
@@ -150,20 +236,17 @@ public class FaultHubService {
                         return "air-suspension";
 
                 // Not a hub-worthy fault
-                return c.replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+                return SlugCodec.slug(c);
         }
 
         // --- Content Generation (deterministic, dataset-only) ---
 
-        private String generateQuickAnswer(String slug, List<AffectedModel> models) {
-                int modelCount = models.size();
+        private String generateQuickAnswer(FaultRollup.Cell faults) {
+                int modelCount = faults.count();
                 if (modelCount == 0)
                         return "Data not yet available for this fault.";
 
-                double avgCost = models.stream()
-                                .mapToDouble(AffectedModel::repairCost)
-                                .filter(c -> c > 0)
-                                .average().orElse(0);
+                double avgCost = faults.mean();
 
                 String costRange = avgCost > 0
                                 ? String.format("$%,.0f", avgCost * 0.7) + "–" + String.format("$%,.0f", avgCost * 1.3)
@@ -176,7 +259,7 @@ public class FaultHubService {
                                 modelCount, costRange);
         }
 
-        private List<FaultHubViewModel.FaqItem> generateFaqItems(String slug) {
+        private static List<FaultHubViewModel.FaqItem> generateFaqItems(String slug) {
                 return switch (slug) {
                         case "cvt-transmission" -> List.of(
                                         new FaultHubViewModel.FaqItem("What are common signs of CVT failure?",
@@ -231,15 +314,14 @@ public class FaultHubService {
 
         // --- Reference Loading ---
 
-        private Map<String, List<ReferenceSource>> loadReferences(ObjectMapper mapper) {
+        private Map<String, List<ReferenceSource>> loadReferences(DatasetSnapshot snapshot) {
                 Map<String, List<ReferenceSource>> result = new HashMap<>();
                 try {
-                        InputStream is = getClass().getResourceAsStream("/data/fault_references.json");
-                        if (is == null) {
+                        JsonNode root = snapshot.faultReferences();
+                        if (root == null) {
                                 log.warn("fault_references.json not found, references will be empty");
                                 return result;
                         }
-                        JsonNode root = mapper.readTree(is);
                         root.fieldNames().forEachRemaining(slug -> {
                                 JsonNode entry = root.get(slug);
                                 JsonNode sources = entry.get("sources");
@@ -253,7 +335,7 @@ public class FaultHubService {
                                                                                 : "",
                                                                 s.has("note") ? s.get("note").asText() : ""));
                                         }
-                                        result.put(slug, refs);
+                                        result.put(slug, List.copyOf(refs));
                                 }
                         });
                 } catch (Exception e) {
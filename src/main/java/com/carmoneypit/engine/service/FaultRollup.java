@@ -0,0 +1,233 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repair cost rollup over brand × component slug × generation × failure-mileage bucket, built once per load.
+ *
+ * Every fault record is added to all 16 roll-ups of its four coordinates, so a question like "all Toyota faults"
+ * or "timing chains on any brand under 100k miles" is a single cell. Dimensions are dictionary-encoded with code 0
+ * meaning "all", the four codes are packed into one long key, and cells live in parallel primitive arrays behind an
+ * open-addressing table: a query is a hash probe and never touches the fault records.
+ */
+public final class FaultRollup {
+
+    public static final int BUCKET_MILES = 50_000;
+    public static final int BUCKETS = 4; // under 50k, 50-100k, 100-150k, 150k+
+    /** Mileage bucket argument meaning "any mileage". */
+    public static final int ALL_BUCKETS = -1;
+
+    private static final long EMPTY_KEY = -1L;
+
+    public static final FaultRollup EMPTY = build(List.of(), Map.of());
+
+    private final Map<String, Integer> brands; // Key: normalized brand
+    private final Map<String, Integer> components; // Key: hub slug
+    private final Map<String, Integer> generations; // Key: normalized generation
+
+    private final long[] tableKeys;
+    private final int[] tableCells;
+
+    private final int[] count;
+    private final int[] pricedCount;
+    private final double[] sum;
+    private final double[] min;
+    private final double[] max;
+    private final double[] weightedSum;
+    private final double[] weight;
+
+    private FaultRollup(Map<String, Integer> brands, Map<String, Integer> components,
+            Map<String, Integer> generations, long[] tableKeys, int[] tableCells, int[] count, int[] pricedCount,
+            double[] sum, double[] min, double[] max, double[] weightedSum, double[] weight) {
+        this.brands = brands;
+        this.components = components;
+        this.generations = generations;
+        this.tableKeys = tableKeys;
+        this.tableCells = tableCells;
+        this.count = count;
+        this.pricedCount = pricedCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.weightedSum = weightedSum;
+        this.weight = weight;
+    }
+
+    public static FaultRollup build(List<CarModel> carModels, Map<String, MajorFaults> faultsMap) {
+        Map<String, Integer> brands = new HashMap<>();
+        Map<String, Integer> components = new HashMap<>();
+        Map<String, Integer> generations = new HashMap<>();
+
+        // Encode every fault record once; rolled-up keys are derived from these codes
+        int records = 0;
+        for (CarModel car : carModels) {
+            MajorFaults faults = faultsMap.get(car.id());
+            if (faults != null && faults.faults() != null) {
+                records += faults.faults().size();
+            }
+        }
+        int[][] codes = new int[records][4];
+        double[] costs = new double[records];
+        double[] rates = new double[records];
+        int r = 0;
+        for (CarModel car : carModels) {
+            MajorFaults faults = faultsMap.get(car.id());
+            if (faults == null || faults.faults() == null) {
+                continue;
+            }
+            int brand = encode(brands, SlugCodec.key(car.brand()));
+            int generation = encode(generations, SlugCodec.key(car.generation()));
+            for (Fault fault : faults.faults()) {
+                String slug = FaultHubService.normalizeToSlug(fault.component());
+                codes[r][0] = brand;
+                codes[r][1] = slug.isEmpty() ? 0 : encode(components, slug);
+                codes[r][2] = generation;
+                codes[r][3] = mileageBucket(fault.avgFailureMileage()) + 1;
+                costs[r] = fault.repairCost();
+                rates[r] = Math.min(1.0, Math.max(0, fault.occurrenceRate()));
+                r++;
+            }
+        }
+
+        // At most 16 cells per record; the table stays at most half full
+        int capacity = Integer.highestOneBit(Math.max(16, records * 32) - 1) << 1;
+        long[] tableKeys = new long[capacity];
+        int[] tableCells = new int[capacity];
+        Arrays.fill(tableKeys, EMPTY_KEY);
+
+        int maxCells = Math.max(1, records * 16);
+        int[] count = new int[maxCells];
+        int[] pricedCount = new int[maxCells];
+        double[] sum = new double[maxCells];
+        double[] min = new double[maxCells];
+        double[] max = new double[maxCells];
+        double[] weightedSum = new double[maxCells];
+        double[] weight = new double[maxCells];
+        int cells = 0;
+
+        for (int i = 0; i < records; i++) {
+            // A record without a brand, component or generation only rolls up along that dimension once
+            int known = (codes[i][0] != 0 ? 1 : 0) | (codes[i][1] != 0 ? 2 : 0) | (codes[i][2] != 0 ? 4 : 0) | 8;
+            for (int mask = 0; mask < 16; mask++) {
+                if ((mask & ~known) != 0) {
+                    continue;
+                }
+                long key = pack((mask & 1) != 0 ? 0 : codes[i][0], (mask & 2) != 0 ? 0 : codes[i][1],
+                        (mask & 4) != 0 ? 0 : codes[i][2], (mask & 8) != 0 ? 0 : codes[i][3]);
+                int slot = probe(tableKeys, key);
+                int cell;
+                if (tableKeys[slot] == EMPTY_KEY) {
+                    cell = cells++;
+                    tableKeys[slot] = key;
+                    tableCells[slot] = cell;
+                    min[cell] = Double.MAX_VALUE;
+                    max[cell] = 0;
+                } else {
+                    cell = tableCells[slot];
+                }
+                count[cell]++;
+                if (costs[i] > 0) {
+                    pricedCount[cell]++;
+                    sum[cell] += costs[i];
+                    min[cell] = Math.min(min[cell], costs[i]);
+                    max[cell] = Math.max(max[cell], costs[i]);
+                    weightedSum[cell] += costs[i] * rates[i];
+                    weight[cell] += rates[i];
+                }
+            }
+        }
+
+        return new FaultRollup(Map.copyOf(brands), Map.copyOf(components), Map.copyOf(generations), tableKeys,
+                tableCells, Arrays.copyOf(count, cells), Arrays.copyOf(pricedCount, cells), Arrays.copyOf(sum, cells),
+                Arrays.copyOf(min, cells), Arrays.copyOf(max, cells), Arrays.copyOf(weightedSum, cells),
+                Arrays.copyOf(weight, cells));
+    }
+
+    /** Bucket of a failure mileage, 0 to {@code BUCKETS - 1}; unknown (0) mileage falls in the first. */
+    public static int mileageBucket(long miles) {
+        return (int) Math.min(BUCKETS - 1, Math.max(0, miles) / BUCKET_MILES);
+    }
+
+    /**
+     * Repair cost aggregate for one cell. A null (or blank) brand, component slug or generation, and
+     * {@link #ALL_BUCKETS} for the mileage bucket, mean "all"; unknown values give {@link Cell#EMPTY}.
+     */
+    public Cell get(String brand, String componentSlug, String generation, int mileageBucket) {
+        int b = code(brands, brand == null ? null : SlugCodec.key(brand));
+        int c = code(components, componentSlug);
+        int g = code(generations, generation == null ? null : SlugCodec.key(generation));
+        int m = mileageBucket == ALL_BUCKETS ? 0 : mileageBucket + 1;
+        if (b < 0 || c < 0 || g < 0 || m < 0 || m > BUCKETS) {
+            return Cell.EMPTY;
+        }
+        int slot = probe(tableKeys, pack(b, c, g, m));
+        if (tableKeys[slot] == EMPTY_KEY) {
+            return Cell.EMPTY;
+        }
+        int cell = tableCells[slot];
+        int priced = pricedCount[cell];
+        return new Cell(count[cell], priced, sum[cell],
+                priced > 0 ? min[cell] : 0,
+                max[cell],
+                priced > 0 ? sum[cell] / priced : 0,
+                weight[cell] > 0 ? weightedSum[cell] / weight[cell] : 0);
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        return value == null || value.isEmpty() ? 0 : dictionary.computeIfAbsent(value, k -> dictionary.size() + 1);
+    }
+
+    /** 0 for "all", the value's code, or -1 when the value never occurs. */
+    private static int code(Map<String, Integer> dictionary, String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        return dictionary.getOrDefault(value, -1);
+    }
+
+    private static long pack(int brand, int component, int generation, int bucket) {
+        return ((long) brand << 48) | ((long) component << 32) | ((long) generation << 16) | bucket;
+    }
+
+    /** Slot holding {@code key}, or the empty slot where it would go (linear probing). */
+    private static int probe(long[] tableKeys, long key) {
+        int mask = tableKeys.length - 1;
+        int slot = (int) (mix(key) & mask);
+        while (tableKeys[slot] != EMPTY_KEY && tableKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * @param count        fault records in the cell
+     * @param pricedCount  records with a repair cost; the cost figures cover only these
+     * @param mean         plain average repair cost
+     * @param weightedMean repair cost averaged by occurrence rate
+     */
+    public record Cell(
+            int count,
+            int pricedCount,
+            double sum,
+            double min,
+            double max,
+            double mean,
+            double weightedMean) {
+
+        public static final Cell EMPTY = new Cell(0, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,261 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-model mileage and year index, built once per dataset version from {@link ModelReliability}.
+ *
+ * The string keys of {@code mileage_logic_text} are parsed once into a sorted {@code long[]},
+ * {@code critical_milestones} are sorted by mileage with a prefix sum of their estimated costs, and best/worst
+ * years become {@link BitSet}s. Every lookup is a binary search or bit scan over those arrays and allocates nothing;
+ * the spend on the milestones in any mileage window is two binary searches and a subtraction.
+ */
+public final class MileageProfile {
+
+    public static final MileageProfile EMPTY = new MileageProfile(new long[0], new String[0], new int[0], new int[0],
+            new long[1], List.of(), new BitSet(), new BitSet());
+
+    // mileage_logic_text, sorted by mileage; order[] is each key's position in the source map (ties go to the earlier)
+    private final long[] logicMileages;
+    private final String[] logicTexts;
+    private final int[] logicOrder;
+
+    // critical_milestones, sorted by mileage; costPrefix[i] is the estimated cost of the first i milestones
+    private final int[] milestoneMileages;
+    private final long[] milestoneCostPrefix;
+    private final List<Milestone> milestones;
+
+    private final BitSet bestYears;
+    private final BitSet worstYears;
+
+    private MileageProfile(long[] logicMileages, String[] logicTexts, int[] logicOrder, int[] milestoneMileages,
+            long[] milestoneCostPrefix, List<Milestone> milestones, BitSet bestYears, BitSet worstYears) {
+        this.logicMileages = logicMileages;
+        this.logicTexts = logicTexts;
+        this.logicOrder = logicOrder;
+        this.milestoneMileages = milestoneMileages;
+        this.milestoneCostPrefix = milestoneCostPrefix;
+        this.milestones = milestones;
+        this.bestYears = bestYears;
+        this.worstYears = worstYears;
+    }
+
+    public static MileageProfile of(ModelReliability reliability) {
+        if (reliability == null) {
+            return EMPTY;
+        }
+
+        // Mileage logic text: skip non-numeric keys, keep the first key when two parse to the same mileage
+        List<LogicEntry> entries = new ArrayList<>();
+        Map<String, String> logic = reliability.mileageLogicText();
+        if (logic != null) {
+            int position = 0;
+            for (Map.Entry<String, String> entry : logic.entrySet()) {
+                try {
+                    entries.add(new LogicEntry(Long.parseLong(entry.getKey()), position, entry.getValue()));
+                } catch (NumberFormatException ignored) {
+                }
+                position++;
+            }
+        }
+        entries.sort(Comparator.comparingLong(LogicEntry::mileage).thenComparingInt(LogicEntry::position));
+
+        int n = 0;
+        long[] mileages = new long[entries.size()];
+        String[] texts = new String[entries.size()];
+        int[] order = new int[entries.size()];
+        for (LogicEntry entry : entries) {
+            if (n > 0 && mileages[n - 1] == entry.mileage())
+                continue;
+            mileages[n] = entry.mileage();
+            texts[n] = entry.text();
+            order[n] = entry.position();
+            n++;
+        }
+
+        List<Milestone> sortedMilestones = new ArrayList<>();
+        if (reliability.criticalMilestones() != null) {
+            sortedMilestones.addAll(reliability.criticalMilestones());
+            sortedMilestones.sort(Comparator.comparingInt(Milestone::mileage)); // stable: source order within a mileage
+        }
+        int[] milestoneMileages = sortedMilestones.stream().mapToInt(Milestone::mileage).toArray();
+        long[] costPrefix = new long[sortedMilestones.size() + 1];
+        for (int i = 0; i < sortedMilestones.size(); i++) {
+            costPrefix[i + 1] = costPrefix[i] + Math.max(0, sortedMilestones.get(i).estCost());
+        }
+
+        return new MileageProfile(Arrays.copyOf(mileages, n), Arrays.copyOf(texts, n), Arrays.copyOf(order, n),
+                milestoneMileages, costPrefix, List.copyOf(sortedMilestones), toBits(reliability.bestYears()),
+                toBits(reliability.worstYears()));
+    }
+
+    private record LogicEntry(long mileage, int position, String text) {
+    }
+
+    private static BitSet toBits(List<Integer> years) {
+        BitSet bits = new BitSet();
+        if (years != null) {
+            for (Integer year : years) {
+                if (year != null && year >= 0) {
+                    bits.set(year);
+                }
+            }
+        }
+        return bits;
+    }
+
+    // --- Mileage logic text ---
+
+    /**
+     * Text of the key closest to {@code mileage}, if strictly within {@code maxDistance} miles.
+     * On a tie the key listed first in the source file wins.
+     *
+     * @return the text, or null when no key is close enough
+     */
+    public String closestLogicText(long mileage, long maxDistance) {
+        int i = Arrays.binarySearch(logicMileages, mileage);
+        if (i >= 0) {
+            return maxDistance > 0 ? logicTexts[i] : null;
+        }
+        int above = -i - 1;
+        int below = above - 1;
+
+        int best = -1;
+        long bestDiff = Long.MAX_VALUE;
+        if (below >= 0) {
+            best = below;
+            bestDiff = mileage - logicMileages[below];
+        }
+        if (above < logicMileages.length) {
+            long diff = logicMileages[above] - mileage;
+            if (diff < bestDiff || (diff == bestDiff && logicOrder[above] < logicOrder[best])) {
+                best = above;
+                bestDiff = diff;
+            }
+        }
+        return best >= 0 && bestDiff < maxDistance ? logicTexts[best] : null;
+    }
+
+    /** Text of the highest positive key at or below {@code mileage}, or null if there is none. */
+    public String floorLogicText(long mileage) {
+        int i = Arrays.binarySearch(logicMileages, mileage);
+        int floor = i >= 0 ? i : -i - 2;
+        return floor >= 0 && logicMileages[floor] > 0 ? logicTexts[floor] : null;
+    }
+
+    public boolean hasLogicText() {
+        return logicMileages.length > 0;
+    }
+
+    // --- Milestones ---
+
+    /** Milestones with {@code fromExclusive < mileage <= toInclusive}, in mileage order (a view, not a copy). */
+    public List<Milestone> milestonesBetween(long fromExclusive, long toInclusive) {
+        int start = upperBound(milestoneMileages, fromExclusive);
+        int end = upperBound(milestoneMileages, toInclusive);
+        return start >= end ? List.of() : milestones.subList(start, end);
+    }
+
+    public List<Milestone> milestones() {
+        return milestones;
+    }
+
+    /** Total estimated cost of the milestones with {@code fromExclusive < mileage <= toInclusive}. */
+    public long milestoneCostBetween(long fromExclusive, long toInclusive) {
+        int start = upperBound(milestoneMileages, fromExclusive);
+        int end = upperBound(milestoneMileages, toInclusive);
+        return start >= end ? 0 : milestoneCostPrefix[end] - milestoneCostPrefix[start];
+    }
+
+    /** Milestones the odometer reaches within {@code years} at {@code milesPerYear}, in mileage order. */
+    public List<Milestone> upcomingMilestones(long mileage, long milesPerYear, double years) {
+        return milestonesBetween(mileage, mileage + horizonMiles(milesPerYear, years));
+    }
+
+    /** Estimated spend on the milestones the odometer reaches within {@code years} at {@code milesPerYear}. */
+    public long upcomingMilestoneCost(long mileage, long milesPerYear, double years) {
+        return milestoneCostBetween(mileage, mileage + horizonMiles(milesPerYear, years));
+    }
+
+    /** Miles driven in {@code years} at {@code milesPerYear}. */
+    public static long horizonMiles(long milesPerYear, double years) {
+        return Math.round(Math.max(0, years) * milesPerYear);
+    }
+
+    /** First index whose value is greater than {@code value}. */
+    private static int upperBound(int[] sorted, long value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // --- Year quality ---
+
+    public boolean isBestYear(int year) {
+        return year >= 0 && bestYears.get(year);
+    }
+
+    public boolean isWorstYear(int year) {
+        return year >= 0 && worstYears.get(year);
+    }
+
+    public boolean hasBestYears() {
+        return !bestYears.isEmpty();
+    }
+
+    /** Latest best year within {@code [from, to]}, or -1 if none. */
+    public int latestBestYear(int from, int to) {
+        if (to < 0 || to < from) {
+            return -1;
+        }
+        int year = bestYears.previousSetBit(to);
+        return year >= Math.max(from, 0) ? year : -1;
+    }
+
+    /** Earliest worst year within {@code [from, to]}, or -1 if none. */
+    public int earliestWorstYear(int from, int to) {
+        if (to < 0 || to < from) {
+            return -1;
+        }
+        int year = worstYears.nextSetBit(Math.max(from, 0));
+        return year >= 0 && year <= to ? year : -1;
+    }
+
+    /** Profiles built from the same reliability row are equal, so a reload of unchanged data changes nothing. */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof MileageProfile other
+                && Arrays.equals(logicMileages, other.logicMileages)
+                && Arrays.equals(logicTexts, other.logicTexts)
+                && Arrays.equals(logicOrder, other.logicOrder)
+                && milestones.equals(other.milestones)
+                && bestYears.equals(other.bestYears)
+                && worstYears.equals(other.worstYears);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(logicMileages), Arrays.hashCode(logicTexts), milestones, bestYears,
+                worstYears);
+    }
+}
@@ -0,0 +1,230 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Nearest catalog models by ownership profile, for "owners also compared" links and the X vs Y pages.
+ *
+ * Each model with reliability and market data becomes a vector of reliability score, lifespan, price,
+ * depreciation rate, annual repair cost and its fault profile (occurrence-weighted fault cost and costliest
+ * fault). Dollar figures are log-scaled so one supercar does not flatten the rest, then every dimension is
+ * z-scored. Neighbours are found by exact search over one flat row-major array and, together with the
+ * comparison for every neighbour pair, are rebuilt only when the dataset changes.
+ */
+@Service
+public class SimilarModelsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarModelsService.class);
+
+    public static final int NEIGHBOURS = 4;
+    private static final int DIMENSIONS = 7;
+
+    private final CarDataService carDataService;
+
+    public SimilarModelsService(CarDataService carDataService) {
+        this.carDataService = carDataService;
+        index();
+    }
+
+    /** Builds the new dataset's index right away instead of on the first page view. */
+    @EventListener
+    public void onDatasetReloaded(DatasetReloadedEvent event) {
+        NeighbourIndex rebuilt = event.current().derived(this, this::buildIndex);
+        log.info("Similar-models index rebuilt for dataset {} ({} models)", event.current().version(),
+                rebuilt.neighbours().size());
+    }
+
+    /** Up to {@link #NEIGHBOURS} closest models, closest first; empty for models without data. */
+    public List<CarModel> neighbours(String modelId) {
+        return index().neighbours().getOrDefault(modelId, List.of());
+    }
+
+    /** The precomputed comparison of two models, present only when one is among the other's neighbours. */
+    public Optional<Comparison> comparison(String firstModelId, String secondModelId) {
+        return Optional.ofNullable(index().comparisons().get(pairKey(firstModelId, secondModelId)));
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "|" + b : b + "|" + a;
+    }
+
+    // --- Index Building (once per dataset version) ---
+
+    /** Neighbour index of the served snapshot, built on first use if the reload listener has not run yet. */
+    private NeighbourIndex index() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        return snapshot == null ? buildIndex(null) : snapshot.derived(this, this::buildIndex);
+    }
+
+    private NeighbourIndex buildIndex(DatasetSnapshot snapshot) {
+        if (snapshot == null) {
+            return new NeighbourIndex(Map.of(), Map.of());
+        }
+        List<CarModel> rows = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (CarModel car : snapshot.carModels()) {
+            if (snapshot.reliabilityMap().containsKey(car.id()) && snapshot.marketMap().containsKey(car.id())
+                    && seen.add(car.id())) {
+                rows.add(car);
+            }
+        }
+
+        int n = rows.size();
+        double[] features = new double[n * DIMENSIONS];
+        for (int i = 0; i < n; i++) {
+            CarModel car = rows.get(i);
+            ModelReliability reliability = snapshot.reliabilityMap().get(car.id());
+            ModelMarket market = snapshot.marketMap().get(car.id());
+            MajorFaults faults = snapshot.faultsMap().get(car.id());
+            int o = i * DIMENSIONS;
+            features[o] = reliability.score();
+            features[o + 1] = reliability.lifespanMiles();
+            features[o + 2] = Math.log1p(market.jan2026AvgPrice());
+            features[o + 3] = market.depreciationRate();
+            features[o + 4] = Math.log1p(market.avgAnnualRepairCost());
+            features[o + 5] = Math.log1p(expectedFaultCost(faults));
+            features[o + 6] = Math.log1p(topFault(faults).map(Fault::repairCost).orElse(0.0));
+        }
+        standardize(features, n);
+
+        Map<String, List<CarModel>> neighbours = new LinkedHashMap<>();
+        Map<String, Comparison> comparisons = new HashMap<>();
+        int[] nearest = new int[NEIGHBOURS];
+        double[] nearestDistance = new double[NEIGHBOURS];
+        for (int i = 0; i < n; i++) {
+            CarModel car = rows.get(i);
+            int found = nearest(features, n, i, nearest, nearestDistance);
+            List<CarModel> list = new ArrayList<>(found);
+            for (int r = 0; r < found; r++) {
+                CarModel other = rows.get(nearest[r]);
+                list.add(other);
+                comparisons.computeIfAbsent(pairKey(car.id(), other.id()), k -> comparison(snapshot, car, other));
+            }
+            neighbours.put(car.id(), List.copyOf(list));
+        }
+        return new NeighbourIndex(Map.copyOf(neighbours), Map.copyOf(comparisons));
+    }
+
+    /** Subtracts each column's mean and divides by its standard deviation (constant columns become 0). */
+    private static void standardize(double[] features, int n) {
+        if (n == 0) {
+            return;
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += features[i * DIMENSIONS + d];
+            }
+            double mean = sum / n;
+            double squares = 0;
+            for (int i = 0; i < n; i++) {
+                double delta = features[i * DIMENSIONS + d] - mean;
+                squares += delta * delta;
+            }
+            double std = Math.sqrt(squares / n);
+            for (int i = 0; i < n; i++) {
+                int at = i * DIMENSIONS + d;
+                features[at] = std > 0 ? (features[at] - mean) / std : 0;
+            }
+        }
+    }
+
+    /**
+     * Exact k-nearest search for row {@code i}: one pass over the flat array, keeping the best
+     * {@link #NEIGHBOURS} by squared Euclidean distance in sorted order (ties go to the earlier row).
+     *
+     * @return how many neighbours were written to {@code nearest}
+     */
+    private static int nearest(double[] features, int n, int i, int[] nearest, double[] nearestDistance) {
+        int found = 0;
+        int base = i * DIMENSIONS;
+        for (int j = 0; j < n; j++) {
+            if (j == i) {
+                continue;
+            }
+            int o = j * DIMENSIONS;
+            double distance = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                double delta = features[base + d] - features[o + d];
+                distance += delta * delta;
+            }
+            if (found == NEIGHBOURS && distance >= nearestDistance[found - 1]) {
+                continue;
+            }
+            int at = found < NEIGHBOURS ? found++ : found - 1;
+            while (at > 0 && nearestDistance[at - 1] > distance) {
+                nearestDistance[at] = nearestDistance[at - 1];
+                nearest[at] = nearest[at - 1];
+                at--;
+            }
+            nearestDistance[at] = distance;
+            nearest[at] = j;
+        }
+        return found;
+    }
+
+    private static double expectedFaultCost(MajorFaults faults) {
+        if (faults == null || faults.faults() == null) {
+            return 0;
+        }
+        double sum = 0;
+        for (Fault fault : faults.faults()) {
+            sum += fault.repairCost() * Math.min(1.0, Math.max(0, fault.occurrenceRate()));
+        }
+        return sum;
+    }
+
+    private static Optional<Fault> topFault(MajorFaults faults) {
+        if (faults == null || faults.faults() == null) {
+            return Optional.empty();
+        }
+        return faults.faults().stream().max(Comparator.comparingDouble(Fault::repairCost));
+    }
+
+    private static Comparison comparison(DatasetSnapshot snapshot, CarModel a, CarModel b) {
+        CarModel[] pair = { a, b };
+        Arrays.sort(pair, Comparator.comparing((CarModel c) -> SlugCodec.slug(c.brand()))
+                .thenComparing(c -> SlugCodec.slug(c.model())));
+        CarModel first = pair[0];
+        CarModel second = pair[1];
+        return new Comparison(first, second,
+                snapshot.reliabilityMap().get(first.id()), snapshot.reliabilityMap().get(second.id()),
+                snapshot.marketMap().get(first.id()), snapshot.marketMap().get(second.id()),
+                topFault(snapshot.faultsMap().get(first.id())).orElse(null),
+                topFault(snapshot.faultsMap().get(second.id())).orElse(null));
+    }
+
+    /** Two neighbouring models side by side; {@code first} sorts before {@code second} by brand and model slug. */
+    public record Comparison(
+            CarModel first,
+            CarModel second,
+            ModelReliability firstReliability,
+            ModelReliability secondReliability,
+            ModelMarket firstMarket,
+            ModelMarket secondMarket,
+            Fault firstTopFault,
+            Fault secondTopFault) {
+    }
+
+    private record NeighbourIndex(Map<String, List<CarModel>> neighbours, Map<String, Comparison> comparisons) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The single source of truth for turning brand, model and fault names into URL slugs and lookup keys.
+ *
+ * Each form is a single pass over the chars: input that is already canonical is returned as-is
+ * (no allocation), anything else is rewritten into one char buffer. Names from the loaded dataset are
+ * pre-computed into an interned table, so catalog names resolve to one shared slug instance.
+ * Non-ASCII input takes the slow, locale-aware path so results match {@link String#toLowerCase()}.
+ *
+ * <ul>
+ * <li>{@link #key} - lookup key: lowercase letters and digits only ("CR-V" → "crv")</li>
+ * <li>{@link #slug} - path segment: non-alphanumeric runs become one dash, trimmed ("Range Rover" → "range-rover")</li>
+ * <li>{@link #faultSlug} - fault path segment: spaces become dashes, other punctuation is dropped, dash runs
+ * collapse ("A/C Condenser" → "ac-condenser", "Water Pump & Thermostat" → "water-pump-thermostat")</li>
+ * <li>{@link #brandKey} - car_brands.json key: uppercase, spaces/dashes to underscores ("Land Rover" → "LAND_ROVER")</li>
+ * </ul>
+ */
+public final class SlugCodec {
+
+    // Replaced as a whole per dataset version (see warm); unknown input is never added
+    private static volatile Interned interned = new Interned(Map.of(), Map.of(), Map.of(), Map.of());
+
+    private SlugCodec() {
+    }
+
+    // --- Public forms ---
+
+    public static String key(String input) {
+        if (input == null)
+            return "";
+        String known = interned.keys.get(input);
+        return known != null ? known : computeKey(input);
+    }
+
+    public static String slug(String input) {
+        if (input == null)
+            return "";
+        String known = interned.slugs.get(input);
+        return known != null ? known : computeSlug(input);
+    }
+
+    public static String faultSlug(String input) {
+        if (input == null)
+            return "";
+        String known = interned.faultSlugs.get(input);
+        return known != null ? known : computeFaultSlug(input);
+    }
+
+    public static String brandKey(String input) {
+        if (input == null)
+            return "";
+        String known = interned.brandKeys.get(input);
+        return known != null ? known : computeBrandKey(input);
+    }
+
+    /**
+     * Pre-computes every form for the brand, model and fault names of {@code snapshot}.
+     * Called whenever a dataset version is published; the previous table is dropped.
+     */
+    public static void warm(DatasetSnapshot snapshot) {
+        Map<String, String> keys = new HashMap<>();
+        Map<String, String> slugs = new HashMap<>();
+        Map<String, String> faultSlugs = new HashMap<>();
+        Map<String, String> brandKeys = new HashMap<>();
+
+        for (CarModel car : snapshot.carModels()) {
+            for (String name : new String[] { car.brand(), car.model() }) {
+                if (name == null)
+                    continue;
+                intern(keys, name, computeKey(name));
+                intern(slugs, name, computeSlug(name));
+            }
+            if (car.brand() != null)
+                intern(brandKeys, car.brand(), computeBrandKey(car.brand()));
+        }
+        for (String brand : snapshot.catalogIndex().brandNames()) {
+            intern(slugs, brand, computeSlug(brand));
+            intern(brandKeys, brand, computeBrandKey(brand));
+        }
+        for (MajorFaults group : snapshot.faultsMap().values()) {
+            if (group.faults() == null)
+                continue;
+            for (Fault fault : group.faults()) {
+                if (fault.component() == null)
+                    continue;
+                intern(faultSlugs, fault.component(), computeFaultSlug(fault.component()));
+                intern(slugs, fault.component(), computeSlug(fault.component()));
+                intern(keys, fault.component(), computeKey(fault.component()));
+            }
+        }
+        interned = new Interned(Map.copyOf(keys), Map.copyOf(slugs), Map.copyOf(faultSlugs), Map.copyOf(brandKeys));
+    }
+
+    /** Maps the raw name and its canonical form to one shared instance of the canonical form. */
+    private static void intern(Map<String, String> table, String raw, String canonical) {
+        String shared = table.getOrDefault(canonical, canonical);
+        table.putIfAbsent(canonical, shared);
+        table.putIfAbsent(raw, shared);
+    }
+
+    private record Interned(Map<String, String> keys, Map<String, String> slugs, Map<String, String> faultSlugs,
+            Map<String, String> brandKeys) {
+    }
+
+    // --- Single-pass implementations ---
+
+    private static boolean isLowerAlnum(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isNonAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80)
+                return true;
+        }
+        return false;
+    }
+
+    static String computeKey(String s) {
+        int n = s.length();
+        int i = 0;
+        while (i < n && isLowerAlnum(s.charAt(i)))
+            i++;
+        if (i == n)
+            return s;
+        if (isNonAscii(s))
+            return s.toLowerCase().replaceAll("[^a-z0-9]", "");
+
+        char[] out = new char[n];
+        s.getChars(0, i, out, 0);
+        int len = i;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (isLowerAlnum(c))
+                out[len++] = c;
+            else if (c >= 'A' && c <= 'Z')
+                out[len++] = (char) (c + 32);
+        }
+        return new String(out, 0, len);
+    }
+
+    static String computeSlug(String s) {
+        if (isCanonicalSlug(s))
+            return s;
+        if (isNonAscii(s))
+            return s.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+
+        int n = s.length();
+        char[] out = new char[n];
+        int len = 0;
+        boolean pendingDash = false;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z')
+                c = (char) (c + 32);
+            if (isLowerAlnum(c)) {
+                if (pendingDash && len > 0)
+                    out[len++] = '-';
+                pendingDash = false;
+                out[len++] = c;
+            } else {
+                pendingDash = true;
+            }
+        }
+        return new String(out, 0, len);
+    }
+
+    /** Lowercase alphanumerics separated by single dashes, no leading/trailing dash. */
+    private static boolean isCanonicalSlug(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '-') {
+                if (i == 0 || i == n - 1 || s.charAt(i - 1) == '-')
+                    return false;
+            } else if (!isLowerAlnum(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String computeFaultSlug(String s) {
+        if (isCanonicalSlug(s))
+            return s;
+        if (isNonAscii(s)) {
+            String legacy = s.toLowerCase().replace(" ", "-").replaceAll("[^a-z0-9-]", "");
+            return legacy.replaceAll("-{2,}", "-").replaceAll("^-|-$", "");
+        }
+
+        int n = s.length();
+        char[] out = new char[n];
+        int len = 0;
+        boolean pendingDash = false;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z')
+                c = (char) (c + 32);
+            if (isLowerAlnum(c)) {
+                if (pendingDash && len > 0)
+                    out[len++] = '-';
+                pendingDash = false;
+                out[len++] = c;
+            } else if (c == ' ' || c == '-') {
+                pendingDash = true;
+            }
+            // Any other punctuation is dropped without separating words ("A/C" → "ac")
+        }
+        return new String(out, 0, len);
+    }
+
+    static String computeBrandKey(String s) {
+        int n = s.length();
+        // Legacy trim() runs after spaces became underscores, so only other control chars are trimmed
+        int start = 0;
+        int end = n;
+        while (start < end && s.charAt(start) < ' ')
+            start++;
+        while (end > start && s.charAt(end - 1) < ' ')
+            end--;
+
+        boolean canonical = start == 0 && end == n;
+        for (int i = start; canonical && i < end; i++) {
+            char c = s.charAt(i);
+            canonical = (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+        if (canonical)
+            return s;
+        if (isNonAscii(s))
+            return s.toUpperCase(Locale.getDefault()).replace("-", "_").replace(" ", "_").trim();
+
+        char[] out = new char[end - start];
+        int len = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'z')
+                c = (char) (c - 32);
+            else if (c == '-' || c == ' ')
+                c = '_';
+            out[len++] = c;
+        }
+        return new String(out, 0, len);
+    }
+}
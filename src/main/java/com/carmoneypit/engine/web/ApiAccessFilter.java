@@ -0,0 +1,120 @@
+package com.carmoneypit.engine.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Guards the compute-heavy JSON API ({@code /api/v1/verdicts*} and {@code /api/v1/replacements}).
+ *
+ * The batch endpoint is for partners only: it needs the configured API key in {@code X-Api-Key} and
+ * stays closed while no key is set. Every other guarded request without a valid key counts against a
+ * per-address limit per minute; requests over it get 429 until the next minute starts.
+ */
+@Component
+public class ApiAccessFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-Api-Key";
+    static final String BATCH_PATH = "/api/v1/verdicts:batch";
+
+    // Addresses tracked at once; the least recently seen is forgotten first
+    private static final int MAX_CLIENTS = 10_000;
+
+    private final byte[] apiKey; // empty = no key configured
+    private final int requestsPerMinute; // 0 = unlimited
+    private final LongSupplier clock;
+    private final Map<String, Window> windows = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > MAX_CLIENTS;
+        }
+    };
+
+    @Autowired
+    public ApiAccessFilter(@Value("${app.api.key:}") String apiKey,
+            @Value("${app.api.rateLimit.perMinute:120}") int requestsPerMinute) {
+        this(apiKey, requestsPerMinute, System::currentTimeMillis);
+    }
+
+    ApiAccessFilter(String apiKey, int requestsPerMinute, LongSupplier clock) {
+        this.apiKey = apiKey == null ? new byte[0] : apiKey.trim().getBytes(StandardCharsets.UTF_8);
+        this.requestsPerMinute = Math.max(0, requestsPerMinute);
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !path.startsWith("/api/v1/verdicts") && !path.startsWith("/api/v1/replacements");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean partner = hasValidKey(request);
+        if (!partner && path(request).equals(BATCH_PATH)) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Batch API requires a valid " + API_KEY_HEADER + " header");
+            return;
+        }
+        if (!partner && !allow(request.getRemoteAddr())) {
+            response.setHeader("Retry-After", "60");
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded; retry shortly");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean hasValidKey(HttpServletRequest request) {
+        String presented = request.getHeader(API_KEY_HEADER);
+        return apiKey.length > 0 && presented != null
+                && MessageDigest.isEqual(apiKey, presented.trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Fixed one-minute windows per address. */
+    private synchronized boolean allow(String client) {
+        if (requestsPerMinute == 0) {
+            return true;
+        }
+        long minute = clock.getAsLong() / 60_000;
+        Window window = windows.get(client);
+        if (window == null || window.minute != minute) {
+            windows.put(client, new Window(minute));
+            return true;
+        }
+        return ++window.count <= requestsPerMinute;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+    }
+
+    private static final class Window {
+        final long minute;
+        int count = 1;
+
+        Window(long minute) {
+            this.minute = minute;
+        }
+    }
+}
@@ -9,7 +9,9 @@ import com.carmoneypit.engine.api.InputModels.HassleTolerance;
 import com.carmoneypit.engine.api.OutputModels.VerdictResult;
 import com.carmoneypit.engine.core.DecisionEngine;
 import com.carmoneypit.engine.core.ValuationService;
+import com.carmoneypit.engine.core.VerdictTableService;
 import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.SlugCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -49,16 +51,19 @@ public class CarDecisionController {
         private final VerdictPresenter presenter;
         private final ValuationService valuationService;
         private final CarDataService carDataService;
+        private final VerdictTableService verdictTable;
 
         @Value("${app.baseUrl:https://automoneypit.com}")
         private String baseUrl;
 
         public CarDecisionController(DecisionEngine decisionEngine, VerdictPresenter presenter,
-                        ValuationService valuationService, CarDataService carDataService) {
+                        ValuationService valuationService, CarDataService carDataService,
+                        VerdictTableService verdictTable) {
                 this.decisionEngine = decisionEngine;
                 this.presenter = presenter;
                 this.valuationService = valuationService;
                 this.carDataService = carDataService;
+                this.verdictTable = verdictTable;
         }
 
         @GetMapping("/")
@@ -104,10 +109,10 @@ public class CarDecisionController {
 
                 try {
                         int year = Integer.parseInt(parts[0]);
-                        String brandSlug = parts[1].toUpperCase().replace(" ", "_");
+                        String brandSlug = SlugCodec.brandKey(parts[1]);
                         String modelSlug = parts.length > 2 ? formatModelName(parts[2]) : "";
-                        String canonicalBrandSlug = normalizeSlugSegment(brandSlug);
-                        String canonicalModelSlug = normalizeSlugSegment(modelSlug);
+                        String canonicalBrandSlug = SlugCodec.slug(brandSlug);
+                        String canonicalModelSlug = SlugCodec.slug(modelSlug);
                         String canonicalSlug = null;
                         String quickSignal = "Run the numbers";
                         String quickAnswer = "The right answer depends on your actual quote, current value, and mileage.";
@@ -130,25 +135,16 @@ public class CarDecisionController {
                                 }
                         }
 
-                        // Find matching CarModel to get ID
-                        // We iterate to find a model that matches the slug using fuzzy matching
-                        // (normalization)
-                        String normalizedSlugModel = modelSlug.toLowerCase().replaceAll("[^a-z0-9]", "");
-                        final String lookupBrand = brandSlug;
-
-                        var carModelOpt = carDataService.getAllModels().stream()
-                                        .filter(m -> m.brand().equalsIgnoreCase(lookupBrand))
-                                        .filter(m -> m.model().toLowerCase().replaceAll("[^a-z0-9]", "")
-                                                        .equals(normalizedSlugModel))
-                                        .findFirst();
+                        // Find matching CarModel via the catalog index (normalized brand + model)
+                        var carModelOpt = carDataService.findCarBySlug(brandSlug, modelSlug);
 
                         if (carModelOpt.isPresent()) {
                                 var carModel = carModelOpt.get();
                                 // If we found a model, use its official display name instead of the slug
                                 brandSlug = carModel.brand();
                                 modelSlug = carModel.model();
-                                canonicalBrandSlug = normalizeSlugSegment(carModel.brand());
-                                canonicalModelSlug = normalizeSlugSegment(carModel.model());
+                                canonicalBrandSlug = SlugCodec.slug(carModel.brand());
+                                canonicalModelSlug = SlugCodec.slug(carModel.model());
                                 canonicalSlug = year + "-" + canonicalBrandSlug + "-"
                                                 + canonicalModelSlug;
                                 brandDirectoryUrl = baseUrl + "/models/" + canonicalBrandSlug;
@@ -166,8 +162,9 @@ public class CarDecisionController {
                                 var faultsOpt = carDataService.findFaultsByModelId(carModel.id());
                                 if (faultsOpt.isPresent()) {
                                         model.addAttribute("majorFaults", faultsOpt.get());
-                                        var topFault = faultsOpt.get().faults().stream()
-                                                        .max(java.util.Comparator.comparingDouble(f -> f.repairCost()));
+                                        var topFault = verdictTable.topFault(carModel.id())
+                                                        .or(() -> faultsOpt.get().faults().stream()
+                                                                        .max(java.util.Comparator.comparingDouble(f -> f.repairCost())));
                                         if (topFault.isPresent()) {
                                                 primaryFaultName = topFault.get().component();
                                                 primaryFaultCost = (int) Math.round(topFault.get().repairCost());
@@ -176,7 +173,7 @@ public class CarDecisionController {
                                                                 : null;
                                                 primaryFaultUrl = baseUrl + "/verdict/" + canonicalBrandSlug + "/"
                                                                 + canonicalModelSlug + "/"
-                                                                + normalizeSlugSegment(topFault.get().component());
+                                                                + SlugCodec.faultSlug(topFault.get().component());
                                         }
                                 }
 
@@ -190,7 +187,11 @@ public class CarDecisionController {
                                         marketValue = marketOpt.get().jan2026AvgPrice();
                                 }
 
-                                quickSignal = buildQuickSignal(marketValue, primaryFaultCost, lifespanMiles, year);
+                                // Precomputed per dataset; computed here only for models the table has no row for
+                                String tableSignal = verdictTable.quickSignal(carModel.id(), year).orElse(null);
+                                quickSignal = tableSignal != null ? tableSignal
+                                                : VerdictTableService.quickSignal(marketValue, primaryFaultCost,
+                                                                lifespanMiles, year);
                                 quickAnswer = buildQuickAnswer(carModel.brand(), carModel.model(), marketValue,
                                                 primaryFaultName, primaryFaultCost, primaryFaultMileage, lifespanMiles,
                                                 year);
@@ -240,25 +241,6 @@ public class CarDecisionController {
                 }
         }
 
-        private String buildQuickSignal(Integer marketValue, Integer primaryFaultCost, Integer lifespanMiles, int year) {
-                if (marketValue != null && primaryFaultCost != null && marketValue > 0) {
-                        double repairToValue = (double) primaryFaultCost / marketValue;
-                        if (repairToValue >= 0.35) {
-                                return "Likely sell zone";
-                        }
-                        if (repairToValue >= 0.2) {
-                                return "Borderline decision";
-                        }
-                        return "Usually worth fixing";
-                }
-
-                if (lifespanMiles != null && year <= 2018) {
-                        return "Mileage-sensitive call";
-                }
-
-                return "Quote decides";
-        }
-
         private String buildSeoTitle(int year, String brand, String model, String primaryFaultName,
                         Integer primaryFaultCost) {
                 String faultLabel = normalizeFaultLabel(primaryFaultName);
@@ -573,15 +555,6 @@ public class CarDecisionController {
                 return slug.substring(0, 1).toUpperCase() + slug.substring(1).replace("-", " ");
         }
 
-        private String normalizeSlugSegment(String input) {
-                if (input == null) {
-                        return "";
-                }
-                return input.toLowerCase()
-                                .replaceAll("[^a-z0-9]+", "-")
-                                .replaceAll("^-|-$", "");
-        }
-
         @GetMapping(value = "/favicon.ico", produces = "image/x-icon")
         @ResponseBody
         public Resource getFaviconIco() {
@@ -640,6 +613,7 @@ public class CarDecisionController {
                 try {
                         EngineInput input = presenter.decodeToken(token);
                         VerdictResult result = decisionEngine.evaluate(input);
+                        result = result.withSensitivities(decisionEngine.sensitivities(input, null, result));
 
                         SimulationControls sharedControls = new SimulationControls(
                                         FailureSeverity.GENERAL_UNKNOWN,
@@ -705,6 +679,7 @@ public class CarDecisionController {
                 try {
                         EngineInput input = presenter.decodeToken(token);
                         VerdictResult result = decisionEngine.evaluate(input);
+                        result = result.withSensitivities(decisionEngine.sensitivities(input, null, result));
 
                         SimulationControls defaultControls = new SimulationControls(
                                         FailureSeverity.GENERAL_UNKNOWN,
@@ -0,0 +1,69 @@
+package com.carmoneypit.engine.web;
+
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.DatasetReloadService;
+import com.carmoneypit.engine.service.DatasetReloadService.Outcome;
+import com.carmoneypit.engine.service.DatasetReloadService.ReloadReport;
+import com.carmoneypit.engine.service.DatasetSnapshot;
+import com.carmoneypit.engine.service.DatasetSnapshot.RecordCounts;
+import com.carmoneypit.engine.service.FaultRollup;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read-only view of the dataset version being served, for deploy checks and monitoring.
+ * Public, so it reports versions, counts and outcomes only; file paths and validation messages
+ * stay in the server log.
+ */
+@RestController
+public class DatasetController {
+
+    private final CarDataService carDataService;
+    private final DatasetReloadService reloadService;
+
+    public DatasetController(CarDataService carDataService, DatasetReloadService reloadService) {
+        this.carDataService = carDataService;
+        this.reloadService = reloadService;
+    }
+
+    @GetMapping(value = "/api/v1/dataset", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DatasetStatus status() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        ReloadReport last = reloadService.getLastReport();
+        return new DatasetStatus(
+                snapshot.version(),
+                snapshot.loadedAt().toString(),
+                snapshot.loadMillis(),
+                snapshot.counts(),
+                reloadService.isWatching(),
+                last == null ? null : new ReloadStatus(last.outcome(), last.version(), last.problems().size(),
+                        last.at().toString()));
+    }
+
+    /**
+     * Repair cost aggregate for any slice of the fault data; omitted dimensions mean "all".
+     * {@code mileageBucket} is 0-3 in {@value FaultRollup#BUCKET_MILES}-mile steps of average failure mileage.
+     */
+    @GetMapping(value = "/api/v1/dataset/faults:rollup", produces = MediaType.APPLICATION_JSON_VALUE)
+    public FaultRollup.Cell faultRollup(@RequestParam(value = "brand", required = false) String brand,
+            @RequestParam(value = "component", required = false) String component,
+            @RequestParam(value = "generation", required = false) String generation,
+            @RequestParam(value = "mileageBucket", defaultValue = "-1") int mileageBucket) {
+        return carDataService.getFaultRollup().get(brand, component, generation, mileageBucket);
+    }
+
+    public record DatasetStatus(
+            String version,
+            String loadedAt,
+            long loadMillis,
+            RecordCounts counts,
+            boolean watching,
+            ReloadStatus lastReload) {
+    }
+
+    /** Outcome of the latest reload attempt; {@code version} is the candidate's, null when it failed to load. */
+    public record ReloadStatus(Outcome outcome, String version, int problems, String at) {
+    }
+}
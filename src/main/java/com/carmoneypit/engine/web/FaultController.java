@@ -36,7 +36,7 @@ public class FaultController {
 
     @GetMapping("/fault/{faultSlug}")
     public String faultHub(@PathVariable String faultSlug, Model model) {
-        // Strict slug validation — only allowed slugs render
+        // Strict slug validation — only hubs in the prebuilt index render
         FaultHubViewModel hub = faultHubService.getHub(faultSlug)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
@@ -1,12 +1,21 @@
 package com.carmoneypit.engine.web;
 
-import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.Breakeven;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
 import com.carmoneypit.engine.api.OutputModels.VerdictState;
 import com.carmoneypit.engine.api.InputModels.EngineInput;
 import com.carmoneypit.engine.api.InputModels.VehicleType;
 import com.carmoneypit.engine.config.PartnerRoutingConfig;
+import com.carmoneypit.engine.core.BreakevenSolver;
 import com.carmoneypit.engine.core.DecisionEngine;
+import com.carmoneypit.engine.core.VerdictTableService;
+import com.carmoneypit.engine.core.VerdictTableService.MileageVerdict;
 import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.FaultRollup;
+import com.carmoneypit.engine.service.MileageProfile;
+import com.carmoneypit.engine.service.SimilarModelsService;
+import com.carmoneypit.engine.service.SimilarModelsService.Comparison;
+import com.carmoneypit.engine.service.SlugCodec;
 import com.carmoneypit.engine.service.CarDataService.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +45,9 @@ public class PSeoController {
   private static final Logger logger = LoggerFactory.getLogger(PSeoController.class);
   private final CarDataService dataService;
   private final DecisionEngine decisionEngine;
+  private final BreakevenSolver breakevenSolver;
+  private final VerdictTableService verdictTable;
+  private final SimilarModelsService similarModels;
   private final PartnerRoutingConfig routingConfig;
 
   @Value("${app.baseUrl:https://automoneypit.com}")
@@ -46,9 +58,15 @@ public class PSeoController {
 
   public PSeoController(CarDataService dataService,
       DecisionEngine decisionEngine,
+      BreakevenSolver breakevenSolver,
+      VerdictTableService verdictTable,
+      SimilarModelsService similarModels,
       PartnerRoutingConfig routingConfig) {
     this.dataService = dataService;
     this.decisionEngine = decisionEngine;
+    this.breakevenSolver = breakevenSolver;
+    this.verdictTable = verdictTable;
+    this.similarModels = similarModels;
     this.routingConfig = routingConfig;
   }
 
@@ -78,15 +96,12 @@ public class PSeoController {
       throw new ResourceNotFoundException("No faults found for model");
     }
 
-    String requestedFaultSlug = normalize(faultSlug);
+    String requestedFaultKey = SlugCodec.key(faultSlug);
 
     // 3. Find the Specific Fault by Slug
     Optional<Fault> faultOpt = faultsOpt.get().faults().stream()
-        .filter(f -> {
-          String slug = toFaultSlug(f.component());
-          // Accept non-canonical separators in the incoming URL, then redirect.
-          return slug.equals(requestedFaultSlug);
-        })
+        // Accept non-canonical separators in the incoming URL, then redirect.
+        .filter(f -> SlugCodec.key(f.component()).equals(requestedFaultKey))
         .findFirst();
 
     if (faultOpt.isEmpty()) {
@@ -94,9 +109,9 @@ public class PSeoController {
       throw new ResourceNotFoundException("Fault not found");
     }
     Fault fault = faultOpt.get();
-    String canonicalBrandSlug = normalize(car.brand());
-    String canonicalModelSlug = normalize(car.model());
-    String canonicalFaultSlug = toFaultSlug(fault.component());
+    String canonicalBrandSlug = SlugCodec.slug(car.brand());
+    String canonicalModelSlug = SlugCodec.slug(car.model());
+    String canonicalFaultSlug = SlugCodec.faultSlug(fault.component());
 
     if (!brand.equals(canonicalBrandSlug)
         || !model.equals(canonicalModelSlug)
@@ -147,24 +162,24 @@ public class PSeoController {
         profile != null ? profile.reliability().lifespanMiles() / 2 : 100000,
         (long) repairCost, marketValue, true, true);
 
-    VerdictResult result = decisionEngine.evaluate(input);
+    VerdictScore result = decisionEngine.score(input, null);
     boolean isSell = result.verdictState() == VerdictState.TIME_BOMB;
     String verdictType = isSell ? "SELL" : "REPAIR";
 
     // Build tracking URLs
     String leadUrlInline = "/lead?page_type=pseo_fault&intent=" + verdictType + "&verdict_state="
-        + result.verdictState().name() + "&brand=" + normalize(car.brand())
-        + "&model=" + normalize(car.model()) + "&detail=" + canonicalFaultSlug + "&placement=inline";
+        + result.verdictState().name() + "&brand=" + SlugCodec.slug(car.brand())
+        + "&model=" + SlugCodec.slug(car.model()) + "&detail=" + canonicalFaultSlug + "&placement=inline";
     String leadUrlSticky = "/lead?page_type=pseo_fault&intent=" + verdictType + "&verdict_state="
-        + result.verdictState().name() + "&brand=" + normalize(car.brand())
-        + "&model=" + normalize(car.model()) + "&detail=" + canonicalFaultSlug + "&placement=sticky";
+        + result.verdictState().name() + "&brand=" + SlugCodec.slug(car.brand())
+        + "&model=" + SlugCodec.slug(car.model()) + "&detail=" + canonicalFaultSlug + "&placement=sticky";
 
     // Related faults for internal linking
     List<RelatedFaultLink> relatedFaultLinks = faultsOpt.get().faults().stream()
         .filter(f -> !f.component().equals(fault.component()))
         .map(f -> new RelatedFaultLink(
             f.component(),
-            "/verdict/" + canonicalBrandSlug + "/" + canonicalModelSlug + "/" + toFaultSlug(f.component()),
+            "/verdict/" + canonicalBrandSlug + "/" + canonicalModelSlug + "/" + SlugCodec.faultSlug(f.component()),
             f.repairCost()))
         .limit(3)
         .toList();
@@ -219,11 +234,11 @@ public class PSeoController {
       throw new ResourceNotFoundException("Car model not found");
     }
     CarModel car = carOpt.get();
-    String canonicalBrandSlug = normalize(car.brand());
-    String canonicalModelSlug = normalize(car.model());
+    String canonicalBrandSlug = SlugCodec.slug(car.brand());
+    String canonicalModelSlug = SlugCodec.slug(car.model());
 
     // 2. Mileage Bucketing + Canonical Slug Redirect (crawl budget + dedup)
-    List<Integer> allowedBuckets = List.of(50000, 75000, 100000, 125000, 150000, 175000, 200000);
+    List<Integer> allowedBuckets = VerdictTableService.MILEAGE_BUCKETS;
     int canonicalMileage = allowedBuckets.contains(mileage) ? mileage : findClosestBucket(mileage, allowedBuckets);
     if (!brand.equals(canonicalBrandSlug) || !model.equals(canonicalModelSlug) || mileage != canonicalMileage) {
       return permanentRedirect(baseUrl + "/verdict/" + canonicalBrandSlug + "/" + canonicalModelSlug + "/"
@@ -258,9 +273,10 @@ public class PSeoController {
     String canonicalUrl = baseUrl + "/verdict/" + canonicalBrandSlug + "/" + canonicalModelSlug + "/" + mileage
         + "-miles";
 
-    // 5. Meta description
-    int estimatedValue = (int) Math.max(market.commonJunkValue(),
-        market.jan2026AvgPrice() * Math.max(0.15, 1.0 - (mileage * 0.000003)));
+    // 5. Meta description (value and walk-away quote come from the precomputed verdict table when present)
+    MileageVerdict mileageVerdict = verdictTable.find(car.id(), mileage).orElse(null);
+    int estimatedValue = mileageVerdict != null ? mileageVerdict.estimatedValue()
+        : VerdictTableService.estimatedValue(market, mileage);
     String metaDescription = String.format(
         "See whether a %s %s is still worth keeping at %,d miles. Compare expected lifespan, estimated value (~$%,d), and major repair risk before you fix or sell.",
         car.brand(), car.model(), mileage, estimatedValue);
@@ -314,11 +330,19 @@ public class PSeoController {
     // Load faults data
     Optional<MajorFaults> faultsOpt = dataService.findFaultsByModelId(car.id());
 
+    // Walk-away quote for this model and bucket (solved on the fly only when the table has no row)
+    Breakeven breakeven = mileageVerdict != null ? mileageVerdict.quoteBreakeven()
+        : breakevenSolver.solveForPage(new EngineInput(car.model(), VehicleType.SEDAN, car.brand(),
+            representativeYear, mileage, market.avgAnnualRepairCost(), estimatedValue, true, true));
+
     modelMap.addAttribute("car", car);
     modelMap.addAttribute("reliability", reliability);
+    modelMap.addAttribute("mileageProfile", mileageProfile(car, reliability));
     modelMap.addAttribute("market", market);
     modelMap.addAttribute("majorFaults", faultsOpt.orElse(null)); // Pass null if not found
     modelMap.addAttribute("targetMileage", mileage);
+    modelMap.addAttribute("breakeven", breakeven);
+    modelMap.addAttribute("mileageVerdict", mileageVerdict);
     modelMap.addAttribute("breadcrumbs", breadcrumbs);
     modelMap.addAttribute("canonicalUrl", canonicalUrl);
     modelMap.addAttribute("metaDescription", metaDescription);
@@ -351,7 +375,7 @@ public class PSeoController {
   public String listBrands(Model modelMap, HttpServletResponse response) {
     response.setHeader("Cache-Control", "public, max-age=86400");
     List<java.util.Map.Entry<String, String>> brands = dataService.getAllBrands().stream()
-        .map(brand -> java.util.Map.entry(brand, "/models/" + normalize(brand)))
+        .map(brand -> java.util.Map.entry(brand, "/models/" + SlugCodec.slug(brand)))
         .toList();
 
     modelMap.addAttribute("title", "Car Problems by Brand: Repair Costs and Fix-or-Sell Guides | AutoMoneyPit");
@@ -383,7 +407,7 @@ public class PSeoController {
     if (models.isEmpty()) {
       throw new ResourceNotFoundException("Brand not found");
     }
-    String canonicalBrandSlug = normalize(models.get(0).brand());
+    String canonicalBrandSlug = SlugCodec.slug(models.get(0).brand());
     if (!brandSlug.equals(canonicalBrandSlug)) {
       return permanentRedirect(baseUrl + "/models/" + canonicalBrandSlug);
     }
@@ -392,7 +416,7 @@ public class PSeoController {
     List<java.util.Map.Entry<String, String>> modelLinks = models.stream()
         .map(c -> java.util.Map.entry(
             c.model(),
-            "/models/" + canonicalBrandSlug + "/" + normalize(c.model())))
+            "/models/" + canonicalBrandSlug + "/" + SlugCodec.slug(c.model())))
         .distinct()
         .toList();
 
@@ -402,10 +426,25 @@ public class PSeoController {
     modelMap.addAttribute("canonicalUrl", baseUrl + "/models/" + canonicalBrandSlug);
     modelMap.addAttribute("breadcrumbs", List.of("Models", displayBrand));
     modelMap.addAttribute("featuredItems", getBrandPriorityDecisionLinks(canonicalBrandSlug));
+    modelMap.addAttribute("summary", brandFaultSummary(displayBrand));
     modelMap.addAttribute("items", modelLinks);
     return "pages/directory_list";
   }
 
+  /** One line of repair cost context for a brand page, read from the prebuilt fault rollup. */
+  private String brandFaultSummary(String brand) {
+    FaultRollup rollup = dataService.getFaultRollup();
+    if (rollup == null) {
+      return null;
+    }
+    FaultRollup.Cell faults = rollup.get(brand, null, null, FaultRollup.ALL_BUCKETS);
+    if (faults.pricedCount() == 0) {
+      return null;
+    }
+    return String.format("%d documented problems across %s models, with repairs averaging $%,.0f (from $%,.0f to $%,.0f).",
+        faults.count(), brand, faults.mean(), faults.min(), faults.max());
+  }
+
   @GetMapping("/models/{brandSlug}/{modelSlug}")
   public Object listFaults(@PathVariable("brandSlug") String brandSlug, @PathVariable("modelSlug") String modelSlug,
       Model modelMap, HttpServletResponse response) {
@@ -415,8 +454,8 @@ public class PSeoController {
       throw new ResourceNotFoundException("Model not found");
     }
     CarModel car = carOpt.get();
-    String canonicalBrandSlug = normalize(car.brand());
-    String canonicalModelSlug = normalize(car.model());
+    String canonicalBrandSlug = SlugCodec.slug(car.brand());
+    String canonicalModelSlug = SlugCodec.slug(car.model());
     if (!brandSlug.equals(canonicalBrandSlug) || !modelSlug.equals(canonicalModelSlug)) {
       return permanentRedirect(baseUrl + "/models/" + canonicalBrandSlug + "/" + canonicalModelSlug);
     }
@@ -429,7 +468,7 @@ public class PSeoController {
     if (faultsOpt.isPresent()) {
       faultLinks = faultsOpt.get().faults().stream()
           .map(f -> {
-            String slug = toFaultSlug(f.component());
+            String slug = SlugCodec.faultSlug(f.component());
             return new ModelHubLink(
                 f.component() + " repair cost and fix-or-sell guide",
                 "/verdict/" + canonicalBrandSlug + "/" + canonicalModelSlug + "/" + slug);
@@ -473,10 +512,46 @@ public class PSeoController {
     modelMap.addAttribute("representativeYear", representativeYear);
     modelMap.addAttribute("shouldFixUrl", shouldFixUrl);
     modelMap.addAttribute("decisionPageLinks", decisionPageLinks);
+    modelMap.addAttribute("similarModelLinks", buildSimilarModelLinks(car));
     modelMap.addAttribute("datasetVersion", datasetVersion);
     return "pages/model_hub";
   }
 
+  @GetMapping("/compare/{brandA}/{modelA}/vs/{brandB}/{modelB}")
+  public Object compareModels(@PathVariable("brandA") String brandA, @PathVariable("modelA") String modelA,
+      @PathVariable("brandB") String brandB, @PathVariable("modelB") String modelB,
+      Model modelMap, HttpServletResponse response) {
+    response.setHeader("Cache-Control", "public, max-age=86400");
+    CarModel first = dataService.findCarBySlug(brandA, modelA)
+        .orElseThrow(() -> new ResourceNotFoundException("Model not found"));
+    CarModel second = dataService.findCarBySlug(brandB, modelB)
+        .orElseThrow(() -> new ResourceNotFoundException("Model not found"));
+    // Only neighbour pairs get a page; anything else would be an unbounded set of thin pages
+    Comparison comparison = similarModels.comparison(first.id(), second.id())
+        .orElseThrow(() -> new ResourceNotFoundException("Comparison not found"));
+
+    String canonicalPath = compareUrl(comparison.first(), comparison.second());
+    String requestedPath = "/compare/" + brandA + "/" + modelA + "/vs/" + brandB + "/" + modelB;
+    if (!requestedPath.equals(canonicalPath)) {
+      return permanentRedirect(baseUrl + canonicalPath);
+    }
+
+    String firstName = comparison.first().brand() + " " + comparison.first().model();
+    String secondName = comparison.second().brand() + " " + comparison.second().model();
+    modelMap.addAttribute("title", firstName + " vs " + secondName + ": Reliability, Repair Costs and Resale");
+    modelMap.addAttribute("metaDescription", "Compare the " + firstName + " and " + secondName
+        + " on reliability, lifespan, typical value, depreciation and their most expensive common failures.");
+    modelMap.addAttribute("canonicalUrl", baseUrl + canonicalPath);
+    modelMap.addAttribute("breadcrumbs", List.of("Compare", firstName + " vs " + secondName));
+    modelMap.addAttribute("comparison", comparison);
+    modelMap.addAttribute("firstUrl", "/models/" + SlugCodec.slug(comparison.first().brand()) + "/"
+        + SlugCodec.slug(comparison.first().model()));
+    modelMap.addAttribute("secondUrl", "/models/" + SlugCodec.slug(comparison.second().brand()) + "/"
+        + SlugCodec.slug(comparison.second().model()));
+    modelMap.addAttribute("datasetVersion", datasetVersion);
+    return "pages/model_compare";
+  }
+
   // --- Helper Methods ---
 
   private RedirectView permanentRedirect(String absoluteUrl) {
@@ -485,14 +560,27 @@ public class PSeoController {
     return rv;
   }
 
-  private int selectRepresentativeYear(CarModel car, ModelReliability reliability) {
-    if (reliability != null && reliability.bestYears() != null && !reliability.bestYears().isEmpty()) {
-      return reliability.bestYears().stream()
-          .filter(year -> year >= car.startYear() && year <= car.endYear())
-          .max(Integer::compareTo)
-          .orElse(car.endYear());
+  private static String compareUrl(CarModel first, CarModel second) {
+    return "/compare/" + SlugCodec.slug(first.brand()) + "/" + SlugCodec.slug(first.model())
+        + "/vs/" + SlugCodec.slug(second.brand()) + "/" + SlugCodec.slug(second.model());
+  }
+
+  private List<ModelHubLink> buildSimilarModelLinks(CarModel car) {
+    List<ModelHubLink> links = new ArrayList<>();
+    for (CarModel other : similarModels.neighbours(car.id())) {
+      similarModels.comparison(car.id(), other.id()).ifPresent(c -> links.add(new ModelHubLink(
+          car.model() + " vs " + other.brand() + " " + other.model(),
+          compareUrl(c.first(), c.second()))));
     }
-    return car.endYear() > 0 ? car.endYear() : car.startYear();
+    return links;
+  }
+
+  private MileageProfile mileageProfile(CarModel car, ModelReliability reliability) {
+    return dataService.findMileageProfile(car.id()).orElseGet(() -> MileageProfile.of(reliability));
+  }
+
+  private int selectRepresentativeYear(CarModel car, ModelReliability reliability) {
+    return VerdictTableService.representativeYear(car, mileageProfile(car, reliability));
   }
 
   private List<ModelHubLink> buildDecisionPageLinks(CarModel car, ModelReliability reliability,
@@ -500,34 +588,21 @@ public class PSeoController {
     LinkedHashSet<Integer> candidateYears = new LinkedHashSet<>();
     candidateYears.add(representativeYear);
 
-    Integer strongestYear = null;
-    Integer cautionYear = null;
-
-    if (reliability != null) {
-      if (reliability.bestYears() != null && !reliability.bestYears().isEmpty()) {
-        strongestYear = reliability.bestYears().stream()
-            .filter(year -> year >= car.startYear() && year <= car.endYear())
-            .max(Integer::compareTo)
-            .orElse(null);
-      }
-      if (reliability.worstYears() != null && !reliability.worstYears().isEmpty()) {
-        cautionYear = reliability.worstYears().stream()
-            .filter(year -> year >= car.startYear() && year <= car.endYear())
-            .min(Integer::compareTo)
-            .orElse(null);
-      }
-    }
+    MileageProfile profile = mileageProfile(car, reliability);
+    int best = profile.latestBestYear(car.startYear(), car.endYear());
+    int caution = profile.earliestWorstYear(car.startYear(), car.endYear());
+    Integer strongestYear = best >= 0 ? best : null;
+    Integer cautionYear = caution >= 0 ? caution : null;
 
     if (strongestYear != null) {
       candidateYears.add(strongestYear);
     }
-    if (reliability != null && reliability.bestYears() != null) {
-      reliability.bestYears().stream()
-          .filter(year -> year >= car.startYear() && year <= car.endYear())
-          .filter(year -> !year.equals(representativeYear))
-          .sorted((a, b) -> Integer.compare(b, a))
-          .findFirst()
-          .ifPresent(candidateYears::add);
+    // Latest best year other than the representative one
+    int alternate = best == representativeYear
+        ? profile.latestBestYear(car.startYear(), Math.min(car.endYear(), representativeYear - 1))
+        : best;
+    if (alternate >= 0) {
+      candidateYears.add(alternate);
     }
     if (cautionYear != null) {
       candidateYears.add(cautionYear);
@@ -600,23 +675,6 @@ public class PSeoController {
     };
   }
 
-  private String toFaultSlug(String component) {
-    if (component == null) {
-      return "";
-    }
-    return component.toLowerCase()
-        .replace(" ", "-")
-        .replaceAll("[^a-z0-9-]", "");
-  }
-
-  private String normalize(String input) {
-    if (input == null)
-      return "";
-    return input.toLowerCase()
-        .replaceAll("[^a-z0-9]+", "-")
-        .replaceAll("^-|-$", "");
-  }
-
   private String generateSchema(CarModel car, Fault fault, ProfileViewModel profile,
       String brandSlug, String modelSlug, String faultSlug) {
     int switchingCost = 2500 + (Math.abs(car.id().hashCode()) % 1000);
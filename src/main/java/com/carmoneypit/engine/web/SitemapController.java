@@ -1,10 +1,13 @@
 package com.carmoneypit.engine.web;
 
+import com.carmoneypit.engine.core.VerdictTableService;
 import com.carmoneypit.engine.service.CarDataService;
 import com.carmoneypit.engine.service.CarDataService.CarModel;
 import com.carmoneypit.engine.service.CarDataService.MajorFaults;
 import com.carmoneypit.engine.service.CarDataService.ModelReliability;
 import com.carmoneypit.engine.service.FaultHubService;
+import com.carmoneypit.engine.service.MileageProfile;
+import com.carmoneypit.engine.service.SlugCodec;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,14 +21,16 @@ import org.springframework.beans.factory.annotation.Value;
 public class SitemapController {
 
     private final CarDataService dataService;
+    private final FaultHubService faultHubService;
 
     private final String baseUrl;
     private final String lastModDate;
 
-    public SitemapController(CarDataService dataService,
+    public SitemapController(CarDataService dataService, FaultHubService faultHubService,
             @Value("${app.baseUrl:https://automoneypit.com}") String baseUrl,
             @Value("${app.datasetLastmod:2026-02-24}") String lastModDate) {
         this.dataService = dataService;
+        this.faultHubService = faultHubService;
         this.baseUrl = baseUrl;
         this.lastModDate = lastModDate;
     }
@@ -46,24 +51,24 @@ public class SitemapController {
         addUrl(xmlBuilder, baseUrl + "/guides/sunk-cost-fallacy-car-repairs", lastMod, "monthly", "0.55");
         addUrl(xmlBuilder, baseUrl + "/guides/car-repair-cost-vs-value", lastMod, "monthly", "0.55");
 
-        // 2. Fault Hub Pages (directory + 5 hubs)
+        // 2. Fault Hub Pages (directory + every hub in the current dataset)
         addUrl(xmlBuilder, baseUrl + "/faults", lastMod, "weekly", "0.5");
-        for (String slug : FaultHubService.ALLOWED_SLUGS.stream().sorted().toList()) {
+        for (String slug : faultHubService.getHubSlugs()) {
             addUrl(xmlBuilder, baseUrl + "/fault/" + slug, lastMod, "monthly", "0.45");
         }
 
         // 3. Directory Pages (Brands)
         List<String> brands = dataService.getAllBrands();
         for (String brand : brands) {
-            String brandSlug = normalize(brand);
+            String brandSlug = SlugCodec.slug(brand);
             addUrl(xmlBuilder, baseUrl + "/models/" + brandSlug, lastMod, "weekly", "0.75");
         }
 
         // 4. Model Directory & pSEO Pages
         List<CarModel> allModels = dataService.getAllModels();
         for (CarModel car : allModels) {
-            String brandSlug = normalize(car.brand());
-            String modelSlug = normalize(car.model());
+            String brandSlug = SlugCodec.slug(car.brand());
+            String modelSlug = SlugCodec.slug(car.model());
             Optional<ModelReliability> reliabilityOpt = dataService.findReliabilityByModelId(car.id());
             int representativeYear = selectRepresentativeYear(car, reliabilityOpt.orElse(null));
 
@@ -78,15 +83,14 @@ public class SitemapController {
             Optional<MajorFaults> faultsOpt = dataService.findFaultsByModelId(car.id());
             if (faultsOpt.isPresent()) {
                 for (CarDataService.Fault fault : faultsOpt.get().faults()) {
-                    String faultSlug = fault.component().toLowerCase().replace(" ", "-").replaceAll("[^a-z0-9-]", "");
+                    String faultSlug = SlugCodec.faultSlug(fault.component());
                     addUrl(xmlBuilder, baseUrl + "/verdict/" + brandSlug + "/" + modelSlug + "/" + faultSlug, lastMod,
                             "monthly", "0.65");
                 }
             }
 
             // Verdict Mileage Pages (Generate predictable buckets)
-            int[] mileageBuckets = { 50000, 75000, 100000, 125000, 150000, 175000, 200000 };
-            for (int miles : mileageBuckets) {
+            for (int miles : VerdictTableService.MILEAGE_BUCKETS) {
                 addUrl(xmlBuilder, baseUrl + "/verdict/" + brandSlug + "/" + modelSlug + "/" + miles + "-miles",
                         lastMod, "monthly", "0.55");
             }
@@ -105,21 +109,9 @@ public class SitemapController {
         builder.append("  </url>\n");
     }
 
-    private String normalize(String input) {
-        if (input == null)
-            return "";
-        return input.toLowerCase()
-                .replaceAll("[^a-z0-9]+", "-")
-                .replaceAll("^-|-$", "");
-    }
-
     private int selectRepresentativeYear(CarModel car, ModelReliability reliability) {
-        if (reliability != null && reliability.bestYears() != null && !reliability.bestYears().isEmpty()) {
-            return reliability.bestYears().stream()
-                    .filter(year -> year >= car.startYear() && year <= car.endYear())
-                    .max(Integer::compareTo)
-                    .orElse(car.endYear() > 0 ? car.endYear() : car.startYear());
-        }
-        return car.endYear() > 0 ? car.endYear() : car.startYear();
+        MileageProfile profile = dataService.findMileageProfile(car.id())
+                .orElseGet(() -> MileageProfile.of(reliability));
+        return VerdictTableService.representativeYear(car, profile);
     }
 }
@@ -0,0 +1,402 @@
+package com.carmoneypit.engine.web;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.InputValidator;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.carmoneypit.engine.core.BatchVerdictService;
+import com.carmoneypit.engine.core.BatchVerdictService.BatchMetrics;
+import com.carmoneypit.engine.core.BreakevenSolver;
+import com.carmoneypit.engine.core.DecisionEngine;
+import com.carmoneypit.engine.core.MonteCarloService;
+import com.carmoneypit.engine.core.OwnershipProjectionService;
+import com.carmoneypit.engine.core.ReplacementRecommender;
+import com.carmoneypit.engine.core.ReplacementRecommender.Replacement;
+import com.carmoneypit.engine.core.SellTimeSolver;
+import com.carmoneypit.engine.core.SensitivityGridService;
+import com.carmoneypit.engine.core.SensitivityGridService.GridSpec;
+import com.carmoneypit.engine.core.VerdictCache;
+import com.carmoneypit.engine.core.VerdictCache.CacheStats;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON API over the decision engine for partner integrations.
+ */
+@RestController
+public class VerdictApiController {
+
+    private final BatchVerdictService batchVerdictService;
+    private final DecisionEngine decisionEngine;
+    private final VerdictCache verdictCache;
+    private final SensitivityGridService sensitivityGridService;
+    private final BreakevenSolver breakevenSolver;
+    private final MonteCarloService monteCarloService;
+    private final OwnershipProjectionService projectionService;
+    private final SellTimeSolver sellTimeSolver;
+    private final ReplacementRecommender replacementRecommender;
+    private final VerdictPresenter presenter;
+
+    public VerdictApiController(BatchVerdictService batchVerdictService, DecisionEngine decisionEngine,
+            VerdictCache verdictCache,
+            SensitivityGridService sensitivityGridService, BreakevenSolver breakevenSolver,
+            MonteCarloService monteCarloService, OwnershipProjectionService projectionService,
+            SellTimeSolver sellTimeSolver, ReplacementRecommender replacementRecommender,
+            VerdictPresenter presenter) {
+        this.batchVerdictService = batchVerdictService;
+        this.decisionEngine = decisionEngine;
+        this.verdictCache = verdictCache;
+        this.sensitivityGridService = sensitivityGridService;
+        this.breakevenSolver = breakevenSolver;
+        this.monteCarloService = monteCarloService;
+        this.projectionService = projectionService;
+        this.sellTimeSolver = sellTimeSolver;
+        this.replacementRecommender = replacementRecommender;
+        this.presenter = presenter;
+    }
+
+    /**
+     * Scores a lot of vehicles. Body: JSON array or NDJSON of {@code {"id", "input", "controls"}};
+     * response: NDJSON, one line per item in input order, then a {@code {"summary": ...}} line.
+     * With {@code scoresOnly=true} each line carries only state, RF/RM and confidence.
+     * Partners only: {@link ApiAccessFilter} requires the API key before the body is read.
+     */
+    @PostMapping(value = "/api/v1/verdicts:batch",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> batch(HttpServletRequest request,
+            @RequestParam(value = "scoresOnly", defaultValue = "false") boolean scoresOnly) throws IOException {
+        if (!batchVerdictService.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Too many batches in progress; retry shortly"));
+        }
+
+        InputStream body = request.getInputStream();
+        StreamingResponseBody stream = out -> {
+            try {
+                batchVerdictService.stream(body, out, scoresOnly);
+            } finally {
+                batchVerdictService.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
+
+    /**
+     * Sensitivity grid for a shared result ({@code token} as in {@code /verdict?token=}): verdicts across
+     * mileage × repair quote, one layer per retention horizon. Axis params are optional.
+     */
+    @GetMapping(value = "/api/v1/verdicts:grid", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> grid(
+            @RequestParam("token") String token,
+            @RequestParam(value = "failureSeverity", required = false) FailureSeverity failureSeverity,
+            @RequestParam(value = "mobilityStatus", required = false) MobilityStatus mobilityStatus,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance,
+            @RequestParam(value = "minMileage", defaultValue = "0") long minMileage,
+            @RequestParam(value = "maxMileage", defaultValue = "0") long maxMileage,
+            @RequestParam(value = "mileageSteps", defaultValue = "0") int mileageSteps,
+            @RequestParam(value = "minQuote", defaultValue = "0") long minQuote,
+            @RequestParam(value = "maxQuote", defaultValue = "0") long maxQuote,
+            @RequestParam(value = "quoteSteps", defaultValue = "0") int quoteSteps) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        SimulationControls controls = new SimulationControls(failureSeverity, mobilityStatus, hassleTolerance, null);
+        GridSpec spec = new GridSpec(minMileage, maxMileage, mileageSteps, minQuote, maxQuote, quoteSteps);
+        return ResponseEntity.ok(sensitivityGridService.compute(input, controls, spec));
+    }
+
+    /** Same grid for an explicit vehicle. Body: {@code {"input", "controls", "spec"}}; controls and spec are optional. */
+    @PostMapping(value = "/api/v1/verdicts:grid", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> grid(@RequestBody GridRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        return ResponseEntity.ok(sensitivityGridService.compute(request.input(), request.controls(), request.spec()));
+    }
+
+    public record GridRequest(EngineInput input, SimulationControls controls, GridSpec spec) {
+    }
+
+    /**
+     * Repair quote and mileage at which the verdict for a shared result flips to BORDERLINE and TIME_BOMB,
+     * everything else held fixed.
+     */
+    @GetMapping(value = "/api/v1/verdicts:breakeven", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> breakeven(
+            @RequestParam("token") String token,
+            @RequestParam(value = "failureSeverity", required = false) FailureSeverity failureSeverity,
+            @RequestParam(value = "mobilityStatus", required = false) MobilityStatus mobilityStatus,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance,
+            @RequestParam(value = "retentionHorizon", required = false) RetentionHorizon retentionHorizon) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        SimulationControls controls = new SimulationControls(failureSeverity, mobilityStatus, hassleTolerance,
+                retentionHorizon);
+        return ResponseEntity.ok(breakevenSolver.solve(input, controls));
+    }
+
+    /** Same thresholds for an explicit vehicle. Body: {@code {"input", "controls"}}; controls are optional. */
+    @PostMapping(value = "/api/v1/verdicts:breakeven", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> breakeven(@RequestBody BreakevenRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        return ResponseEntity.ok(breakevenSolver.solve(request.input(), request.controls()));
+    }
+
+    public record BreakevenRequest(EngineInput input, SimulationControls controls) {
+    }
+
+    /**
+     * Uncertainty mode for a shared result: verdict shares and P10/P50/P90 regret bands over simulated
+     * scenarios. The same seed gives the same scenarios; without one, the seed is derived from the input.
+     */
+    @GetMapping(value = "/api/v1/verdicts:uncertainty", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> uncertainty(
+            @RequestParam("token") String token,
+            @RequestParam(value = "failureSeverity", required = false) FailureSeverity failureSeverity,
+            @RequestParam(value = "mobilityStatus", required = false) MobilityStatus mobilityStatus,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance,
+            @RequestParam(value = "retentionHorizon", required = false) RetentionHorizon retentionHorizon,
+            @RequestParam(value = "seed", required = false) Long seed,
+            @RequestParam(value = "scenarios", defaultValue = "0") int scenarios) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        SimulationControls controls = new SimulationControls(failureSeverity, mobilityStatus, hassleTolerance,
+                retentionHorizon);
+        return ResponseEntity.ok(monteCarloService.simulate(input, controls,
+                seed != null ? seed : MonteCarloService.seedFor(input), scenarios));
+    }
+
+    /** Same for an explicit vehicle. Body: {@code {"input", "controls", "seed", "scenarios"}}; all but input optional. */
+    @PostMapping(value = "/api/v1/verdicts:uncertainty", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> uncertainty(@RequestBody UncertaintyRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        long seed = request.seed() != null ? request.seed() : MonteCarloService.seedFor(request.input());
+        int scenarios = request.scenarios() != null ? request.scenarios() : 0;
+        return ResponseEntity.ok(monteCarloService.simulate(request.input(), request.controls(), seed, scenarios));
+    }
+
+    public record UncertaintyRequest(EngineInput input, SimulationControls controls, Long seed, Integer scenarios) {
+    }
+
+    /**
+     * Every controls combination for a shared result in one response, so the page can switch scenarios
+     * without a round-trip per slider move. See {@code OutputModels.ControlMatrix} for the layout.
+     */
+    @GetMapping(value = "/api/v1/verdicts:matrix", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> matrix(@RequestParam("token") String token) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        return ResponseEntity.ok(decisionEngine.scoreMatrix(input));
+    }
+
+    /** Same for an explicit vehicle. Body: {@code {"input"}}. */
+    @PostMapping(value = "/api/v1/verdicts:matrix", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> matrix(@RequestBody MatrixRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        return ResponseEntity.ok(decisionEngine.scoreMatrix(request.input()));
+    }
+
+    public record MatrixRequest(EngineInput input) {
+    }
+
+    /**
+     * Cost-of-ownership timeline for a shared result: cumulative fix vs sell spend for each month up to
+     * {@code months} (max 60). Only hassle tolerance changes the curves.
+     */
+    @GetMapping(value = "/api/v1/verdicts:projection", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> projection(
+            @RequestParam("token") String token,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance,
+            @RequestParam(value = "months", defaultValue = "60") int months) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        SimulationControls controls = new SimulationControls(null, null, hassleTolerance, null);
+        return ResponseEntity.ok(projectionService.project(input, controls, months));
+    }
+
+    /** Same for an explicit vehicle. Body: {@code {"input", "controls", "months"}}; controls and months optional. */
+    @PostMapping(value = "/api/v1/verdicts:projection", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> projection(@RequestBody ProjectionRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        int months = request.months() != null ? request.months() : OwnershipProjectionService.MAX_MONTHS;
+        return ResponseEntity.ok(projectionService.project(request.input(), request.controls(), months));
+    }
+
+    public record ProjectionRequest(EngineInput input, SimulationControls controls, Integer months) {
+    }
+
+    /**
+     * Cheapest month to sell a shared result's car within the projection horizon, with the total cost of exiting
+     * at every month. Only hassle tolerance changes the answer.
+     */
+    @GetMapping(value = "/api/v1/verdicts:sell-time", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> sellTime(
+            @RequestParam("token") String token,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        return ResponseEntity.ok(sellTimeSolver.solve(input, new SimulationControls(null, null, hassleTolerance, null)));
+    }
+
+    /** Same for an explicit vehicle. Body: {@code {"input", "controls"}}; controls optional. */
+    @PostMapping(value = "/api/v1/verdicts:sell-time", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> sellTime(@RequestBody SellTimeRequest request) {
+        String problem = InputValidator.validate(request == null ? null : request.input());
+        if (problem != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", problem));
+        }
+        return ResponseEntity.ok(sellTimeSolver.solve(request.input(), request.controls()));
+    }
+
+    public record SellTimeRequest(EngineInput input, SimulationControls controls) {
+    }
+
+    /**
+     * Cheapest catalog replacements in a segment by expected 3- or 5-year cost, optionally capped at a purchase
+     * budget.
+     */
+    @GetMapping(value = "/api/v1/replacements", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> replacements(
+            @RequestParam("segment") VehicleType segment,
+            @RequestParam(value = "budget", required = false) Long budget,
+            @RequestParam(value = "years", defaultValue = "5") int years,
+            @RequestParam(value = "limit", defaultValue = "" + ReplacementRecommender.DEFAULT_LIMIT) int limit) {
+        if (years != 3 && years != 5) {
+            return ResponseEntity.badRequest().body(Map.of("error", "years must be 3 or 5"));
+        }
+        return ResponseEntity.ok(replacementRecommender.recommend(segment, budget != null ? budget : Long.MAX_VALUE,
+                years, limit));
+    }
+
+    /**
+     * Replacements for a shared result's segment, each with the verdict re-scored against that replacement's
+     * price instead of the segment's base price.
+     */
+    @GetMapping(value = "/api/v1/verdicts:replacements", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> replacementVerdicts(
+            @RequestParam("token") String token,
+            @RequestParam(value = "budget", required = false) Long budget,
+            @RequestParam(value = "years", defaultValue = "5") int years,
+            @RequestParam(value = "limit", defaultValue = "" + ReplacementRecommender.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        if (years != 3 && years != 5) {
+            return ResponseEntity.badRequest().body(Map.of("error", "years must be 3 or 5"));
+        }
+        SimulationControls controls = new SimulationControls(null, null, hassleTolerance, null);
+        List<ReplacementVerdict> verdicts = replacementRecommender
+                .recommend(input.vehicleType(), budget != null ? budget : Long.MAX_VALUE, years, limit).stream()
+                .map(r -> new ReplacementVerdict(r, decisionEngine.score(input, controls, r.price())))
+                .toList();
+        return ResponseEntity.ok(verdicts);
+    }
+
+    public record ReplacementVerdict(Replacement replacement, VerdictScore verdict) {
+    }
+
+    /** A shared result's full verdict, line items included, with RM priced against one catalog replacement. */
+    @GetMapping(value = "/api/v1/verdicts:replacements/{modelId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> replacementVerdict(
+            @PathVariable("modelId") String modelId,
+            @RequestParam("token") String token,
+            @RequestParam(value = "hassleTolerance", required = false) HassleTolerance hassleTolerance) {
+        EngineInput input;
+        try {
+            input = presenter.decodeToken(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+        Optional<Replacement> replacement = replacementRecommender.find(modelId);
+        if (replacement.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SimulationControls controls = new SimulationControls(null, null, hassleTolerance, null);
+        return ResponseEntity.ok(new ReplacementResult(replacement.get(),
+                decisionEngine.simulate(input, controls, replacement.get().price())));
+    }
+
+    public record ReplacementResult(Replacement replacement, VerdictResult verdict) {
+    }
+
+    @GetMapping(value = "/api/v1/verdicts:batch/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public BatchMetrics batchMetrics() {
+        return batchVerdictService.metrics();
+    }
+
+    @GetMapping(value = "/api/v1/verdicts:cache/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CacheStats cacheMetrics() {
+        return verdictCache.stats();
+    }
+}
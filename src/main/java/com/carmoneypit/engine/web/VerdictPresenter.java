@@ -5,9 +5,11 @@ import com.carmoneypit.engine.api.InputModels.EngineInput;
 import com.carmoneypit.engine.api.InputModels.SimulationControls;
 
 import com.carmoneypit.engine.config.PartnerRoutingConfig;
+import com.carmoneypit.engine.core.BreakevenSolver;
 import com.carmoneypit.engine.core.ValuationService;
 import com.carmoneypit.engine.data.CarBrandData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 import java.util.Base64;
@@ -20,12 +22,20 @@ public class VerdictPresenter {
     private final ObjectMapper objectMapper;
     private final ValuationService valuationService;
     private final PartnerRoutingConfig routingConfig;
+    private final BreakevenSolver breakevenSolver;
 
     public VerdictPresenter(ObjectMapper objectMapper, ValuationService valuationService,
             PartnerRoutingConfig routingConfig) {
+        this(objectMapper, valuationService, routingConfig, null);
+    }
+
+    @Autowired
+    public VerdictPresenter(ObjectMapper objectMapper, ValuationService valuationService,
+            PartnerRoutingConfig routingConfig, BreakevenSolver breakevenSolver) {
         this.objectMapper = objectMapper;
         this.valuationService = valuationService;
         this.routingConfig = routingConfig;
+        this.breakevenSolver = breakevenSolver;
     }
 
     /**
@@ -50,6 +60,9 @@ public class VerdictPresenter {
         model.addAttribute("viewMode", viewMode);
         model.addAttribute("shareToken", token);
         model.addAttribute("controls", controls);
+        if (breakevenSolver != null) {
+            model.addAttribute("breakeven", breakevenSolver.solve(input, controls));
+        }
 
         if ("RECEIPT".equals(viewMode)) {
             model.addAttribute("ogTitle", getViralOgTitle(result.verdictState()));
@@ -0,0 +1,35 @@
+package com.carmoneypit.engine.api;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InputValidatorTest {
+
+    private static EngineInput input(VehicleType type, long mileage, long quote, long value) {
+        return new EngineInput("camry", type, "TOYOTA", 2015, mileage, quote, value, false, false);
+    }
+
+    @Test
+    void acceptsACompleteInput() {
+        assertNull(InputValidator.validate(input(VehicleType.SEDAN, 120_000, 3_000, 8_000)));
+        assertNull(InputValidator.validate(input(VehicleType.SEDAN, 0, 0, 0)));
+    }
+
+    @Test
+    void rejectsMissingInputOrVehicleType() {
+        assertEquals("Missing input", InputValidator.validate(null));
+        assertEquals("Missing input.vehicleType", InputValidator.validate(input(null, 120_000, 3_000, 8_000)));
+    }
+
+    @Test
+    void rejectsNegativeMileageQuoteOrValue() {
+        String negative = "Mileage, repair quote and value must not be negative";
+        assertEquals(negative, InputValidator.validate(input(VehicleType.SEDAN, -1, 3_000, 8_000)));
+        assertEquals(negative, InputValidator.validate(input(VehicleType.SEDAN, 120_000, -1, 8_000)));
+        assertEquals(negative, InputValidator.validate(input(VehicleType.SEDAN, 120_000, 3_000, -1)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.RegretCalculator.BatchKernel;
+import com.carmoneypit.engine.core.RegretCalculator.VehicleFactors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchKernelTest {
+
+    private RegretCalculator regretCalculator;
+
+    @BeforeEach
+    void setUp() {
+        regretCalculator = new EngineFixture().regretCalculator;
+    }
+
+    @Test
+    void matchesTheScalarPathBitForBit() {
+        // Threshold edges, pain-cap edges and random rows
+        long[] edgeMileages = { 0, 1, 99_999, 100_000, 100_001, 149_999, 150_000, 150_001, 290_000, 400_000 };
+        long[] edgeQuotes = { 0, 1, 999, 12_345, 99_999, 100_000, 250_000 };
+        SplittableRandom random = new SplittableRandom(42);
+        int n = edgeMileages.length * edgeQuotes.length + 500;
+        long[] mileages = new long[n];
+        long[] quotes = new long[n];
+        long[] values = new long[n];
+        int i = 0;
+        for (long mileage : edgeMileages) {
+            for (long quote : edgeQuotes) {
+                mileages[i] = mileage;
+                quotes[i] = quote;
+                values[i] = 1_000 + random.nextLong(60_000);
+                i++;
+            }
+        }
+        for (; i < n; i++) {
+            mileages[i] = random.nextLong(350_000);
+            quotes[i] = random.nextLong(30_000);
+            values[i] = random.nextLong(80_000);
+        }
+
+        String[][] cars = { { "Toyota", "Camry" }, { "BMW", "3 Series" }, { "Unknown", "" } };
+        int[] years = { 2008, 2016, 2024 };
+        for (String[] car : cars) {
+            for (int year : years) {
+                EngineInput vehicle = new EngineInput(car[1], VehicleType.SUV, car[0], year, 0, 0, 0, false, false);
+                VehicleFactors factors = regretCalculator.resolveFactors(vehicle);
+                for (SimulationControls controls : EngineFixture.allControls()) {
+                    BatchKernel kernel = regretCalculator.batchKernel(vehicle, controls, factors);
+                    double[] rf = new double[n];
+                    double[] rm = new double[n];
+                    kernel.score(mileages, quotes, values, rf, rm);
+
+                    for (int row = 0; row < n; row++) {
+                        EngineInput input = new EngineInput(car[1], VehicleType.SUV, car[0], year, mileages[row],
+                                quotes[row], values[row], false, false);
+                        assertEquals(regretCalculator.scoreRF(input, controls), rf[row], input + " / " + controls);
+                        assertEquals(regretCalculator.scoreRM(input, controls), rm[row], input + " / " + controls);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsMismatchedArrays() {
+        EngineInput vehicle = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2015, 0, 0, 0, false, false);
+        BatchKernel kernel = regretCalculator.batchKernel(vehicle, null, regretCalculator.resolveFactors(vehicle));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> kernel.score(new long[3], new long[3], new long[2], new double[3], new double[3]));
+    }
+}
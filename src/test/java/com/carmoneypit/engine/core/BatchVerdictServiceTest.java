@@ -0,0 +1,173 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.BatchVerdictService.BatchSummary;
+import com.carmoneypit.engine.core.BatchVerdictService.BatchVerdictRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchVerdictServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EngineFixture fixture;
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new EngineFixture();
+        decisionEngine = fixture.decisionEngine;
+    }
+
+    private List<BatchVerdictRequest> lot(int size) {
+        String[][] cars = { { "Toyota", "Camry" }, { "Honda", "Civic" }, { "Ford", "F-150" }, { "BMW", "X5" } };
+        List<BatchVerdictRequest> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String[] car = cars[i % cars.length];
+            EngineInput input = new EngineInput(car[1], VehicleType.values()[i % VehicleType.values().length], car[0],
+                    2008 + i % 15, 40_000 + i * 7_919L % 180_000, 500 + i * 313L % 6_000, 3_000 + i * 977L % 25_000,
+                    i % 2 == 0, i % 3 == 0);
+            SimulationControls controls = i % 4 == 0 ? null
+                    : new SimulationControls(FailureSeverity.values()[i % 3], MobilityStatus.values()[i % 2],
+                            HassleTolerance.values()[i % 3], RetentionHorizon.values()[i % 4]);
+            requests.add(new BatchVerdictRequest("car-" + i, input, controls));
+        }
+        return requests;
+    }
+
+    private List<JsonNode> run(BatchVerdictService service, byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.stream(new ByteArrayInputStream(body), out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @Test
+    void ndjsonResultsMatchSequentialEvaluationInInputOrder() throws IOException {
+        BatchVerdictService service = new BatchVerdictService(decisionEngine, objectMapper, 100_000, 4, 3);
+        List<BatchVerdictRequest> requests = lot(500);
+        StringBuilder ndjson = new StringBuilder();
+        for (BatchVerdictRequest request : requests) {
+            ndjson.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+
+        List<JsonNode> lines = run(service, ndjson.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(requests.size() + 1, lines.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BatchVerdictRequest request = requests.get(i);
+            var expected = request.controls() == null ? decisionEngine.evaluate(request.input())
+                    : decisionEngine.simulate(request.input(), request.controls());
+            assertEquals(i, lines.get(i).get("index").asInt());
+            assertEquals(request.id(), lines.get(i).get("id").asText());
+            assertEquals(objectMapper.writeValueAsString(expected), lines.get(i).get("verdict").toString());
+        }
+        JsonNode summary = lines.get(requests.size()).get("summary");
+        assertEquals(500, summary.get("items").asInt());
+        assertEquals(0, summary.get("errors").asInt());
+        assertEquals(500, service.metrics().items());
+        service.shutdown();
+    }
+
+    @Test
+    void jsonArrayIsAccepted() throws IOException {
+        BatchVerdictService service = new BatchVerdictService(decisionEngine, objectMapper, 100_000, 4, 2);
+        List<JsonNode> lines = run(service, objectMapper.writeValueAsBytes(lot(20)));
+
+        assertEquals(21, lines.size());
+        assertEquals("car-19", lines.get(19).get("id").asText());
+        assertNotNull(lines.get(19).get("verdict"));
+        service.shutdown();
+    }
+
+    @Test
+    void scoresOnlyModeWritesCompactLines() throws IOException {
+        BatchVerdictService service = new BatchVerdictService(decisionEngine, objectMapper, 100_000, 4, 2);
+        List<BatchVerdictRequest> requests = lot(12);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.stream(new ByteArrayInputStream(objectMapper.writeValueAsBytes(requests)), out, true);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(13, lines.length);
+        for (int i = 0; i < requests.size(); i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            BatchVerdictRequest request = requests.get(i);
+            assertNull(line.get("verdict"));
+            assertEquals(objectMapper.writeValueAsString(decisionEngine.score(request.input(), request.controls())),
+                    line.get("score").toString());
+        }
+        service.shutdown();
+    }
+
+    @Test
+    void batchRowsLeaveTheVerdictCacheUntouched() throws IOException {
+        VerdictCache verdictCache = new VerdictCache(fixture.carDataService, 1 << 20);
+        DecisionEngine cachedEngine = fixture.engine(verdictCache);
+        BatchVerdictService service = new BatchVerdictService(cachedEngine, objectMapper, 100_000, 4, 2);
+
+        List<JsonNode> lines = run(service, objectMapper.writeValueAsBytes(lot(40)));
+
+        assertEquals(41, lines.size());
+        BatchVerdictRequest request = lot(3).get(2);
+        assertEquals(objectMapper.writeValueAsString(decisionEngine.simulate(request.input(), request.controls())),
+                lines.get(2).get("verdict").toString());
+        assertEquals(0, verdictCache.stats().entries());
+        assertEquals(0, verdictCache.stats().misses());
+        service.shutdown();
+    }
+
+    @Test
+    void invalidItemsAreReportedAndTheRestStillScored() throws IOException {
+        BatchVerdictService service = new BatchVerdictService(decisionEngine, objectMapper, 100_000, 4, 2);
+        String body = objectMapper.writeValueAsString(lot(1).get(0)) + "\n"
+                + "{\"id\":\"empty\"}\n"
+                + objectMapper.writeValueAsString(lot(2).get(1)) + "\n"
+                + "{\"id\": oops\n";
+
+        List<JsonNode> lines = run(service, body.getBytes(StandardCharsets.UTF_8));
+
+        assertNotNull(lines.get(0).get("verdict"));
+        assertEquals("Missing input", lines.get(1).get("error").asText());
+        assertNotNull(lines.get(2).get("verdict"));
+        assertTrue(lines.get(3).get("error").asText().startsWith("Unreadable item"));
+        assertEquals(2, lines.get(4).get("summary").get("errors").asInt());
+        service.shutdown();
+    }
+
+    @Test
+    void itemsBeyondTheLimitAreNotEvaluated() throws IOException {
+        BatchVerdictService service = new BatchVerdictService(decisionEngine, objectMapper, 10, 1, 2);
+        List<JsonNode> lines = run(service, objectMapper.writeValueAsBytes(lot(25)));
+
+        assertEquals(12, lines.size()); // 10 results, limit notice, summary
+        assertTrue(lines.get(10).get("error").asText().contains("limit of 10"));
+        BatchSummary summary = objectMapper.treeToValue(lines.get(11).get("summary"), BatchSummary.class);
+        assertTrue(summary.truncated());
+        assertEquals(10, summary.items());
+
+        assertTrue(service.tryAcquire());
+        assertFalse(service.tryAcquire());
+        service.release();
+        assertEquals(1, service.metrics().rejectedBatches());
+        service.shutdown();
+    }
+}
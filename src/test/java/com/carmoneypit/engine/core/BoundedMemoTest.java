@@ -0,0 +1,64 @@
+package com.carmoneypit.engine.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedMemoTest {
+
+    @Test
+    void computesEachKeyOnce() {
+        BoundedMemo<Integer, String> memo = new BoundedMemo<>(1_000);
+        List<Integer> computed = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int key = 0; key < 100; key++) {
+                assertEquals("v" + key, memo.get(key, k -> {
+                    computed.add(k);
+                    return "v" + k;
+                }));
+            }
+        }
+        assertEquals(100, computed.size());
+        assertEquals(100, memo.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryInsteadOfClearing() {
+        // 32 entries over 16 stripes: two per stripe. Multiples of 16 all land in stripe 0.
+        BoundedMemo<Integer, String> memo = new BoundedMemo<>(32);
+        List<Integer> computed = new ArrayList<>();
+        for (int key = 0; key < 16; key++) {
+            memo.get(key, k -> "v" + k);
+        }
+        memo.get(16, k -> "v" + k);
+        memo.get(0, k -> "v" + k); // 0 is now more recent than 16
+        memo.get(32, k -> "v" + k); // stripe 0 is full: 16 goes
+
+        memo.get(0, k -> {
+            computed.add(k);
+            return "v" + k;
+        });
+        memo.get(16, k -> {
+            computed.add(k);
+            return "v" + k;
+        });
+        assertEquals(List.of(16), computed);
+        assertEquals(17, memo.size(), "the other stripes keep their entries");
+    }
+
+    @Test
+    void staysWithinItsBound() {
+        BoundedMemo<Integer, Integer> memo = new BoundedMemo<>(160);
+        for (int key = 0; key < 10_000; key++) {
+            memo.get(key, k -> k);
+        }
+        assertEquals(160, memo.size());
+
+        memo.clear();
+        assertEquals(0, memo.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.Breakeven;
+import com.carmoneypit.engine.api.OutputModels.VerdictState;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreakevenSolverTest {
+
+    private CarDataService carDataService;
+    private DecisionEngine decisionEngine;
+    private BreakevenSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+        decisionEngine = fixture.decisionEngine;
+        solver = new BreakevenSolver(fixture.regretCalculator);
+    }
+
+    /** The threshold is the first x that reaches the level; x - 1 does not. */
+    private void assertThreshold(Long threshold, VerdictState level, LongFunction<VerdictState> stateAt, long max,
+            String label) {
+        if (threshold == null) {
+            assertTrue(stateAt.apply(max).ordinal() < level.ordinal(), label);
+            return;
+        }
+        assertTrue(stateAt.apply(threshold).ordinal() >= level.ordinal(), label);
+        if (threshold > 0) {
+            assertTrue(stateAt.apply(threshold - 1).ordinal() < level.ordinal(), label);
+        }
+    }
+
+    @Test
+    void quoteThresholdsAreExact() {
+        String[][] cars = { { "Toyota", "Camry" }, { "BMW", "3 Series" }, { "Unknown", "" } };
+        long[] mileages = { 40_000, 100_000, 100_001, 149_000, 180_000, 320_000 };
+
+        for (String[] car : cars) {
+            for (long mileage : mileages) {
+                for (SimulationControls controls : EngineFixture.sampleControls()) {
+                    EngineInput input = new EngineInput(car[1], VehicleType.SUV, car[0], 2011, mileage, 2_000,
+                            9_000, false, true);
+                    Breakeven breakeven = solver.solve(input, controls);
+                    LongFunction<VerdictState> stateAt = quote -> decisionEngine.score(
+                            new EngineInput(car[1], VehicleType.SUV, car[0], 2011, mileage, quote, 9_000, false, true),
+                            controls).verdictState();
+                    String label = input + " / " + controls;
+
+                    assertEquals(decisionEngine.score(input, controls).verdictState(), breakeven.currentState());
+                    assertThreshold(breakeven.borderlineQuote(), VerdictState.BORDERLINE, stateAt,
+                            BreakevenSolver.MAX_QUOTE, label);
+                    assertThreshold(breakeven.timeBombQuote(), VerdictState.TIME_BOMB, stateAt,
+                            BreakevenSolver.MAX_QUOTE, label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mileageThresholdsAreExact() {
+        long[] quotes = { 0, 800, 3_500, 40_000 };
+
+        for (long quote : quotes) {
+            for (SimulationControls controls : EngineFixture.sampleControls()) {
+                EngineInput input = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2019, 60_000, quote, 14_000,
+                        false, false);
+                Breakeven breakeven = solver.solve(input, controls);
+                LongFunction<VerdictState> stateAt = mileage -> decisionEngine.score(
+                        new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2019, mileage, quote, 14_000, false,
+                                false),
+                        controls).verdictState();
+                String label = input + " / " + controls;
+
+                assertThreshold(breakeven.borderlineMileage(), VerdictState.BORDERLINE, stateAt,
+                        BreakevenSolver.MAX_MILEAGE, label);
+                assertThreshold(breakeven.timeBombMileage(), VerdictState.TIME_BOMB, stateAt,
+                        BreakevenSolver.MAX_MILEAGE, label);
+            }
+        }
+    }
+
+    @Test
+    void thresholdsMatchAFullSweep() {
+        SimulationControls controls = new SimulationControls(FailureSeverity.SUSPENSION_BRAKES,
+                MobilityStatus.DRIVABLE, HassleTolerance.WANT_NEW_CAR, RetentionHorizon.YEARS_3);
+        EngineInput input = new EngineInput("F-150", VehicleType.TRUCK_VAN, "Ford", 2009, 95_000, 1_000, 6_500,
+                false, true);
+        Breakeven breakeven = solver.solve(input, controls);
+
+        Long borderline = null;
+        Long timeBomb = null;
+        for (long quote = 0; quote <= 60_000 && timeBomb == null; quote++) {
+            VerdictState state = decisionEngine.score(new EngineInput("F-150", VehicleType.TRUCK_VAN, "Ford", 2009,
+                    95_000, quote, 6_500, false, true), controls).verdictState();
+            if (borderline == null && state != VerdictState.STABLE) {
+                borderline = quote;
+            }
+            if (state == VerdictState.TIME_BOMB) {
+                timeBomb = quote;
+            }
+        }
+        assertEquals(borderline, breakeven.borderlineQuote());
+        assertEquals(timeBomb, breakeven.timeBombQuote());
+    }
+
+    @Test
+    void pageResultsAreCachedUntilReload() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2015, 125_000, 900, 8_000, true,
+                true);
+
+        Breakeven first = solver.solveForPage(input);
+        assertSame(first, solver.solveForPage(input));
+
+        solver.onDatasetReloaded(new DatasetReloadedEvent(carDataService.snapshot(), carDataService.snapshot()));
+        Breakeven reloaded = solver.solveForPage(input);
+        assertNotSame(first, reloaded);
+        assertEquals(first, reloaded);
+    }
+}
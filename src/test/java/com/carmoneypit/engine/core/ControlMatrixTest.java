@@ -0,0 +1,55 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.ControlMatrix;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ControlMatrixTest {
+
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        decisionEngine = new EngineFixture().decisionEngine;
+    }
+
+    @Test
+    void everyCellMatchesASingleScore() {
+        EngineInput[] inputs = {
+                new EngineInput("Accord", VehicleType.SEDAN, "Honda", 2012, 142_000, 2_900, 7_800, false, true),
+                new EngineInput("3 Series", VehicleType.LUXURY, "BMW", 2015, 98_000, 6_500, 14_000, true, false),
+                new EngineInput("", VehicleType.TRUCK_VAN, "Unknown", 2008, 210_000, 900, 3_000, false, false) };
+
+        for (EngineInput input : inputs) {
+            ControlMatrix matrix = decisionEngine.scoreMatrix(input);
+            int mobilities = matrix.mobilityStatuses().size();
+            int hassles = matrix.hassleTolerances().size();
+            int horizons = matrix.retentionHorizons().size();
+
+            assertEquals(90, matrix.states().length());
+            assertEquals(90, matrix.stayTotals().length);
+            assertEquals(decisionEngine.score(input, null).confidence(), matrix.confidence());
+            for (int s = 0; s < matrix.failureSeverities().size(); s++)
+                for (int m = 0; m < mobilities; m++)
+                    for (int h = 0; h < hassles; h++)
+                        for (int r = 0; r < horizons; r++) {
+                            SimulationControls controls = new SimulationControls(matrix.failureSeverities().get(s),
+                                    matrix.mobilityStatuses().get(m), matrix.hassleTolerances().get(h),
+                                    matrix.retentionHorizons().get(r));
+                            VerdictScore expected = decisionEngine.score(input, controls);
+                            int index = ((s * mobilities + m) * hassles + h) * horizons + r;
+
+                            assertEquals(expected.verdictState().ordinal(), matrix.states().charAt(index) - '0',
+                                    input + " / " + controls);
+                            assertEquals(Math.round(expected.stayTotal()), matrix.stayTotals()[index]);
+                            assertEquals(Math.round(expected.moveTotal()), matrix.moveTotals()[index]);
+                        }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.carmoneypit.engine.core;
 
 import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
 import com.carmoneypit.engine.api.InputModels.VehicleType;
 import com.carmoneypit.engine.data.CarBrandData;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +16,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DecisionEngineTest {
@@ -72,4 +76,16 @@ class DecisionEngineTest {
         assertEquals(4100L, result.economicContext().totalSwitchingFriction());
         assertEquals(920L, result.economicContext().avgMonthlyPayment());
     }
+
+    @Test
+    void scoringOneInputUnderManyControlsRanksItsQuoteOnce() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "TOYOTA", 2014, 120000, 2800, 7000, false,
+                false);
+        for (HassleTolerance hassle : HassleTolerance.values()) {
+            decisionEngine.score(input, new SimulationControls(null, null, hassle, null));
+        }
+        decisionEngine.scoreMatrix(input);
+
+        verify(regretCalculator, times(1)).rankQuote(input);
+    }
 }
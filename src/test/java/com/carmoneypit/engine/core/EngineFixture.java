@@ -0,0 +1,78 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.service.CarDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The engine stack over the bundled dataset, wired the way the application wires it. Build one per test:
+ * tests publish snapshots and fill caches, so nothing is shared between them.
+ */
+final class EngineFixture {
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+    final CarDataService carDataService = new CarDataService(objectMapper);
+    final ValuationService valuationService = new ValuationService(objectMapper, carDataService);
+    final RegretCalculator regretCalculator;
+    final DecisionEngine decisionEngine;
+
+    EngineFixture() {
+        valuationService.init();
+        regretCalculator = new RegretCalculator(carDataService, valuationService);
+        decisionEngine = new DecisionEngine(regretCalculator, new CostOfInactionCalculator(), valuationService);
+    }
+
+    /** A second engine over the same services, with its own verdict cache. */
+    DecisionEngine engine(VerdictCache verdictCache) {
+        return new DecisionEngine(regretCalculator, new CostOfInactionCalculator(), valuationService, verdictCache);
+    }
+
+    /** Projection at the default driving pace of 1,000 miles a month. */
+    OwnershipProjectionService projectionService() {
+        return new OwnershipProjectionService(regretCalculator, carDataService, valuationService, 1000);
+    }
+
+    /** No controls, then every combination of the four controls, each also left unset. */
+    static List<SimulationControls> allControls() {
+        List<SimulationControls> all = new ArrayList<>();
+        all.add(null);
+        for (FailureSeverity severity : withUnset(FailureSeverity.values()))
+            for (MobilityStatus mobility : withUnset(MobilityStatus.values()))
+                for (HassleTolerance hassle : withUnset(HassleTolerance.values()))
+                    for (RetentionHorizon horizon : withUnset(RetentionHorizon.values()))
+                        all.add(new SimulationControls(severity, mobility, hassle, horizon));
+        return all;
+    }
+
+    /**
+     * A cheaper sweep for tests that solve or differentiate per input: no controls, every severity, hassle
+     * and horizon on a drivable car, and two towed cars at the extremes.
+     */
+    static List<SimulationControls> sampleControls() {
+        List<SimulationControls> samples = new ArrayList<>();
+        samples.add(null);
+        for (FailureSeverity severity : FailureSeverity.values())
+            for (HassleTolerance hassle : HassleTolerance.values())
+                for (RetentionHorizon horizon : RetentionHorizon.values())
+                    samples.add(new SimulationControls(severity, MobilityStatus.DRIVABLE, hassle, horizon));
+        samples.add(new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION, MobilityStatus.NEEDS_TOW,
+                HassleTolerance.HATE_SWITCHING, null));
+        samples.add(new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION, MobilityStatus.NEEDS_TOW,
+                HassleTolerance.WANT_NEW_CAR, RetentionHorizon.YEARS_5));
+        return samples;
+    }
+
+    private static <T> List<T> withUnset(T[] values) {
+        List<T> out = new ArrayList<>(Arrays.asList(values));
+        out.add(null);
+        return out;
+    }
+}
@@ -0,0 +1,130 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.FinancialLineItem;
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import com.carmoneypit.engine.service.MileageProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HorizonCostTest {
+
+    private CarDataService carDataService;
+    private ValuationService valuationService;
+    private RegretCalculator regretCalculator;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+        valuationService = fixture.valuationService;
+        regretCalculator = fixture.regretCalculator;
+    }
+
+    private static SimulationControls horizon(RetentionHorizon h) {
+        return new SimulationControls(FailureSeverity.SUSPENSION_BRAKES, MobilityStatus.DRIVABLE,
+                HassleTolerance.NEUTRAL, h);
+    }
+
+    // Milestones of $350 at 100k and $4,500 at 150k: one under every allowance, one over all of them
+    private static EngineInput silverado(long mileage) {
+        return new EngineInput("Silverado 1500", VehicleType.TRUCK_VAN, "Chevrolet", 2016, mileage, 1_500, 9_000,
+                false, false);
+    }
+
+    private double horizonCost(RegretCalculator calculator, EngineInput input, RetentionHorizon h) {
+        return calculator.calculateRF(input, horizon(h)).items().stream()
+                .filter(item -> item.label().equals("Ownership Window Contingency"))
+                .mapToDouble(FinancialLineItem::amount)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static final double[] ALLOWANCE = { 800, 1200, 2500, 3000 };
+
+    @Test
+    void horizonCostIsTheMilestoneSpendWithTheAllowanceAsFloor() {
+        MileageProfile profile = regretCalculator.resolveFactors(silverado(0)).milestones();
+        assertEquals(2, profile.milestones().size());
+
+        for (RetentionHorizon h : RetentionHorizon.values()) {
+            long window = regretCalculator.horizonMiles(h);
+            for (Milestone milestone : profile.milestones()) {
+                int at = milestone.mileage();
+                for (long mileage : new long[] { at - window - 1, at - window, at - 1, at - 500 }) {
+                    long expected = profile.milestones().stream()
+                            .filter(m -> m.mileage() > mileage && m.mileage() <= mileage + window)
+                            .mapToLong(Milestone::estCost).sum();
+                    assertEquals(Math.max(ALLOWANCE[h.ordinal()], expected),
+                            horizonCost(regretCalculator, silverado(mileage), h), 1e-9, h + " @" + mileage);
+                }
+            }
+        }
+        // A milestone under the allowance is covered by it, not charged on top
+        assertEquals(ALLOWANCE[RetentionHorizon.YEARS_1.ordinal()],
+                horizonCost(regretCalculator, silverado(99_000), RetentionHorizon.YEARS_1), 1e-9);
+        assertEquals(4_500, horizonCost(regretCalculator, silverado(149_000), RetentionHorizon.YEARS_1), 1e-9);
+    }
+
+    @Test
+    void flatAllowanceOnceNoMilestoneIsAheadOrNoneIsOnRecord() {
+        EngineInput pastEveryMilestone = silverado(400_000);
+        EngineInput unknown = new EngineInput("Unknown", VehicleType.SEDAN, "Unknown", 2014, 80_000, 1_500, 9_000,
+                false, false);
+        for (RetentionHorizon h : RetentionHorizon.values()) {
+            assertEquals(ALLOWANCE[h.ordinal()], horizonCost(regretCalculator, pastEveryMilestone, h), 1e-9);
+            assertEquals(ALLOWANCE[h.ordinal()], horizonCost(regretCalculator, unknown, h), 1e-9);
+        }
+    }
+
+    @Test
+    void neverBelowTheAllowanceAndLongerHorizonsNeverCostLess() {
+        for (long mileage = 0; mileage <= 250_000; mileage += 2_500) {
+            double previous = 0;
+            for (RetentionHorizon h : RetentionHorizon.values()) {
+                double cost = horizonCost(regretCalculator, silverado(mileage), h);
+                assertTrue(cost >= ALLOWANCE[h.ordinal()], h + " @" + mileage);
+                assertTrue(cost >= previous, h + " @" + mileage);
+                previous = cost;
+            }
+        }
+    }
+
+    @Test
+    void drivingPaceWidensTheWindow() {
+        RegretCalculator slow = new RegretCalculator(carDataService, valuationService, 500);
+        RegretCalculator fast = new RegretCalculator(carDataService, valuationService, 2_000);
+        assertEquals(6_000, slow.horizonMiles(RetentionHorizon.YEARS_1));
+        assertEquals(24_000, fast.horizonMiles(RetentionHorizon.YEARS_1));
+
+        EngineInput input = silverado(140_000);
+        assertTrue(horizonCost(fast, input, RetentionHorizon.YEARS_1) > horizonCost(slow, input,
+                RetentionHorizon.YEARS_1));
+    }
+
+    @Test
+    void milestoneWindowEdgesAreMileageBreakpoints() {
+        EngineInput input = silverado(50_000);
+        SimulationControls controls = horizon(RetentionHorizon.YEARS_3);
+        long window = regretCalculator.horizonMiles(RetentionHorizon.YEARS_3);
+        long[] breakpoints = regretCalculator.mileageBreakpoints(input, controls);
+
+        for (Milestone milestone : regretCalculator.resolveFactors(input).milestones().milestones()) {
+            assertTrue(Arrays.binarySearch(breakpoints, milestone.mileage() - 1L) >= 0);
+            assertTrue(Arrays.binarySearch(breakpoints, milestone.mileage() - window - 1) >= 0);
+        }
+        assertEquals(regretCalculator.mileageBreakpoints(input).length,
+                regretCalculator.mileageBreakpoints(input, null).length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IncrementalSimulateTest {
+
+    private ObjectMapper objectMapper;
+    private CarDataService carDataService;
+    private ValuationService valuationService;
+    private RegretCalculator regretCalculator;
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        objectMapper = fixture.objectMapper;
+        carDataService = fixture.carDataService;
+        valuationService = fixture.valuationService;
+        regretCalculator = fixture.regretCalculator;
+        decisionEngine = fixture.decisionEngine;
+    }
+
+    /** A fresh engine and calculator per call: nothing memoized. */
+    private DecisionEngine coldEngine() {
+        return new DecisionEngine(new RegretCalculator(carDataService, valuationService),
+                new CostOfInactionCalculator(), valuationService);
+    }
+
+    @Test
+    void sliderSweepMatchesColdEvaluation() {
+        EngineInput input = new EngineInput("Accord", VehicleType.SEDAN, "Honda", 2012, 142_000, 2_900, 7_800, false,
+                true);
+
+        for (FailureSeverity severity : FailureSeverity.values())
+            for (MobilityStatus mobility : MobilityStatus.values())
+                for (HassleTolerance hassle : HassleTolerance.values())
+                    for (RetentionHorizon horizon : RetentionHorizon.values()) {
+                        SimulationControls controls = new SimulationControls(severity, mobility, hassle, horizon);
+                        assertEquals(coldEngine().simulate(input, controls), decisionEngine.simulate(input, controls),
+                                controls.toString());
+                    }
+    }
+
+    @Test
+    void factorsAreMemoizedPerModelAndType() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2014, 90_000, 1_200, 9_500, false,
+                false);
+        EngineInput sameCarOtherQuote = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2009, 190_000, 4_000,
+                3_000, true, true);
+
+        assertSame(regretCalculator.resolveFactors(input), regretCalculator.resolveFactors(sameCarOtherQuote));
+    }
+
+    @Test
+    void reloadStartsFreshFactors() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2014, 90_000, 1_200, 9_500, false,
+                false);
+        var before = regretCalculator.resolveFactors(input);
+        VerdictResult cached = decisionEngine.simulate(input, null);
+
+        var previous = carDataService.snapshot();
+        carDataService.publish(new CarDataService(objectMapper).snapshot());
+        decisionEngine.onDatasetReloaded(new DatasetReloadedEvent(previous, carDataService.snapshot()));
+
+        var after = regretCalculator.resolveFactors(input);
+        assertNotSame(before, after);
+        assertEquals(before, after);
+        assertEquals(cached, decisionEngine.simulate(input, null));
+    }
+}
@@ -0,0 +1,170 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.MonteCarloService.UncertaintyResult;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloServiceTest {
+
+    private RegretCalculator regretCalculator;
+
+    @BeforeEach
+    void setUp() {
+        regretCalculator = new EngineFixture().regretCalculator;
+    }
+
+    private MonteCarloService service(int maxScenarios) {
+        return new MonteCarloService(regretCalculator, maxScenarios, 60_000);
+    }
+
+    private static EngineInput input(boolean quoteEstimated) {
+        return new EngineInput("F-150", VehicleType.TRUCK_VAN, "Ford", 2016, 120_000, 3_000, 14_000, quoteEstimated,
+                false);
+    }
+
+    @Test
+    void sameSeedGivesSameScenarios() {
+        SimulationControls controls = new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION,
+                MobilityStatus.DRIVABLE, HassleTolerance.NEUTRAL, RetentionHorizon.YEARS_1);
+        MonteCarloService service = service(8_192);
+
+        UncertaintyResult first = service.simulate(input(true), controls, 42L, 8_192);
+        UncertaintyResult second = service.simulate(input(true), controls, 42L, 8_192);
+        UncertaintyResult other = service.simulate(input(true), controls, 43L, 8_192);
+
+        assertEquals(first.scenarios(), second.scenarios());
+        assertEquals(first.stableShare(), second.stableShare());
+        assertEquals(first.timeBombShare(), second.timeBombShare());
+        assertEquals(first.stay(), second.stay());
+        assertEquals(first.move(), second.move());
+        assertEquals(first.margin(), second.margin());
+        assertNotEquals(first.stay(), other.stay());
+    }
+
+    @Test
+    void sharesAndBandsAreConsistent() {
+        UncertaintyResult result = service(20_000).simulate(input(true), null, 7L, 0);
+
+        assertEquals(1.0, result.stableShare() + result.borderlineShare() + result.timeBombShare(), 1e-9);
+        assertTrue(result.stay().p10() <= result.stay().p50() && result.stay().p50() <= result.stay().p90());
+        assertTrue(result.move().p10() <= result.move().p50() && result.move().p50() <= result.move().p90());
+        assertTrue(result.margin().p10() <= result.margin().p50() && result.margin().p50() <= result.margin().p90());
+        assertEquals(0, result.scenarios() % MonteCarloService.CHUNK_SIZE);
+        assertTrue(result.scenarios() <= 20_000 + MonteCarloService.CHUNK_SIZE);
+    }
+
+    @Test
+    void stopsEarlyOnceSharesConverge() {
+        // A firm quote on an unknown model: the verdict hinges on a single failure coin flip
+        EngineInput input = new EngineInput("", VehicleType.SEDAN, "Unknown", 2020, 30_000, 200, 20_000, false, false);
+
+        UncertaintyResult result = service(200_000).simulate(input, null, 1L, 0);
+
+        assertTrue(result.converged());
+        assertFalse(result.budgetExhausted());
+        assertTrue(result.scenarios() < 200_000);
+        assertTrue(MonteCarloService.hasConverged(new int[] {
+                (int) Math.round(result.stableShare() * result.scenarios()),
+                (int) Math.round(result.borderlineShare() * result.scenarios()),
+                (int) Math.round(result.timeBombShare() * result.scenarios()) }, result.scenarios()));
+    }
+
+    @Test
+    void latencyBudgetCapsTheRun() {
+        MonteCarloService tight = new MonteCarloService(regretCalculator, 10_000_000, 1);
+
+        UncertaintyResult result = tight.simulate(input(true), null, 3L, 0);
+
+        assertTrue(result.scenarios() < 10_000_000);
+        assertTrue(result.converged() || result.budgetExhausted());
+        assertEquals(!result.budgetExhausted(), result.reproducible());
+    }
+
+    @Test
+    void budgetStoppedRunIsReproducedFromItsScenarioCount() {
+        UncertaintyResult cut = new MonteCarloService(regretCalculator, 10_000_000, 1).simulate(input(true), null,
+                3L, 0);
+
+        UncertaintyResult replay = service(10_000_000).simulate(input(true), null, 3L, cut.scenarios());
+
+        assertTrue(replay.reproducible());
+        assertEquals(cut.scenarios(), replay.scenarios());
+        assertEquals(cut.stableShare(), replay.stableShare());
+        assertEquals(cut.stay(), replay.stay());
+        assertEquals(cut.margin(), replay.margin());
+    }
+
+    @Test
+    void defaultSeedFollowsTheFields() {
+        EngineInput same = new EngineInput("F-150", VehicleType.TRUCK_VAN, "Ford", 2016, 120_000, 3_000, 14_000,
+                true, false);
+        EngineInput otherMileage = new EngineInput("F-150", VehicleType.TRUCK_VAN, "Ford", 2016, 120_001, 3_000,
+                14_000, true, false);
+
+        assertEquals(MonteCarloService.seedFor(input(true)), MonteCarloService.seedFor(same));
+        assertNotEquals(MonteCarloService.seedFor(input(true)), MonteCarloService.seedFor(otherMileage));
+        assertNotEquals(MonteCarloService.seedFor(input(true)), MonteCarloService.seedFor(input(false)));
+    }
+
+    @Test
+    void breakdownIsDrawnAroundTheDeterministicRisk() {
+        // No fault data and a firm quote: the only randomness is whether the next failure happens, and its cost
+        EngineInput input = new EngineInput("", VehicleType.SEDAN, "Unknown", 2012, 160_000, 1_500, 6_000, false,
+                false);
+        double deterministic = regretCalculator.scoreRF(input, null);
+        double noFailure = deterministic - regretCalculator.riskRegret(input, null,
+                regretCalculator.resolveFactors(input));
+
+        UncertaintyResult result = service(200_000).simulate(input, null, 9L, 200_000);
+
+        // Failure probability is 0.70 here: P10 is a scenario without a failure, P90 one with it
+        assertEquals(noFailure, result.stay().p10(), 1e-6);
+        assertTrue(result.stay().p90() > deterministic);
+        // RM does not depend on breakdowns, and a firm quote does not move
+        assertEquals(result.move().p10(), result.move().p90());
+    }
+
+    @Test
+    void breakdownCostsWhatThePointVerdictCharges() {
+        // A firm quote on a model with fault data: a failing scenario pays the costliest fault, from its range
+        EngineInput input = input(false);
+        RegretCalculator.VehicleFactors factors = regretCalculator.resolveFactors(input);
+        Fault costliest = regretCalculator.modelFaults(input).stream()
+                .max(Comparator.comparingDouble(Fault::repairCost)).orElseThrow();
+        assertEquals(costliest.repairCost(), factors.majorCostBase());
+        double noFailure = regretCalculator.scoreRF(input, null) - regretCalculator.riskRegret(input, null, factors);
+
+        UncertaintyResult result = service(20_000).simulate(input, null, 11L, 20_000);
+
+        double p = regretCalculator.failureProbability(input, null);
+        assertTrue(p > 0.1 && p < 0.9);
+        assertEquals(noFailure, result.stay().p10(), 1e-6);
+        assertTrue(result.stay().p90() >= noFailure + costliest.repairCostLow());
+        assertTrue(result.stay().p90() <= noFailure + costliest.repairCostHigh());
+    }
+
+    @Test
+    void triangularStaysWithinBounds() {
+        SplittableRandom random = new SplittableRandom(5);
+        double sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            double x = MonteCarloService.triangular(random, 100, 400, 1_000);
+            assertTrue(x >= 100 && x <= 1_000);
+            sum += x;
+        }
+        assertEquals((100 + 400 + 1_000) / 3.0, sum / 100_000, 5.0);
+    }
+}
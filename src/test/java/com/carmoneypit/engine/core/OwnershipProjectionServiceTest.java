@@ -0,0 +1,91 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.OwnershipProjectionService.OwnershipTimeline;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnershipProjectionServiceTest {
+
+    private CarDataService carDataService;
+    private ValuationService valuationService;
+    private RegretCalculator regretCalculator;
+    private OwnershipProjectionService projectionService;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+        valuationService = fixture.valuationService;
+        regretCalculator = fixture.regretCalculator;
+        projectionService = fixture.projectionService();
+    }
+
+    @Test
+    void monthZeroIsTodaysOutlay() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 120_000, 2_400, 9_000, false,
+                false);
+        SimulationControls controls = new SimulationControls(null, null, HassleTolerance.HATE_SWITCHING, null);
+
+        OwnershipTimeline timeline = projectionService.project(input, controls, 60);
+
+        assertEquals(60, timeline.months());
+        assertEquals(61, timeline.fixTotal().length);
+        assertEquals(2_400, timeline.fixTotal()[0]);
+        assertEquals(Math.round(RegretCalculator.transactionFriction(controls)
+                + 9_000 * RegretCalculator.TRADE_IN_SPREAD_RATE), timeline.sellTotal()[0]);
+        for (int m = 1; m <= 60; m++) {
+            assertTrue(timeline.fixTotal()[m] >= timeline.fixTotal()[m - 1]);
+            assertTrue(timeline.sellTotal()[m] >= timeline.sellTotal()[m - 1]);
+        }
+    }
+
+    @Test
+    void milestonesLandInTheMonthTheOdometerPassesThem() {
+        EngineInput probe = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 0, 0, 9_000, false, false);
+        String modelId = regretCalculator.resolveModel(probe).orElseThrow().id();
+        Milestone milestone = carDataService.findReliabilityByModelId(modelId).orElseThrow().criticalMilestones()
+                .get(0);
+
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, milestone.mileage() - 500,
+                1_000, 9_000, false, false);
+        OwnershipTimeline timeline = projectionService.project(input, null, 12);
+
+        assertEquals(0, timeline.fixRepairs()[0]);
+        assertTrue(timeline.fixRepairs()[1] >= milestone.estCost());
+    }
+
+    @Test
+    void extendingTheHorizonKeepsEarlierMonths() {
+        EngineInput input = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2016, 80_000, 1_500, 12_000, true,
+                false);
+
+        OwnershipTimeline shortRun = projectionService.project(input, null, 12);
+        OwnershipTimeline longRun = projectionService.project(input, null, 60);
+        OwnershipTimeline fresh = new OwnershipProjectionService(regretCalculator, carDataService, valuationService,
+                1000).project(input, null, 60);
+
+        assertArrayEquals(shortRun.fixTotal(), Arrays.copyOf(longRun.fixTotal(), 13));
+        assertArrayEquals(shortRun.sellTotal(), Arrays.copyOf(longRun.sellTotal(), 13));
+        assertArrayEquals(fresh.fixTotal(), longRun.fixTotal());
+        assertArrayEquals(fresh.sellTotal(), longRun.sellTotal());
+        assertEquals(fresh.sellCheaperFromMonth(), longRun.sellCheaperFromMonth());
+    }
+
+    @Test
+    void monthsAreClamped() {
+        EngineInput input = new EngineInput("", VehicleType.SUV, "Unknown", 2010, 150_000, 0, 5_000, false, true);
+
+        assertEquals(OwnershipProjectionService.MAX_MONTHS, projectionService.project(input, null, 500).months());
+        assertEquals(1, projectionService.project(input, null, 0).months());
+    }
+}
@@ -0,0 +1,92 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.QuoteRank;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.carmoneypit.engine.service.FaultCostSketches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteRankTest {
+
+    private RegretCalculator regretCalculator;
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        regretCalculator = fixture.regretCalculator;
+        decisionEngine = fixture.decisionEngine;
+    }
+
+    @Test
+    void sketchPercentilesFollowThePeerRanges() {
+        FaultCostSketches sketches = FaultCostSketches.build(
+                List.of(new CarModel("a", "HONDA", "Accord", "9G", 2013, 2017, VehicleType.SEDAN),
+                        new CarModel("b", "NISSAN", "Altima", "L33", 2013, 2018, VehicleType.SEDAN)),
+                Map.of("a", new MajorFaults("a", List.of(new Fault("CVT Failure", "", 3_000, "", 0.2, 90_000,
+                        2_000, 4_000))),
+                        "b", new MajorFaults("b", List.of(new Fault("CVT Transmission", "", 5_000, "", 0.3, 100_000)))));
+        FaultCostSketches.Sketch cvt = sketches.sketch("cvt-transmission").orElseThrow();
+
+        assertEquals(2, cvt.faults());
+        assertEquals(0, cvt.percentile(1_000));
+        assertEquals(100, cvt.percentile(10_000));
+        double previous = -1;
+        for (int cost = 1_500; cost <= 7_000; cost += 250) {
+            double percentile = cvt.percentile(cost);
+            assertTrue(percentile >= previous, "percentile must not fall as the quote rises");
+            previous = percentile;
+        }
+        assertEquals(50, cvt.percentile(cvt.quantile(0.5)), 1e-9);
+        assertTrue(sketches.sketch("timing-chain").isEmpty());
+    }
+
+    @Test
+    void realQuotesAreRankedAgainstTheClosestPricedFault() {
+        EngineInput typical = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 120_000, 2_500, 9_000, false,
+                false);
+        QuoteRank probe = regretCalculator.rankQuote(typical).orElseThrow();
+        long median = (probe.typicalLow() + probe.typicalHigh()) / 2;
+
+        QuoteRank rank = regretCalculator.rankQuote(withQuote(typical, median)).orElseThrow();
+        assertFalse(rank.outlier());
+        assertTrue(rank.percentile() > 5 && rank.percentile() < 95);
+        assertFalse(rank.component().isBlank());
+
+        assertTrue(regretCalculator.rankQuote(withQuote(typical, 500_000)).orElseThrow().outlier());
+        assertTrue(regretCalculator.rankQuote(new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 120_000,
+                2_500, 9_000, true, false)).isEmpty());
+        assertTrue(regretCalculator.rankQuote(new EngineInput("Other", VehicleType.SEDAN, "Toyota", 2013, 120_000,
+                2_500, 9_000, false, false)).isEmpty());
+    }
+
+    @Test
+    void outlierQuotesLowerConfidenceOnEveryPath() {
+        EngineInput typical = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 120_000, 2_500, 9_000, false,
+                false);
+        QuoteRank probe = regretCalculator.rankQuote(typical).orElseThrow();
+        EngineInput usual = withQuote(typical, (probe.typicalLow() + probe.typicalHigh()) / 2);
+        EngineInput outlier = withQuote(typical, 500_000);
+
+        var usualResult = decisionEngine.evaluate(usual);
+        var outlierResult = decisionEngine.evaluate(outlier);
+        assertNotNull(outlierResult.quoteRank());
+        assertTrue(outlierResult.confidence() < usualResult.confidence());
+        assertEquals(outlierResult.confidence(), decisionEngine.score(outlier, null).confidence());
+        assertEquals(outlierResult.confidence(), decisionEngine.scoreMatrix(outlier).confidence());
+    }
+
+    private static EngineInput withQuote(EngineInput input, long quote) {
+        return new EngineInput(input.model(), input.vehicleType(), input.brand(), input.year(), input.mileage(), quote,
+                input.currentValueUsd(), false, input.isValueEstimated());
+    }
+}
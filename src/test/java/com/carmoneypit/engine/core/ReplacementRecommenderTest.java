@@ -0,0 +1,121 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.carmoneypit.engine.core.ReplacementRecommender.Replacement;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplacementRecommenderTest {
+
+    private CarDataService carDataService;
+    private ValuationService valuationService;
+    private DecisionEngine decisionEngine;
+    private ReplacementRecommender recommender;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+        valuationService = fixture.valuationService;
+        decisionEngine = fixture.decisionEngine;
+        recommender = new ReplacementRecommender(carDataService, fixture.projectionService());
+        recommender.init();
+    }
+
+    private List<Replacement> bruteForce(VehicleType segment, long budget, int years, int limit) {
+        Comparator<Replacement> byCost = Comparator
+                .comparingLong((Replacement r) -> years == 3 ? r.cost3Years() : r.cost5Years())
+                .thenComparingLong(Replacement::price);
+        return carDataService.getAllModels().stream()
+                .map(CarModel::id)
+                .distinct()
+                .map(recommender::find)
+                .flatMap(Optional::stream)
+                .filter(r -> r.segment() == segment && r.price() <= budget)
+                .sorted(byCost)
+                .limit(limit)
+                .toList();
+    }
+
+    @Test
+    void topKMatchesAFullSort() {
+        for (VehicleType segment : VehicleType.values()) {
+            for (long budget : new long[] { 0, 12_000, 20_000, 35_000, Long.MAX_VALUE }) {
+                for (int years : new int[] { 3, 5 }) {
+                    List<Replacement> picks = recommender.recommend(segment, budget, years, 5);
+                    List<Replacement> expected = bruteForce(segment, budget, years, 5);
+
+                    assertEquals(expected.size(), picks.size(), segment + " " + budget);
+                    for (int i = 0; i < picks.size(); i++) {
+                        long cost = years == 3 ? picks.get(i).cost3Years() : picks.get(i).cost5Years();
+                        long expectedCost = years == 3 ? expected.get(i).cost3Years() : expected.get(i).cost5Years();
+                        assertEquals(expectedCost, cost);
+                        assertTrue(picks.get(i).price() <= budget);
+                        assertEquals(segment, picks.get(i).segment());
+                    }
+                }
+            }
+        }
+        assertFalse(recommender.recommend(VehicleType.SUV, Long.MAX_VALUE, 5, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> recommender.recommend(VehicleType.SUV, 30_000, 4, 5));
+    }
+
+    @Test
+    void fiveYearsCostAtLeastThree() {
+        for (Replacement r : recommender.recommend(VehicleType.SEDAN, Long.MAX_VALUE, 5,
+                ReplacementRecommender.MAX_LIMIT)) {
+            assertTrue(r.cost3Years() > 0);
+            assertTrue(r.cost5Years() >= r.cost3Years(), r.modelId());
+        }
+    }
+
+    @Test
+    void costIsDepreciationPlusRepairsNotThePrice() {
+        // Civic: $16,500 at 9% a year, $380 a year in repairs, and a 10% A/C condenser fault ($800) by 96,000 miles
+        Replacement civic = recommender.find("honda_civic_fc").orElseThrow();
+        double depreciation = 16_500 * (1.0 - Math.pow(1.0 - 0.09, 3));
+
+        assertEquals(Math.round(depreciation + 380 * 3 + 800 * 0.1), civic.cost3Years(), 1);
+        assertTrue(civic.cost3Years() < civic.price());
+    }
+
+    @Test
+    void everyModelIsRankedInItsDatasetSegment() {
+        for (CarModel car : carDataService.getAllModels()) {
+            recommender.find(car.id()).ifPresent(r -> assertEquals(car.segment(), r.segment(), car.id()));
+        }
+        assertEquals(VehicleType.TRUCK_VAN, recommender.find("ford_f150_13th").orElseThrow().segment());
+    }
+
+    @Test
+    void replacementPriceFeedsRm() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2012, 140_000, 3_200, 6_500, false,
+                true);
+        SimulationControls controls = new SimulationControls(null, null, HassleTolerance.NEUTRAL, null);
+
+        assertEquals(decisionEngine.score(input, controls),
+                decisionEngine.score(input, controls, valuationService.getBasePrice(VehicleType.SEDAN)));
+
+        Replacement cheapest = recommender.recommend(VehicleType.SEDAN, Long.MAX_VALUE, 5, 1).get(0);
+        assertTrue(decisionEngine.score(input, controls, cheapest.price()).moveTotal() < decisionEngine
+                .score(input, controls).moveTotal());
+
+        VerdictScore score = decisionEngine.score(input, controls, cheapest.price());
+        VerdictResult verdict = decisionEngine.simulate(input, controls, cheapest.price());
+        assertEquals(score.moveTotal(), verdict.moveTotal());
+        assertEquals(score.verdictState(), verdict.verdictState());
+    }
+}
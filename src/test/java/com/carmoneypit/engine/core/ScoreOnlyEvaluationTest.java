@@ -0,0 +1,54 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreOnlyEvaluationTest {
+
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        decisionEngine = new EngineFixture().decisionEngine;
+    }
+
+    @Test
+    void scoresMatchFullVerdictExactly() {
+        String[][] cars = { { "Toyota", "Camry" }, { "Honda", "CR-V" }, { "BMW", "3 Series" }, { "Ford", "Other" },
+                { "Unknown", "" } };
+        long[] mileages = { 20_000, 100_000, 100_001, 150_001, 240_000 };
+        long[] quotes = { 0, 900, 4_500, 12_000 };
+        int checked = 0;
+
+        for (String[] car : cars) {
+            for (long mileage : mileages) {
+                for (long quote : quotes) {
+                    EngineInput input = new EngineInput(car[1], VehicleType.SEDAN, car[0], 2012, mileage, quote,
+                            8_500, quote % 2 == 0, true);
+                    for (SimulationControls controls : EngineFixture.allControls()) {
+                        VerdictResult full = controls == null ? decisionEngine.evaluate(input)
+                                : decisionEngine.simulate(input, controls);
+                        VerdictScore score = decisionEngine.score(input, controls);
+
+                        String label = input + " / " + controls;
+                        assertEquals(full.verdictState(), score.verdictState(), label);
+                        assertEquals(Double.doubleToLongBits(full.stayTotal()),
+                                Double.doubleToLongBits(score.stayTotal()), label);
+                        assertEquals(Double.doubleToLongBits(full.moveTotal()),
+                                Double.doubleToLongBits(score.moveTotal()), label);
+                        assertEquals(full.confidence(), score.confidence(), label);
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertEquals(cars.length * mileages.length * quotes.length * EngineFixture.allControls().size(), checked);
+    }
+}
@@ -0,0 +1,83 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.core.SellTimeSolver.SellTiming;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SellTimeSolverTest {
+
+    private ValuationService valuationService;
+    private SellTimeSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        valuationService = fixture.valuationService;
+        solver = new SellTimeSolver(fixture.projectionService(), valuationService);
+    }
+
+    @Test
+    void bestMonthIsTheCheapestExit() {
+        EngineInput[] inputs = {
+                new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 120_000, 2_400, 9_000, false, false),
+                new EngineInput("3 Series", VehicleType.LUXURY, "BMW", 2012, 135_000, 7_500, 6_000, false, true),
+                new EngineInput("", VehicleType.SUV, "Unknown", 2019, 40_000, 300, 25_000, true, false) };
+
+        for (EngineInput input : inputs) {
+            SellTiming timing = solver.solve(input, null);
+
+            assertEquals(OwnershipProjectionService.MAX_MONTHS + 1, timing.exitCost().length);
+            assertEquals(Arrays.stream(timing.exitCost()).min().getAsLong(), timing.bestCost(), input.toString());
+            assertEquals(timing.exitCost()[timing.bestMonth()], timing.bestCost());
+            assertEquals(timing.exitCost()[0], timing.sellNowCost());
+            assertEquals(timing.exitCost()[timing.horizonMonths()], timing.keepCost());
+        }
+    }
+
+    @Test
+    void sellingNowIsTheSwitchPlusAFullHorizonOfReplacementDepreciation() {
+        EngineInput input = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2015, 110_000, 1_800, 8_000, false,
+                false);
+        SimulationControls controls = new SimulationControls(null, null, HassleTolerance.HATE_SWITCHING, null);
+
+        double replacement = valuationService.getBasePrice(VehicleType.SEDAN)
+                * (1.0 - Math.pow(1.0 - RegretCalculator.NEW_CAR_FIRST_YEAR_DEPRECIATION,
+                        OwnershipProjectionService.MAX_MONTHS / 12.0));
+        assertEquals(Math.round(RegretCalculator.transactionFriction(controls)
+                + 8_000 * RegretCalculator.TRADE_IN_SPREAD_RATE + replacement),
+                solver.solve(input, controls).sellNowCost());
+    }
+
+    @Test
+    void mileagesInOneBucketShareCurves() {
+        EngineInput low = new EngineInput("Accord", VehicleType.SEDAN, "Honda", 2011, 150_100, 2_000, 5_000, false,
+                false);
+        EngineInput high = new EngineInput("Accord", VehicleType.SEDAN, "Honda", 2011, 154_900, 2_000, 5_000, false,
+                false);
+
+        assertArrayEquals(solver.solve(low, null).exitCost(), solver.solve(high, null).exitCost());
+    }
+
+    @Test
+    void faultJustBehindTheOdometerIsNotCharged() {
+        // The Camry's torque converter fails around 75,405 miles, inside the 75,000-mile bucket
+        EngineInput before = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 75_300, 2_000, 9_000, false,
+                false);
+        EngineInput after = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2013, 75_500, 2_000, 9_000, false,
+                false);
+
+        SellTiming charged = solver.solve(before, null);
+        SellTiming passed = solver.solve(after, null);
+
+        assertEquals(charged.sellNowCost(), passed.sellNowCost());
+        assertEquals(2_500 * 0.25, charged.keepCost() - passed.keepCost(), 1.0);
+    }
+}
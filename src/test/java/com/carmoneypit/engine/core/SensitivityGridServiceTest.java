@@ -0,0 +1,105 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.carmoneypit.engine.core.SensitivityGridService.GridLayer;
+import com.carmoneypit.engine.core.SensitivityGridService.GridSpec;
+import com.carmoneypit.engine.core.SensitivityGridService.SensitivityGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensitivityGridServiceTest {
+
+    private DecisionEngine decisionEngine;
+    private SensitivityGridService gridService;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        decisionEngine = fixture.decisionEngine;
+        gridService = new SensitivityGridService(fixture.regretCalculator);
+    }
+
+    @Test
+    void everyCellMatchesTheEngine() {
+        EngineInput input = new EngineInput("CR-V", VehicleType.SUV, "Honda", 2013, 128_000, 3_200, 7_500, false,
+                true);
+        SimulationControls controls = new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION,
+                MobilityStatus.DRIVABLE, HassleTolerance.NEUTRAL, null);
+
+        SensitivityGrid grid = gridService.compute(input, controls, GridSpec.defaults());
+
+        int rows = grid.mileages().length;
+        int cols = grid.quotes().length;
+        assertEquals(SensitivityGridService.DEFAULT_STEPS, rows);
+        assertEquals(SensitivityGridService.DEFAULT_STEPS, cols);
+        assertEquals(RetentionHorizon.values().length, grid.layers().size());
+
+        for (GridLayer layer : grid.layers()) {
+            assertEquals(rows * cols, layer.states().length());
+            ByteBuffer margins = ByteBuffer.wrap(Base64.getDecoder().decode(layer.margins()))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(rows * cols * 2, margins.remaining());
+
+            SimulationControls cellControls = new SimulationControls(controls.failureSeverity(),
+                    controls.mobilityStatus(), controls.hassleTolerance(), layer.retentionHorizon());
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    EngineInput cell = new EngineInput(input.model(), input.vehicleType(), input.brand(), input.year(),
+                            grid.mileages()[row], grid.quotes()[col], input.currentValueUsd(),
+                            input.isQuoteEstimated(), input.isValueEstimated());
+                    VerdictScore expected = decisionEngine.score(cell, cellControls);
+                    int index = row * cols + col;
+                    assertEquals(expected.verdictState(), SensitivityGridService.stateAt(layer, index),
+                            layer.retentionHorizon() + " " + cell);
+                    long margin = Math.round(expected.stayTotal() - expected.moveTotal());
+                    assertEquals(Math.max(-Short.MAX_VALUE, Math.min(Short.MAX_VALUE, margin)),
+                            margins.getShort(index * 2));
+                }
+            }
+        }
+    }
+
+    @Test
+    void defaultAxesCoverTheVehicle() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2008, 265_000, 6_000, 3_000, false,
+                false);
+
+        SensitivityGrid grid = gridService.compute(input, null, GridSpec.defaults());
+
+        long[] mileages = grid.mileages();
+        long[] quotes = grid.quotes();
+        assertTrue(mileages[0] <= input.mileage() && input.mileage() <= mileages[mileages.length - 1]);
+        assertTrue(quotes[0] <= input.repairQuoteUsd() && input.repairQuoteUsd() <= quotes[quotes.length - 1]);
+        for (int i = 1; i < mileages.length; i++) {
+            assertTrue(mileages[i] > mileages[i - 1]);
+        }
+    }
+
+    @Test
+    void stepsAreClamped() {
+        EngineInput input = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2016, 90_000, 1_500, 11_000, false,
+                false);
+
+        SensitivityGrid grid = gridService.compute(input, null, new GridSpec(10_000, 200_000, 5_000, 0, 8_000, 1));
+
+        assertEquals(SensitivityGridService.MAX_STEPS, grid.mileages().length);
+        assertEquals(2, grid.quotes().length);
+        assertEquals(10_000, grid.mileages()[0]);
+        assertEquals(200_000, grid.mileages()[grid.mileages().length - 1]);
+        assertEquals(8_000, grid.quotes()[1]);
+    }
+}
@@ -0,0 +1,144 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictCacheTest {
+
+    private EngineFixture fixture;
+    private CarDataService carDataService;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+    }
+
+    private DecisionEngine engine(VerdictCache cache) {
+        return fixture.engine(cache);
+    }
+
+    private static EngineInput input(String brand, String model, long mileage) {
+        return new EngineInput(model, VehicleType.SUV, brand, 2014, mileage, 2800, 9000, false, true);
+    }
+
+    @Test
+    void cachedResultsMatchUncachedEvaluation() {
+        DecisionEngine cached = engine(new VerdictCache(carDataService, 1 << 20));
+        DecisionEngine plain = engine(VerdictCache.disabled());
+        SimulationControls controls = new SimulationControls(FailureSeverity.ENGINE_TRANSMISSION,
+                MobilityStatus.NEEDS_TOW, HassleTolerance.NEUTRAL, RetentionHorizon.YEARS_3);
+
+        for (long mileage = 30_000; mileage <= 210_000; mileage += 30_000) {
+            EngineInput input = input("Honda", "CR-V", mileage);
+            for (int pass = 0; pass < 2; pass++) {
+                assertEquals(plain.evaluate(input), cached.evaluate(input));
+                assertEquals(plain.simulate(input, controls), cached.simulate(input, controls));
+            }
+        }
+    }
+
+    @Test
+    void equivalentSpellingsShareOneEntry() {
+        VerdictCache cache = new VerdictCache(carDataService, 1 << 20);
+        DecisionEngine engine = engine(cache);
+
+        VerdictResult first = engine.evaluate(input("Honda", "CR-V", 120_000));
+        VerdictResult second = engine.evaluate(input("HONDA", "crv", 120_000));
+        VerdictResult third = engine.evaluate(input("honda", "Cr V", 120_000));
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, cache.stats().misses());
+        assertEquals(2, cache.stats().hits());
+
+        // "Other" means no specific model, while "other." is a (unknown) model name; both normalize to "other"
+        VerdictResult unspecified = engine.evaluate(input("Honda", "Other", 120_000));
+        VerdictResult named = engine.evaluate(input("Honda", "other.", 120_000));
+        assertNotSame(unspecified, named);
+        assertNotEquals(unspecified.confidence(), named.confidence());
+    }
+
+    @Test
+    void datasetReloadInvalidatesEntries() {
+        VerdictCache cache = new VerdictCache(carDataService, 1 << 20);
+        DecisionEngine engine = engine(cache);
+        VerdictResult before = engine.evaluate(input("Toyota", "Camry", 90_000));
+
+        cache.onDatasetReloaded(new DatasetReloadedEvent(carDataService.snapshot(), carDataService.snapshot()));
+
+        VerdictResult after = engine.evaluate(input("Toyota", "Camry", 90_000));
+        assertNotSame(before, after);
+        assertEquals(before, after);
+        assertEquals(0, cache.stats().hits());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void sizeBudgetEvictsLeastRecentlyUsed() {
+        VerdictCache cache = new VerdictCache(carDataService, 16 * 4_000);
+        DecisionEngine engine = engine(cache);
+
+        for (long mileage = 0; mileage < 2_000; mileage++) {
+            engine.evaluate(input("Ford", "F-150", 100_000 + mileage));
+        }
+
+        VerdictCache.CacheStats stats = cache.stats();
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.bytes() <= stats.maxBytes());
+        assertTrue(stats.entries() < 2_000);
+    }
+
+    @Test
+    void concurrentMissesEvaluateOnce() throws Exception {
+        VerdictCache cache = new VerdictCache(carDataService, 1 << 20);
+        AtomicInteger evaluations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        VerdictResult value = engine(VerdictCache.disabled()).evaluate(input("Honda", "Civic", 80_000));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] calls = new Future<?>[8];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = pool.submit(() -> {
+                    start.await();
+                    return cache.get(input("Honda", "Civic", 80_000), null, () -> {
+                        evaluations.incrementAndGet();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return value;
+                    });
+                });
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                assertSame(value, call.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, evaluations.get());
+    }
+}
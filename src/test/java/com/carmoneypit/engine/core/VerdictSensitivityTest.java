@@ -0,0 +1,127 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.FailureSeverity;
+import com.carmoneypit.engine.api.InputModels.HassleTolerance;
+import com.carmoneypit.engine.api.InputModels.MobilityStatus;
+import com.carmoneypit.engine.api.InputModels.RetentionHorizon;
+import com.carmoneypit.engine.api.InputModels.SimulationControls;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.ControlShift;
+import com.carmoneypit.engine.api.OutputModels.Sensitivities;
+import com.carmoneypit.engine.api.OutputModels.Sensitivity;
+import com.carmoneypit.engine.api.OutputModels.VerdictResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictSensitivityTest {
+
+    private RegretCalculator regretCalculator;
+    private DecisionEngine decisionEngine;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        regretCalculator = fixture.regretCalculator;
+        decisionEngine = fixture.decisionEngine;
+    }
+
+    @Test
+    void derivativesMatchTheScoresWithinEachLinearPiece() {
+        List<EngineInput> inputs = List.of(
+                new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2014, 82_345, 1_250, 9_500, false, false),
+                new EngineInput("Accord", VehicleType.SEDAN, "Honda", 2010, 163_210, 4_800, 5_200, false, true),
+                new EngineInput("Escape", VehicleType.SUV, "Ford", 2008, 240_000, 95_000, 2_000, true, false));
+
+        for (EngineInput input : inputs)
+            for (SimulationControls controls : EngineFixture.sampleControls()) {
+                double rf = regretCalculator.scoreRF(input, controls);
+                double rm = regretCalculator.scoreRM(input, controls);
+                Sensitivities s = regretCalculator.sensitivities(input, controls, rf, rm);
+
+                EngineInput lessMileage = new EngineInput(input.model(), input.vehicleType(), input.brand(),
+                        input.year(), input.mileage() - 1, input.repairQuoteUsd(), input.currentValueUsd(),
+                        input.isQuoteEstimated(), input.isValueEstimated());
+                EngineInput lessQuote = new EngineInput(input.model(), input.vehicleType(), input.brand(),
+                        input.year(), input.mileage(), input.repairQuoteUsd() - 1, input.currentValueUsd(),
+                        input.isQuoteEstimated(), input.isValueEstimated());
+                EngineInput moreValue = new EngineInput(input.model(), input.vehicleType(), input.brand(),
+                        input.year(), input.mileage(), input.repairQuoteUsd(), input.currentValueUsd() + 1,
+                        input.isQuoteEstimated(), input.isValueEstimated());
+
+                assertSlope(s.mileage(), rf, rm, lessMileage, controls, -1, String.valueOf(input));
+                assertSlope(s.repairQuote(), rf, rm, lessQuote, controls, -1, String.valueOf(input));
+                assertSlope(s.currentValue(), rf, rm, moreValue, controls, 1, String.valueOf(input));
+            }
+    }
+
+    private void assertSlope(Sensitivity sensitivity, double rf, double rm, EngineInput neighbour,
+            SimulationControls controls, int step, String message) {
+        assertEquals(sensitivity.rf() * step, regretCalculator.scoreRF(neighbour, controls) - rf, 1e-6, message);
+        assertEquals(sensitivity.rm() * step, regretCalculator.scoreRM(neighbour, controls) - rm, 1e-6, message);
+    }
+
+    @Test
+    void breakpointsMarkTheEndOfTheCurrentPiece() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2014, 82_345, 1_250, 9_500, false,
+                false);
+        Sensitivities s = regretCalculator.sensitivities(input, null, regretCalculator.scoreRF(input, null),
+                regretCalculator.scoreRM(input, null));
+
+        assertEquals(Long.valueOf(100_000), s.mileage().nextBreakpoint());
+        assertEquals(Long.valueOf(regretCalculator.quoteBreakpoints(input)[0]), s.repairQuote().nextBreakpoint());
+        assertNull(s.currentValue().nextBreakpoint());
+    }
+
+    @Test
+    void controlShiftsAreExactChanges() {
+        EngineInput input = new EngineInput("Civic", VehicleType.SEDAN, "Honda", 2012, 128_000, 2_200, 6_400, false,
+                false);
+        SimulationControls controls = new SimulationControls(FailureSeverity.SUSPENSION_BRAKES,
+                MobilityStatus.DRIVABLE, HassleTolerance.NEUTRAL, RetentionHorizon.YEARS_1);
+        double rf = regretCalculator.scoreRF(input, controls);
+        double rm = regretCalculator.scoreRM(input, controls);
+        Sensitivities s = regretCalculator.sensitivities(input, controls, rf, rm);
+
+        assertEquals(2 + 1 + 2 + 3, s.controls().size());
+        for (ControlShift shift : s.controls()) {
+            SimulationControls alternative = switch (shift.control()) {
+                case "failureSeverity" -> new SimulationControls(FailureSeverity.valueOf(shift.value()),
+                        controls.mobilityStatus(), controls.hassleTolerance(), controls.retentionHorizon());
+                case "mobilityStatus" -> new SimulationControls(controls.failureSeverity(),
+                        MobilityStatus.valueOf(shift.value()), controls.hassleTolerance(), controls.retentionHorizon());
+                case "hassleTolerance" -> new SimulationControls(controls.failureSeverity(),
+                        controls.mobilityStatus(), HassleTolerance.valueOf(shift.value()), controls.retentionHorizon());
+                default -> new SimulationControls(controls.failureSeverity(), controls.mobilityStatus(),
+                        controls.hassleTolerance(), RetentionHorizon.valueOf(shift.value()));
+            };
+            assertEquals(regretCalculator.scoreRF(input, alternative) - rf, shift.rf(), 1e-9, shift.label());
+            assertEquals(regretCalculator.scoreRM(input, alternative) - rm, shift.rm(), 1e-9, shift.label());
+        }
+    }
+
+    @Test
+    void sensitivitiesAreOptInAndLeversAreRanked() {
+        EngineInput input = new EngineInput("Camry", VehicleType.SEDAN, "Toyota", 2014, 82_345, 1_250, 9_500, false,
+                false);
+        VerdictResult result = decisionEngine.evaluate(input);
+        assertNull(result.sensitivities());
+
+        Sensitivities s = decisionEngine.sensitivities(input, null, result);
+        assertEquals(regretCalculator.sensitivities(input, null, regretCalculator.scoreRF(input, null),
+                regretCalculator.scoreRM(input, null)), s);
+        result = result.withSensitivities(s);
+        assertSame(s, result.sensitivities());
+        var levers = result.sensitivities().levers();
+        for (int i = 1; i < levers.size(); i++) {
+            assertTrue(Math.abs(levers.get(i - 1).marginChange()) >= Math.abs(levers.get(i).marginChange()));
+        }
+        assertNull(new VerdictResult(result.verdictState(), result.narrativeContext(), result.visualizationHint(),
+                result.costBreakdown(), result.assetBleedAmount(), result.stayTotal(), result.moveTotal(),
+                result.confidence(), result.peerData(), result.economicContext()).sensitivities());
+    }
+}
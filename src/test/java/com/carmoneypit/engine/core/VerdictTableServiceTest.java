@@ -0,0 +1,101 @@
+package com.carmoneypit.engine.core;
+
+import com.carmoneypit.engine.api.InputModels.EngineInput;
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.api.OutputModels.VerdictScore;
+import com.carmoneypit.engine.core.VerdictTableService.MileageVerdict;
+import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.ModelMarket;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.carmoneypit.engine.service.DatasetReloadedEvent;
+import com.carmoneypit.engine.service.MileageProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictTableServiceTest {
+
+    private CarDataService carDataService;
+    private DecisionEngine decisionEngine;
+    private BreakevenSolver breakevenSolver;
+    private VerdictTableService table;
+
+    @BeforeEach
+    void setUp() {
+        EngineFixture fixture = new EngineFixture();
+        carDataService = fixture.carDataService;
+        decisionEngine = fixture.decisionEngine;
+        breakevenSolver = new BreakevenSolver(fixture.regretCalculator);
+        table = new VerdictTableService(carDataService, decisionEngine, breakevenSolver);
+        table.init();
+    }
+
+    @Test
+    void everyCellMatchesTheMileagePageInput() {
+        int rows = 0;
+        for (CarModel car : carDataService.getAllModels()) {
+            ModelReliability reliability = carDataService.findReliabilityByModelId(car.id()).orElse(null);
+            ModelMarket market = carDataService.findMarketByModelId(car.id()).orElse(null);
+            if (reliability == null || market == null) {
+                assertTrue(table.find(car.id(), 100_000).isEmpty(), car.id());
+                continue;
+            }
+            rows++;
+            int year = VerdictTableService.representativeYear(car,
+                    carDataService.findMileageProfile(car.id()).orElseGet(() -> MileageProfile.of(reliability)));
+
+            for (int mileage : VerdictTableService.MILEAGE_BUCKETS) {
+                MileageVerdict cell = table.find(car.id(), mileage).orElseThrow();
+                EngineInput input = new EngineInput(car.model(), VehicleType.SEDAN, car.brand(), year, mileage,
+                        market.avgAnnualRepairCost(), VerdictTableService.estimatedValue(market, mileage), true, true);
+                VerdictScore expected = decisionEngine.score(input, null);
+
+                assertEquals(year, cell.year());
+                assertEquals(input.currentValueUsd(), cell.estimatedValue());
+                assertEquals(expected.verdictState(), cell.verdictState(), input.toString());
+                assertEquals(expected.stayTotal(), cell.stayTotal());
+                assertEquals(expected.moveTotal(), cell.moveTotal());
+                assertEquals(breakevenSolver.solve(input, null), cell.quoteBreakeven());
+            }
+        }
+        assertTrue(rows > 0);
+    }
+
+    @Test
+    void offBucketMileageAndUnknownModelsHaveNoRow() {
+        CarModel car = carDataService.getAllModels().get(0);
+
+        assertTrue(table.find(car.id(), 110_000).isEmpty());
+        assertTrue(table.find("no-such-model", 100_000).isEmpty());
+        assertTrue(table.quickSignal("no-such-model", 2015).isEmpty());
+    }
+
+    @Test
+    void quickSignalMatchesTheSharedRule() {
+        for (CarModel car : carDataService.getAllModels()) {
+            Integer marketValue = carDataService.findMarketByModelId(car.id()).map(ModelMarket::jan2026AvgPrice)
+                    .orElse(null);
+            Integer lifespan = carDataService.findReliabilityByModelId(car.id()).map(ModelReliability::lifespanMiles)
+                    .orElse(null);
+            Integer faultCost = table.topFault(car.id()).map(f -> (int) Math.round(f.repairCost())).orElse(null);
+
+            for (int year : new int[] { 2009, 2018, 2019, 2024 }) {
+                assertEquals(VerdictTableService.quickSignal(marketValue, faultCost, lifespan, year),
+                        table.quickSignal(car.id(), year).orElseThrow(), car.id() + " " + year);
+            }
+        }
+    }
+
+    @Test
+    void reloadRebuildsTheTable() {
+        CarModel car = carDataService.getAllModels().get(0);
+        MileageVerdict before = table.find(car.id(), 150_000).orElse(null);
+
+        table.onDatasetReloaded(new DatasetReloadedEvent(carDataService.snapshot(), carDataService.snapshot()));
+
+        assertEquals(carDataService.snapshot().version(), table.datasetVersion());
+        assertEquals(before, table.find(car.id(), 150_000).orElse(null));
+    }
+}
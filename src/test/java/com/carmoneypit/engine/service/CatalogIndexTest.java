@@ -0,0 +1,52 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the prebuilt catalog index:
+ * - Brand + model and model-name lookups are normalized (case, punctuation)
+ * - First catalog entry wins when generations share a model name
+ * - Per-brand lists are sorted; brand list is title-cased and sorted
+ */
+class CatalogIndexTest {
+
+        private static final List<CarModel> MODELS = List.of(
+                        new CarModel("honda_crv_rm", "HONDA", "CR-V", "RM", 2012, 2016, VehicleType.SUV),
+                        new CarModel("honda_accord_9g", "HONDA", "Accord", "9G", 2013, 2017, VehicleType.SEDAN),
+                        new CarModel("honda_accord_10g", "HONDA", "Accord", "10G", 2018, 2022, VehicleType.SEDAN),
+                        new CarModel("bmw_x5_f15", "BMW", "X5", "F15", 2014, 2018, VehicleType.LUXURY),
+                        new CarModel("land_rover_rr_l405", "LAND_ROVER", "Range Rover", "L405", 2013, 2021,
+                                VehicleType.LUXURY));
+
+        private final CatalogIndex index = CatalogIndex.build(MODELS);
+
+        @Test
+        void brandAndModelLookupIsNormalized() {
+                assertEquals("honda_crv_rm", index.findByBrandAndModel("honda", "cr-v").orElseThrow().id());
+                assertEquals("honda_crv_rm", index.findByBrandAndModel("HONDA", "Crv").orElseThrow().id());
+                assertTrue(index.findByBrandAndModel("toyota", "cr-v").isEmpty());
+                assertTrue(index.findByBrandAndModel(null, "cr-v").isEmpty());
+        }
+
+        @Test
+        void modelNameLookupKeepsFirstCatalogEntry() {
+                assertEquals("honda_accord_9g", index.findByModelName("accord").orElseThrow().id());
+                assertEquals("land_rover_rr_l405", index.findByModelName("Range Rover").orElseThrow().id());
+                assertTrue(index.findByModelName("Unknown").isEmpty());
+        }
+
+        @Test
+        void brandListsArePrebuiltAndSorted() {
+                assertEquals(List.of("Accord", "Accord", "CR-V"),
+                                index.modelsByBrand("honda").stream().map(CarModel::model).toList());
+                assertSame(index.modelsByBrand("honda"), index.modelsByBrand("Honda"));
+                assertTrue(index.modelsByBrand("unknown").isEmpty());
+                assertEquals(List.of("BMW", "Honda", "Land Rover"), index.brandNames());
+        }
+}
@@ -0,0 +1,117 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.core.ReplacementRecommender;
+import com.carmoneypit.engine.core.VerdictTableService;
+import com.carmoneypit.engine.service.DatasetReloadService.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for dataset loading inside the application context:
+ * - Beans built at startup (fault hubs, verdict table) see the app.data.dir dataset, not the bundled one
+ * - The watcher starts once the context is ready
+ * - A reload reaches the registered listeners, and derived indexes follow the published snapshot
+ */
+@SpringBootTest
+class DatasetReloadContextTest {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        private static final String EXTERNAL_COMPONENT = "Widget Actuator";
+        private static final Path DATA_DIR = externalDataDir();
+
+        @DynamicPropertySource
+        static void dataDir(DynamicPropertyRegistry registry) {
+                registry.add("app.data.dir", DATA_DIR::toString);
+                registry.add("app.data.reloadDebounceMs", () -> "0");
+        }
+
+        @Autowired
+        private CarDataService carDataService;
+
+        @Autowired
+        private DatasetReloadService reloadService;
+
+        @Autowired
+        private FaultHubService faultHubService;
+
+        @Autowired
+        private VerdictTableService verdictTableService;
+
+        @Autowired
+        private ReplacementRecommender replacementRecommender;
+
+        /** Bundled data plus a made-up component on three models, so it gets a data-driven hub. */
+        private static Path externalDataDir() {
+                try {
+                        Path dir = Files.createTempDirectory("dataset-context");
+                        for (String name : DatasetLoader.FILES) {
+                                try (InputStream in = DatasetReloadContextTest.class
+                                                .getResourceAsStream("/data/" + name)) {
+                                        Files.write(dir.resolve(name), in.readAllBytes());
+                                }
+                        }
+                        Path faults = dir.resolve(DatasetLoader.FAULTS);
+                        ArrayNode records = (ArrayNode) MAPPER.readTree(faults.toFile());
+                        for (int i = 0; i < 3; i++) {
+                                ObjectNode fault = MAPPER.createObjectNode();
+                                fault.put("component", EXTERNAL_COMPONENT);
+                                fault.put("repairCost", 900);
+                                fault.put("occurrence_rate", 0.1);
+                                fault.put("avg_failure_mileage", 90_000);
+                                ((ArrayNode) records.get(i).get("faults")).add(fault);
+                        }
+                        MAPPER.writeValue(faults.toFile(), records);
+                        return dir;
+                } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                }
+        }
+
+        @Test
+        void beansBuiltAtStartupServeTheExternalDataset() {
+                DatasetSnapshot served = carDataService.snapshot();
+                String bundled = new CarDataService(MAPPER).snapshot().version();
+
+                assertEquals(DATA_DIR.toAbsolutePath().toString(), served.source());
+                assertNotEquals(bundled, served.version());
+                assertTrue(faultHubService.getHubSlugs()
+                                .contains(FaultHubService.normalizeToSlug(EXTERNAL_COMPONENT)));
+                assertEquals(served.version(), verdictTableService.datasetVersion());
+                assertTrue(reloadService.isWatching());
+        }
+
+        @Test
+        void reloadedSnapshotCarriesItsOwnIndexes() throws IOException {
+                Path market = DATA_DIR.resolve(DatasetLoader.MARKET);
+                ArrayNode records = (ArrayNode) MAPPER.readTree(market.toFile());
+                ObjectNode first = (ObjectNode) records.get(0);
+                String modelId = first.get("model_id").asText();
+                int price = first.get("jan_2026_avg_price").asInt() + 1;
+                first.put("jan_2026_avg_price", price);
+                MAPPER.writeValue(market.toFile(), records);
+
+                // The watcher may publish the change first; either way it is live once this returns
+                assertNotEquals(Outcome.REJECTED, reloadService.reload("test").outcome());
+
+                DatasetSnapshot served = carDataService.snapshot();
+                assertEquals(price, carDataService.findMarketByModelId(modelId).orElseThrow().jan2026AvgPrice());
+                assertEquals(served.version(), verdictTableService.datasetVersion());
+                assertEquals(price, replacementRecommender.find(modelId).orElseThrow().price());
+                assertTrue(faultHubService.getHubSlugs()
+                                .contains(FaultHubService.normalizeToSlug(EXTERNAL_COMPONENT)));
+        }
+}
@@ -0,0 +1,105 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.DatasetReloadService.Outcome;
+import com.carmoneypit.engine.service.DatasetReloadService.ReloadReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for dataset hot reload:
+ * - Identical external files keep the bundled version (same fingerprint)
+ * - A changed, valid file is swapped in atomically and announced
+ * - Malformed or inconsistent data is rejected and the live version keeps serving
+ */
+class DatasetReloadServiceTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final List<Object> events = new ArrayList<>();
+        private CarDataService carDataService;
+        private Path dataDir;
+        private DatasetReloadService reloadService;
+
+        @BeforeEach
+        void setUp() throws IOException {
+                carDataService = new CarDataService(objectMapper);
+                dataDir = Files.createTempDirectory("dataset");
+                for (String name : DatasetLoader.FILES) {
+                        try (InputStream in = getClass().getResourceAsStream("/data/" + name)) {
+                                Files.write(dataDir.resolve(name), in.readAllBytes());
+                        }
+                }
+                reloadService = new DatasetReloadService(carDataService, objectMapper, events::add,
+                                dataDir.toString(), 0);
+        }
+
+        @Test
+        void identicalFilesKeepCurrentVersion() {
+                String bundled = carDataService.snapshot().version();
+
+                ReloadReport report = reloadService.reload("test");
+
+                assertEquals(Outcome.UNCHANGED, report.outcome());
+                assertEquals(bundled, carDataService.snapshot().version());
+                assertTrue(events.isEmpty());
+        }
+
+        @Test
+        void changedFileIsPublishedWithReport() throws IOException {
+                DatasetSnapshot before = carDataService.snapshot();
+                Path market = dataDir.resolve(DatasetLoader.MARKET);
+                ArrayNode records = (ArrayNode) objectMapper.readTree(market.toFile());
+                ObjectNode first = (ObjectNode) records.get(0);
+                String modelId = first.get("model_id").asText();
+                int oldPrice = first.get("jan_2026_avg_price").asInt();
+                first.put("jan_2026_avg_price", oldPrice + 1);
+                objectMapper.writeValue(market.toFile(), records);
+
+                ReloadReport report = reloadService.reload("test");
+
+                assertEquals(Outcome.PUBLISHED, report.outcome());
+                assertEquals(before.version(), report.previousVersion());
+                assertNotEquals(before.version(), report.version());
+                assertEquals(before.counts(), report.counts());
+                assertEquals(oldPrice + 1,
+                                carDataService.findMarketByModelId(modelId).orElseThrow().jan2026AvgPrice());
+                assertEquals(1, events.size());
+                assertSame(before, ((DatasetReloadedEvent) events.get(0)).previous());
+        }
+
+        @Test
+        void malformedFileIsRejected() throws IOException {
+                DatasetSnapshot before = carDataService.snapshot();
+                Files.writeString(dataDir.resolve(DatasetLoader.CAR_MODELS), "[{\"id\": ");
+
+                ReloadReport report = reloadService.reload("test");
+
+                assertEquals(Outcome.REJECTED, report.outcome());
+                assertSame(before, carDataService.snapshot());
+                assertTrue(events.isEmpty());
+        }
+
+        @Test
+        void danglingReferencesAreRejected() throws IOException {
+                DatasetSnapshot before = carDataService.snapshot();
+                Files.writeString(dataDir.resolve(DatasetLoader.CAR_MODELS),
+                                "[{\"id\": \"only_one\", \"brand\": \"Toyota\", \"model\": \"Camry\", \"start_year\": 2018, \"end_year\": 2024}]");
+
+                ReloadReport report = reloadService.reload("test");
+
+                assertEquals(Outcome.REJECTED, report.outcome());
+                assertFalse(report.problems().isEmpty());
+                assertSame(before, carDataService.snapshot());
+        }
+}
@@ -1,6 +1,7 @@
 package com.carmoneypit.engine.service;
 
 import com.carmoneypit.engine.web.FaultHubViewModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -13,6 +14,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Sorting correct (occurrence_rate desc, avg_failure_mileage asc)
  * - Unknown slug returns empty (404)
  * - Allowed slugs produce populated view models
+ * - Components affecting enough models get their own hub
+ * - Hubs are served from a prebuilt index, rebuilt on dataset reload
  */
 class FaultHubServiceAggregationTest {
 
@@ -118,4 +121,66 @@ class FaultHubServiceAggregationTest {
                 assertEquals(0, zeroModel.avgFailureMileage());
                 assertEquals(0.0, zeroModel.occurrenceRate());
         }
+
+        @Test
+        void hubsAreServedFromPrebuiltSortedIndex() {
+                FaultHubService service = new FaultHubService(new CarDataService(new ObjectMapper()));
+
+                FaultHubViewModel hub = service.getHub("cvt-transmission").orElseThrow();
+                assertSame(hub, service.getHub("cvt-transmission").orElseThrow());
+                assertTrue(hub.modelCount() > 0);
+                for (int i = 1; i < hub.affectedModels().size(); i++) {
+                        assertTrue(hub.affectedModels().get(i - 1).occurrenceRate() >= hub.affectedModels().get(i)
+                                        .occurrenceRate(), "Affected models must be sorted by occurrence rate");
+                }
+                assertThrows(UnsupportedOperationException.class, () -> hub.affectedModels().clear());
+
+                List<FaultHubViewModel> summaries = service.getAllHubSummaries();
+                assertEquals(service.getHubSlugs(), summaries.stream().map(FaultHubViewModel::slug).toList());
+                assertEquals(service.getHubSlugs().stream().sorted().toList(), service.getHubSlugs());
+                assertTrue(service.getHubSlugs().containsAll(FaultHubService.ALLOWED_SLUGS));
+                assertTrue(service.getHub("not-a-hub").isEmpty());
+        }
+
+        @Test
+        void componentsAffectingEnoughModelsGetAHub() {
+                CarDataService carDataService = new CarDataService(new ObjectMapper());
+                FaultHubService service = new FaultHubService(carDataService);
+                FaultHubService strict = new FaultHubService(carDataService, 100);
+
+                FaultHubViewModel waterPump = service.getHub("water-pump").orElseThrow();
+                assertTrue(waterPump.affectedModels().size() >= FaultHubService.DEFAULT_MIN_MODELS);
+                assertFalse(waterPump.displayName().isBlank());
+                assertTrue(waterPump.faqItems().isEmpty());
+
+                assertTrue(strict.getHub("water-pump").isEmpty());
+                assertEquals(FaultHubService.ALLOWED_SLUGS.stream().sorted().toList(), strict.getHubSlugs());
+
+                for (CarDataService.CarModel car : carDataService.getAllModels()) {
+                        for (String slug : strict.getRelevantHubSlugs(car.id(), 10)) {
+                                assertTrue(FaultHubService.ALLOWED_SLUGS.contains(slug), slug);
+                        }
+                        for (String slug : service.getRelevantHubSlugs(car.id(), 10)) {
+                                assertTrue(service.getHub(slug).isPresent(), slug);
+                        }
+                }
+        }
+
+        @Test
+        void indexIsRebuiltOnDatasetReload() {
+                CarDataService carDataService = new CarDataService(new ObjectMapper());
+                FaultHubService service = new FaultHubService(carDataService);
+                DatasetSnapshot original = carDataService.snapshot();
+                FaultHubViewModel before = service.getHub("timing-chain").orElseThrow();
+
+                DatasetSnapshot noFaults = new DatasetSnapshot("test", "test", original.loadedAt(), 0,
+                                original.carModels(), List.copyOf(original.reliabilityMap().values()),
+                                List.copyOf(original.marketMap().values()), List.of(), original.brandData(),
+                                original.faultReferences());
+                carDataService.publish(noFaults);
+                service.onDatasetReloaded(new DatasetReloadedEvent(original, noFaults));
+
+                assertTrue(before.modelCount() > 0);
+                assertEquals(0, service.getHub("timing-chain").orElseThrow().modelCount());
+        }
 }
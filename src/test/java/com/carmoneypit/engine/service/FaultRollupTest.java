@@ -0,0 +1,91 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.api.InputModels.VehicleType;
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Fault;
+import com.carmoneypit.engine.service.CarDataService.MajorFaults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the prebuilt fault rollup:
+ * - Every cell matches an aggregate computed from the raw fault records
+ * - Null dimensions roll up; unknown values return the empty cell
+ * - Records without a component are counted once in the rolled-up cells
+ */
+class FaultRollupTest {
+
+        private static final List<CarModel> MODELS = List.of(
+                        new CarModel("toyota_camry_xv50", "TOYOTA", "Camry", "XV50", 2012, 2017, VehicleType.SEDAN),
+                        new CarModel("toyota_rav4_xa40", "TOYOTA", "RAV4", "XA40", 2013, 2018, VehicleType.SUV),
+                        new CarModel("nissan_altima_l33", "NISSAN", "Altima", "L33", 2013, 2018, VehicleType.SEDAN));
+
+        private static final Map<String, MajorFaults> FAULTS = Map.of(
+                        "toyota_camry_xv50", new MajorFaults("toyota_camry_xv50", List.of(
+                                        new Fault("Torque Converter", "Shudder", 2_000, "SELL", 0.2, 90_000),
+                                        new Fault("Water Pump", "Leak", 800, "FIX", 0.1, 110_000))),
+                        "toyota_rav4_xa40", new MajorFaults("toyota_rav4_xa40", List.of(
+                                        new Fault("Torque Converter Shudder", "Shudder", 3_000, "SELL", 0.6, 60_000),
+                                        new Fault(null, "Unknown", 0, "FIX", 0.0, 0))),
+                        "nissan_altima_l33", new MajorFaults("nissan_altima_l33", List.of(
+                                        new Fault("CVT Failure", "Whine", 4_500, "SELL", 0.3, 120_000))));
+
+        private final FaultRollup rollup = FaultRollup.build(MODELS, FAULTS);
+
+        @Test
+        void cellsMatchRawAggregates() {
+                FaultRollup.Cell converters = rollup.get(null, "torque-converter", null, FaultRollup.ALL_BUCKETS);
+                assertEquals(2, converters.count());
+                assertEquals(2_500, converters.mean(), 1e-9);
+                assertEquals(2_000, converters.min());
+                assertEquals(3_000, converters.max());
+                assertEquals((2_000 * 0.2 + 3_000 * 0.6) / 0.8, converters.weightedMean(), 1e-9);
+
+                FaultRollup.Cell toyota = rollup.get("toyota", null, null, FaultRollup.ALL_BUCKETS);
+                assertEquals(4, toyota.count());
+                assertEquals(3, toyota.pricedCount());
+                assertEquals(5_800, toyota.sum());
+
+                FaultRollup.Cell everything = rollup.get(null, null, null, FaultRollup.ALL_BUCKETS);
+                assertEquals(5, everything.count());
+                assertEquals(10_300, everything.sum());
+
+                assertEquals(1, rollup.get("Toyota", "torque-converter", "xa40", 1).count());
+                assertEquals(1, rollup.get(null, null, null, 0).count());
+                assertEquals(2, rollup.get(null, null, null, FaultRollup.mileageBucket(120_000)).count());
+        }
+
+        @Test
+        void unknownValuesReturnTheEmptyCell() {
+                assertSame(FaultRollup.Cell.EMPTY, rollup.get("ford", null, null, FaultRollup.ALL_BUCKETS));
+                assertSame(FaultRollup.Cell.EMPTY, rollup.get(null, "cvt-transmission", null, 0));
+                assertSame(FaultRollup.Cell.EMPTY, rollup.get(null, null, null, FaultRollup.BUCKETS));
+                assertEquals(0, FaultRollup.EMPTY.get(null, null, null, FaultRollup.ALL_BUCKETS).count());
+        }
+
+        @Test
+        void datasetRollupMatchesEveryBrandAndComponent() {
+                DatasetSnapshot snapshot = new CarDataService(new ObjectMapper()).snapshot();
+                FaultRollup dataset = snapshot.faultRollup();
+
+                for (String brand : snapshot.catalogIndex().brandNames()) {
+                        List<Fault> raw = new ArrayList<>();
+                        for (CarModel car : snapshot.carModels()) {
+                                MajorFaults faults = snapshot.faultsMap().get(car.id());
+                                if (faults != null && SlugCodec.key(car.brand()).equals(SlugCodec.key(brand))) {
+                                        raw.addAll(faults.faults());
+                                }
+                        }
+                        FaultRollup.Cell cell = dataset.get(brand, null, null, FaultRollup.ALL_BUCKETS);
+                        assertEquals(raw.size(), cell.count(), brand);
+                        assertEquals(raw.stream().mapToDouble(Fault::repairCost).filter(c -> c > 0).sum(), cell.sum(),
+                                        1e-6, brand);
+                }
+        }
+}
@@ -0,0 +1,152 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.CarDataService.Milestone;
+import com.carmoneypit.engine.service.CarDataService.ModelReliability;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MileageProfile:
+ * - Closest/floor mileage text matches the linear scans it replaced, on every dataset model
+ * - Ties between two keys go to the one listed first; non-numeric keys are ignored
+ * - Milestone windows and best/worst year lookups match the stream filters they replaced
+ * - Prefix-sum milestone costs match a direct sum over any window
+ */
+class MileageProfileTest {
+
+        private static String legacyClosest(Map<String, String> logicText, long mileage) {
+                String closestKey = null;
+                long closestDiff = Long.MAX_VALUE;
+                for (String key : logicText.keySet()) {
+                        try {
+                                long diff = Math.abs(Long.parseLong(key) - mileage);
+                                if (diff < closestDiff && diff < 25000) {
+                                        closestDiff = diff;
+                                        closestKey = key;
+                                }
+                        } catch (NumberFormatException ignored) {
+                        }
+                }
+                return closestKey == null ? null : logicText.get(closestKey);
+        }
+
+        private static String legacyFloor(Map<String, String> logicText, long mileage) {
+                String advice = null;
+                long closest = 0;
+                for (String key : logicText.keySet()) {
+                        long m = Long.parseLong(key);
+                        if (m <= mileage && m > closest) {
+                                closest = m;
+                                advice = logicText.get(key);
+                        }
+                }
+                return advice;
+        }
+
+        @Test
+        void matchesLegacyScansOnEveryModel() {
+                CarDataService carDataService = new CarDataService(new ObjectMapper());
+                int checked = 0;
+                for (CarModel car : carDataService.getAllModels()) {
+                        ModelReliability reliability = carDataService.findReliabilityByModelId(car.id()).orElse(null);
+                        if (reliability == null)
+                                continue;
+                        MileageProfile profile = carDataService.findMileageProfile(car.id()).orElseThrow();
+
+                        if (reliability.mileageLogicText() != null) {
+                                for (long mileage = 0; mileage <= 300_000; mileage += 2_500) {
+                                        assertEquals(legacyClosest(reliability.mileageLogicText(), mileage),
+                                                        profile.closestLogicText(mileage, 25000), car.id() + " @" + mileage);
+                                        assertEquals(legacyFloor(reliability.mileageLogicText(), mileage),
+                                                        profile.floorLogicText(mileage), car.id() + " @" + mileage);
+                                }
+                        }
+
+                        if (reliability.criticalMilestones() != null) {
+                                for (int target = 0; target <= 250_000; target += 25_000) {
+                                        final int from = target;
+                                        List<Milestone> expected = reliability.criticalMilestones().stream()
+                                                        .filter(m -> m.mileage() > from && m.mileage() <= from + 50000)
+                                                        .sorted((a, b) -> Integer.compare(a.mileage(), b.mileage()))
+                                                        .toList();
+                                        assertEquals(expected, profile.milestonesBetween(from, from + 50000), car.id());
+                                }
+                        }
+
+                        int expectedBest = reliability.bestYears() == null ? -1
+                                        : reliability.bestYears().stream()
+                                                        .filter(y -> y >= car.startYear() && y <= car.endYear())
+                                                        .max(Integer::compareTo).orElse(-1);
+                        int expectedWorst = reliability.worstYears() == null ? -1
+                                        : reliability.worstYears().stream()
+                                                        .filter(y -> y >= car.startYear() && y <= car.endYear())
+                                                        .min(Integer::compareTo).orElse(-1);
+                        assertEquals(expectedBest, profile.latestBestYear(car.startYear(), car.endYear()), car.id());
+                        assertEquals(expectedWorst, profile.earliestWorstYear(car.startYear(), car.endYear()), car.id());
+                        checked++;
+                }
+                assertTrue(checked > 0);
+        }
+
+        @Test
+        void tiesGoToFirstListedKeyAndNonNumericKeysAreIgnored() {
+                Map<String, String> logic = new LinkedHashMap<>();
+                logic.put("120000", "upper");
+                logic.put("notes", "ignored");
+                logic.put("80000", "lower");
+                logic.put("080000", "duplicate");
+                MileageProfile profile = MileageProfile.of(new ModelReliability("m", 80, 200000, List.of(2015, 2018),
+                                List.of(2012), List.of(), List.of(), logic));
+
+                assertEquals("upper", profile.closestLogicText(100000, 25000));
+                assertEquals("lower", profile.closestLogicText(80000, 25000));
+                assertNull(profile.closestLogicText(150000, 25000));
+                assertEquals("lower", profile.floorLogicText(119999));
+                assertNull(profile.floorLogicText(79999));
+
+                assertTrue(profile.isBestYear(2015));
+                assertFalse(profile.isBestYear(2016));
+                assertTrue(profile.isWorstYear(2012));
+                assertEquals(2015, profile.latestBestYear(2010, 2017));
+                assertEquals(-1, profile.earliestWorstYear(2013, 2020));
+        }
+
+        @Test
+        void milestoneCostsMatchDirectSums() {
+                CarDataService carDataService = new CarDataService(new ObjectMapper());
+                for (CarModel car : carDataService.getAllModels()) {
+                        MileageProfile profile = carDataService.findMileageProfile(car.id()).orElse(null);
+                        if (profile == null)
+                                continue;
+                        for (long start = 0; start <= 200_000; start += 5_000) {
+                                final long from = start;
+                                for (double years : new double[] { 0.5, 1, 3, 5 }) {
+                                        long to = from + MileageProfile.horizonMiles(12_000, years);
+                                        long expected = profile.milestones().stream()
+                                                        .filter(m -> m.mileage() > from && m.mileage() <= to)
+                                                        .mapToLong(Milestone::estCost).sum();
+                                        assertEquals(expected, profile.milestoneCostBetween(from, to), car.id());
+                                        assertEquals(expected, profile.upcomingMilestoneCost(from, 12_000, years));
+                                        assertEquals(profile.milestonesBetween(from, to),
+                                                        profile.upcomingMilestones(from, 12_000, years));
+                                }
+                        }
+                }
+        }
+
+        @Test
+        void missingReliabilityYieldsEmptyProfile() {
+                MileageProfile profile = MileageProfile.of(null);
+                assertNull(profile.closestLogicText(100000, 25000));
+                assertTrue(profile.milestonesBetween(0, 500000).isEmpty());
+                assertEquals(-1, profile.latestBestYear(2000, 2030));
+                assertEquals(0, profile.milestoneCostBetween(0, 500000));
+        }
+}
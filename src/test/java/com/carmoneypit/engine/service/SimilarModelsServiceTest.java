@@ -0,0 +1,58 @@
+package com.carmoneypit.engine.service;
+
+import com.carmoneypit.engine.service.CarDataService.CarModel;
+import com.carmoneypit.engine.service.SimilarModelsService.Comparison;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarModelsServiceTest {
+
+    private final CarDataService carDataService = new CarDataService(new ObjectMapper());
+    private final SimilarModelsService service = new SimilarModelsService(carDataService);
+
+    @Test
+    void everyModelWithDataHasDistinctNeighbours() {
+        DatasetSnapshot snapshot = carDataService.snapshot();
+        for (CarModel car : carDataService.getAllModels()) {
+            List<CarModel> neighbours = service.neighbours(car.id());
+            if (!snapshot.reliabilityMap().containsKey(car.id()) || !snapshot.marketMap().containsKey(car.id())) {
+                assertTrue(neighbours.isEmpty(), car.id());
+                continue;
+            }
+            assertEquals(SimilarModelsService.NEIGHBOURS, neighbours.size(), car.id());
+            assertEquals(neighbours.size(), neighbours.stream().map(CarModel::id).distinct().count());
+            assertFalse(neighbours.stream().anyMatch(n -> n.id().equals(car.id())));
+        }
+    }
+
+    @Test
+    void comparisonsExistForNeighbourPairsInEitherOrder() {
+        CarModel car = carDataService.getAllModels().stream()
+                .filter(c -> !service.neighbours(c.id()).isEmpty())
+                .findFirst().orElseThrow();
+        CarModel neighbour = service.neighbours(car.id()).get(0);
+
+        Comparison forward = service.comparison(car.id(), neighbour.id()).orElseThrow();
+        assertSame(forward, service.comparison(neighbour.id(), car.id()).orElseThrow());
+        int byBrand = SlugCodec.slug(forward.first().brand()).compareTo(SlugCodec.slug(forward.second().brand()));
+        assertTrue(byBrand < 0 || byBrand == 0
+                && SlugCodec.slug(forward.first().model()).compareTo(SlugCodec.slug(forward.second().model())) <= 0);
+        assertNotNull(forward.firstMarket());
+        assertNotNull(forward.secondReliability());
+        assertTrue(service.comparison(car.id(), "no-such-model").isEmpty());
+    }
+
+    @Test
+    void reloadRebuildsNeighbours() {
+        CarModel car = carDataService.getAllModels().get(0);
+        List<CarModel> before = service.neighbours(car.id());
+
+        service.onDatasetReloaded(new DatasetReloadedEvent(carDataService.snapshot(), carDataService.snapshot()));
+
+        assertEquals(before, service.neighbours(car.id()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.carmoneypit.engine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SlugCodec:
+ * - key/slug/brandKey match the regex normalizers they replaced, for dataset names and random input
+ * - Fault slugs keep existing URLs ("A/C" -> "ac") and no longer emit double dashes
+ * - Canonical input and catalog names come back without allocating a new string
+ */
+class SlugCodecTest {
+
+        private static String legacyKey(String s) {
+                return s.toLowerCase().replaceAll("[^a-z0-9]", "");
+        }
+
+        private static String legacySlug(String s) {
+                return s.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        }
+
+        private static String legacyBrandKey(String s) {
+                return s.toUpperCase().replace("-", "_").replace(" ", "_").trim();
+        }
+
+        @Test
+        void matchesLegacyNormalizersOnDatasetAndRandomInput() {
+                CarDataService carDataService = new CarDataService(new ObjectMapper());
+                List<String> inputs = new ArrayList<>();
+                carDataService.getAllModels().forEach(c -> {
+                        inputs.add(c.brand());
+                        inputs.add(c.model());
+                });
+                carDataService.snapshot().faultsMap().values()
+                                .forEach(g -> g.faults().forEach(f -> inputs.add(f.component())));
+                inputs.addAll(List.of("", "-", "--a--", " Range  Rover ", "F-150", "\tBMW\n", "a_b", "ÉCLAIR"));
+
+                Random random = new Random(42);
+                String alphabet = "abcXYZ019 -_/&().\t";
+                for (int i = 0; i < 2000; i++) {
+                        StringBuilder sb = new StringBuilder();
+                        int len = random.nextInt(12);
+                        for (int j = 0; j < len; j++)
+                                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                        inputs.add(sb.toString());
+                }
+
+                for (String input : inputs) {
+                        assertEquals(legacyKey(input), SlugCodec.key(input), "key(" + input + ")");
+                        assertEquals(legacySlug(input), SlugCodec.slug(input), "slug(" + input + ")");
+                        assertEquals(legacyBrandKey(input), SlugCodec.brandKey(input), "brandKey(" + input + ")");
+                        String fault = SlugCodec.faultSlug(input);
+                        assertFalse(fault.contains("--") || fault.startsWith("-") || fault.endsWith("-"),
+                                        "faultSlug(" + input + ") = " + fault);
+                }
+        }
+
+        @Test
+        void faultSlugsKeepPublishedUrlsAndCollapseDashes() {
+                assertEquals("torque-converter", SlugCodec.faultSlug("Torque Converter"));
+                assertEquals("ac-condenser", SlugCodec.faultSlug("A/C Condenser"));
+                assertEquals("water-pump-thermostat-failure", SlugCodec.faultSlug("Water Pump & Thermostat Failure"));
+                assertEquals("srff-valvetrain-failure-p219ap219b",
+                                SlugCodec.faultSlug("SRFF / Valvetrain Failure (P219A/P219B)"));
+                assertEquals("", SlugCodec.faultSlug(null));
+        }
+
+        @Test
+        void canonicalAndCatalogInputsAreNotReallocated() {
+                String slug = "not-in-catalog-2";
+                assertSame(slug, SlugCodec.slug(slug));
+                assertSame(slug, SlugCodec.faultSlug(slug));
+                String key = "notincatalog2";
+                assertSame(key, SlugCodec.key(key));
+                String brand = "NOT_IN_CATALOG";
+                assertSame(brand, SlugCodec.brandKey(brand));
+
+                new CarDataService(new ObjectMapper()); // warms the interned table
+                assertSame(SlugCodec.slug("CR-V"), SlugCodec.slug(new String("CR-V")));
+                assertSame(SlugCodec.faultSlug("A/C Condenser"), SlugCodec.faultSlug(new String("A/C Condenser")));
+        }
+}
@@ -0,0 +1,81 @@
+package com.carmoneypit.engine.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ApiAccessFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private MockHttpServletResponse perform(ApiAccessFilter filter, String method, String path, String key,
+            String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        if (key != null) {
+            request.addHeader(ApiAccessFilter.API_KEY_HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest(), "allowed requests reach the controller");
+        } else {
+            assertNull(chain.getRequest(), "rejected requests stop at the filter");
+        }
+        return response;
+    }
+
+    @Test
+    void batchNeedsTheConfiguredKey() throws Exception {
+        ApiAccessFilter filter = new ApiAccessFilter("s3cret", 120, now::get);
+
+        assertEquals(401, perform(filter, "POST", ApiAccessFilter.BATCH_PATH, null, "10.0.0.1").getStatus());
+        assertEquals(401, perform(filter, "POST", ApiAccessFilter.BATCH_PATH, "wrong", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "POST", ApiAccessFilter.BATCH_PATH, "s3cret", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void batchStaysClosedWithoutAConfiguredKey() throws Exception {
+        ApiAccessFilter filter = new ApiAccessFilter("", 120, now::get);
+
+        assertEquals(401, perform(filter, "POST", ApiAccessFilter.BATCH_PATH, null, "10.0.0.1").getStatus());
+        assertEquals(401, perform(filter, "POST", ApiAccessFilter.BATCH_PATH, "", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void computeEndpointsAreLimitedPerAddressPerMinute() throws Exception {
+        ApiAccessFilter filter = new ApiAccessFilter("s3cret", 3, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform(filter, "POST", "/api/v1/verdicts:grid", null, "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse limited = perform(filter, "GET", "/api/v1/replacements", null, "10.0.0.1");
+        assertEquals(429, limited.getStatus());
+        assertEquals("60", limited.getHeader("Retry-After"));
+
+        // Other addresses and key holders are unaffected
+        assertEquals(200, perform(filter, "POST", "/api/v1/verdicts:grid", null, "10.0.0.2").getStatus());
+        assertEquals(200, perform(filter, "POST", "/api/v1/verdicts:grid", "s3cret", "10.0.0.1").getStatus());
+
+        now.addAndGet(60_000);
+        assertEquals(200, perform(filter, "POST", "/api/v1/verdicts:grid", null, "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void otherPathsAreNotGuarded() throws Exception {
+        ApiAccessFilter filter = new ApiAccessFilter("", 1, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(filter, "GET", "/verdict", null, "10.0.0.1").getStatus());
+            assertEquals(200, perform(filter, "GET", "/api/v1/dataset", null, "10.0.0.1").getStatus());
+        }
+    }
+}
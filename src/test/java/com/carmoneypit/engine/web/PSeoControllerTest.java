@@ -1,8 +1,11 @@
 package com.carmoneypit.engine.web;
 
 import com.carmoneypit.engine.config.PartnerRoutingConfig;
+import com.carmoneypit.engine.core.BreakevenSolver;
 import com.carmoneypit.engine.core.DecisionEngine;
+import com.carmoneypit.engine.core.VerdictTableService;
 import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.SimilarModelsService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -33,6 +36,15 @@ public class PSeoControllerTest {
     @MockBean
     private DecisionEngine decisionEngine;
 
+    @MockBean
+    private BreakevenSolver breakevenSolver;
+
+    @MockBean
+    private VerdictTableService verdictTableService;
+
+    @MockBean
+    private SimilarModelsService similarModelsService;
+
     @MockBean
     private PartnerRoutingConfig routingConfig;
 
@@ -1,6 +1,7 @@
 package com.carmoneypit.engine.web;
 
 import com.carmoneypit.engine.service.CarDataService;
+import com.carmoneypit.engine.service.FaultHubService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -25,6 +26,9 @@ class SitemapControllerTest {
     @MockBean
     private CarDataService dataService;
 
+    @MockBean
+    private FaultHubService faultHubService;
+
     @Test
     void sitemapShouldPromoteRepresentativeShouldFixPageOverStartYear() throws Exception {
         CarDataService.CarModel car = new CarDataService.CarModel(
@@ -7,6 +7,7 @@ import com.carmoneypit.engine.api.OutputModels.VerdictState;
 import com.carmoneypit.engine.api.OutputModels.VisualizationHint;
 import com.carmoneypit.engine.core.DecisionEngine;
 import com.carmoneypit.engine.core.ValuationService;
+import com.carmoneypit.engine.core.VerdictTableService;
 import com.carmoneypit.engine.service.CarDataService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +47,9 @@ public class WebLayerTest {
         @MockBean
         private CarDataService carDataService;
 
+        @MockBean
+        private VerdictTableService verdictTableService;
+
         @Test
         public void testIndexPage() throws Exception {
                 // Mock the getAllBrands method
@@ -163,7 +167,7 @@ public class WebLayerTest {
         @Test
         public void shouldRedirectPseoSlugToCanonicalHyphenatedRoute() throws Exception {
                 given(valuationService.isValidBrand("HONDA")).willReturn(true);
-                given(carDataService.getAllModels()).willReturn(List.of(
+                given(carDataService.findCarBySlug("HONDA", "Crv")).willReturn(Optional.of(
                                 new CarDataService.CarModel("honda-crv", "HONDA", "CR-V", "RW", 2018, 2024)));
                 given(carDataService.findFaultsByModelId("honda-crv")).willReturn(Optional.empty());
                 given(carDataService.findReliabilityByModelId("honda-crv")).willReturn(Optional.empty());
@@ -177,7 +181,7 @@ public class WebLayerTest {
         @Test
         public void shouldProvideModelSpecificCopyForAltimaPages() throws Exception {
                 given(valuationService.isValidBrand("NISSAN")).willReturn(true);
-                given(carDataService.getAllModels()).willReturn(List.of(
+                given(carDataService.findCarBySlug("NISSAN", "Altima")).willReturn(Optional.of(
                                 new CarDataService.CarModel("nissan-altima-l33", "NISSAN", "Altima", "L33", 2013, 2018)));
                 given(carDataService.findFaultsByModelId("nissan-altima-l33")).willReturn(Optional.of(
                                 new CarDataService.MajorFaults("nissan-altima-l33", List.of(